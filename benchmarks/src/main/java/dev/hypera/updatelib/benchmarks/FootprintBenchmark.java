@@ -0,0 +1,147 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.benchmarks;
+
+import com.vdurmont.semver4j.Semver;
+import com.vdurmont.semver4j.Semver.SemverType;
+import dev.hypera.updatelib.comparators.impl.SemanticVersioningComparator;
+import dev.hypera.updatelib.json.JsonReader;
+import dev.hypera.updatelib.objects.enums.Status;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+
+/**
+ * Startup and footprint benchmark comparing the dependency-free core against the json-simple and semver4j code path
+ * UpdateLib used before.
+ * <p>
+ * Every sample runs in a fresh JVM, parses a Polymart response and compares the resolved version, then reports the
+ * time taken, the amount of classes loaded and the metaspace used by doing so. Run with
+ * {@code java -cp <classpath> dev.hypera.updatelib.benchmarks.FootprintBenchmark [forks]}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class FootprintBenchmark {
+
+	private static final String SAMPLE = "{\"success\":true,\"resource\":{\"id\":\"1\",\"title\":\"Example\",\"updates\":{\"latest\":{\"id\":\"12\",\"version\":\"4.1.0\",\"title\":\"Update\"}}}}";
+	private static final String CURRENT_VERSION = "4.0.0";
+
+	public static void main(String[] args) throws Exception {
+		int forks = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		System.out.printf("%-8s %12s %10s %14s%n", "mode", "startup(ms)", "classes", "metaspace(KB)");
+		for (String mode : new String[] { "core", "legacy" }) {
+			List<long[]> samples = new ArrayList<>();
+			for (int i = 0; i < forks; i++) {
+				samples.add(fork(mode));
+			}
+			System.out.printf("%-8s %12.3f %10d %14d%n", mode, median(samples, 0) / 1_000_000D, median(samples, 1), median(samples, 2) / 1024);
+		}
+	}
+
+	private static long[] fork(String mode) throws Exception {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		Process process = new ProcessBuilder(java, "-Xshare:off", "-cp", System.getProperty("java.class.path"), Probe.class.getName(), mode).redirectErrorStream(true).start();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line = reader.readLine();
+			if (process.waitFor() != 0 || null == line) {
+				throw new IllegalStateException("Probe for '" + mode + "' failed: " + line);
+			}
+			String[] parts = line.trim().split(" ");
+			return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]) };
+		}
+	}
+
+	private static long median(List<long[]> samples, int index) {
+		List<Long> values = new ArrayList<>();
+		for (long[] sample : samples) {
+			values.add(sample[index]);
+		}
+		Collections.sort(values);
+		return values.get(values.size() / 2);
+	}
+
+	private static long metaspace() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getName().equals("Metaspace")) {
+				return pool.getUsage().getUsed();
+			}
+		}
+		return 0L;
+	}
+
+	/**
+	 * Single benchmark sample, run in a fresh JVM.
+	 */
+	public static class Probe {
+
+		public static void main(String[] args) throws Exception {
+			long classes = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+			long metaspace = metaspace();
+			long start = System.nanoTime();
+
+			Status status = args[0].equals("core") ? core() : legacy();
+
+			long elapsed = System.nanoTime() - start;
+			if (status != Status.MINOR_AVAILABLE) {
+				throw new IllegalStateException("Unexpected status " + status);
+			}
+			System.out.println(elapsed + " " + (ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - classes) + " " + (metaspace() - metaspace));
+		}
+
+		private static Status core() throws Exception {
+			String version = JsonReader.select(SAMPLE, "resource", "updates", "latest", "version");
+			return new SemanticVersioningComparator().compareVersions(CURRENT_VERSION, version);
+		}
+
+		private static Status legacy() {
+			JSONObject json = (JSONObject) JSONValue.parse(SAMPLE);
+			JSONObject resource = (JSONObject) json.get("resource");
+			JSONObject updates = (JSONObject) resource.get("updates");
+			String version = ((JSONObject) updates.get("latest")).get("version").toString();
+
+			Semver current = new Semver(CURRENT_VERSION, SemverType.LOOSE);
+			Semver distributed = new Semver(version, SemverType.LOOSE);
+			if (!distributed.isGreaterThan(current)) {
+				return Status.UNAVAILABLE;
+			}
+			switch (distributed.diff(current)) {
+				case MAJOR:
+					return Status.MAJOR_AVAILABLE;
+				case MINOR:
+					return Status.MINOR_AVAILABLE;
+				default:
+					return Status.AVAILABLE;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.benchmarks;
+
+import dev.hypera.updatelib.resolvers.impl.LegacySpigotVersionResolver;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark of parsing a legacy SpigotMC API response, comparing:
+ * <ul>
+ *     <li>{@code reader}, the original reader based path, joining the lines of a {@link BufferedReader};</li>
+ *     <li>{@code string}, decoding the whole body to a string, trimming it and searching it for the error sentinel;</li>
+ *     <li>{@code bytes}, the byte level {@link LegacySpigotVersionResolver#parseVersion(byte[], int)} fast path.</li>
+ * </ul>
+ * Reports the time and the heap allocated per parse. Run with
+ * {@code java -cp <classpath> dev.hypera.updatelib.benchmarks.LegacySpigotBenchmark [iterations]}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class LegacySpigotBenchmark {
+
+	private static final byte[] SAMPLE = "4.2.1-SNAPSHOT\n".getBytes(StandardCharsets.UTF_8);
+	private static final int ROUNDS = 5;
+
+	private static volatile Object sink;
+
+	public static void main(String[] args) throws Exception {
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		System.out.printf("%-8s %10s %14s%n", "path", "ns/op", "bytes/op");
+		for (String path : new String[] { "reader", "string", "bytes" }) {
+			// Warm up, then report the best round.
+			run(path, iterations);
+			double bestTime = Double.MAX_VALUE;
+			double bestAllocated = Double.MAX_VALUE;
+			for (int round = 0; round < ROUNDS; round++) {
+				double[] result = run(path, iterations);
+				bestTime = Math.min(bestTime, result[0]);
+				bestAllocated = Math.min(bestAllocated, result[1]);
+			}
+			System.out.printf("%-8s %10.1f %14.1f%n", path, bestTime, bestAllocated);
+		}
+	}
+
+	private static double[] run(String path, int iterations) throws Exception {
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			switch (path) {
+				case "reader":
+					sink = reader(SAMPLE);
+					break;
+				case "string":
+					sink = string(SAMPLE);
+					break;
+				default:
+					sink = LegacySpigotVersionResolver.parseVersion(SAMPLE, SAMPLE.length);
+					break;
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		return new double[] { elapsed / (double) iterations, (allocatedBytes() - allocated) / (double) iterations };
+	}
+
+	private static String reader(byte[] body) throws Exception {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body)))) {
+			String data = reader.lines().collect(Collectors.joining());
+			if (data.contains("Invalid")) {
+				throw new IllegalStateException("Invalid resource");
+			}
+			return data;
+		}
+	}
+
+	private static String string(byte[] body) {
+		String data = new String(body, StandardCharsets.UTF_8).trim();
+		if (data.contains("Invalid")) {
+			throw new IllegalStateException("Invalid resource");
+		}
+		return data;
+	}
+
+	private static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0L;
+	}
+
+}
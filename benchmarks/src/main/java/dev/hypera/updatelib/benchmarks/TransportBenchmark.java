@@ -0,0 +1,157 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.resolvers.impl.LegacySpigotVersionResolver;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Benchmark comparing the transports and check executors selected by the multi-release jar, running every
+ * combination of the {@code urlconnection} and {@code httpclient} engines with platform and virtual check threads.
+ * Virtual threads are only used on Java 21 and newer, on older JVMs those modes fall back to platform threads.
+ * <p>
+ * Every mode runs in a fresh JVM, checking many resources against a local server with a fixed latency, and reports
+ * the throughput and the peak amount of live threads. The local server only speaks cleartext HTTP/1.1, so HTTP/2
+ * multiplexing is not measured. The multi-release classes are only picked up from a jar, so run with the packaged
+ * UpdateLib jar on the classpath:
+ * {@code java -cp <classpath> dev.hypera.updatelib.benchmarks.TransportBenchmark [instances] [rounds] [latency]}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class TransportBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		String instances = args.length > 0 ? args[0] : "2000";
+		String rounds = args.length > 1 ? args[1] : "5";
+		String latency = args.length > 2 ? args[2] : "50";
+		System.out.printf("%-14s %-9s %10s %10s %8s%n", "engine", "threads", "wall(ms)", "checks/s", "peak");
+		for (String engine : new String[] { "urlconnection", "httpclient" }) {
+			for (boolean virtual : new boolean[] { false, true }) {
+				String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+				Process process = new ProcessBuilder(java, "-Dupdatelib.http.engine=" + engine, "-Dupdatelib.virtualThreads=" + virtual, "-cp", System.getProperty("java.class.path"), Probe.class.getName(), instances, rounds, latency).redirectErrorStream(true).start();
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+					String line = reader.readLine();
+					if (process.waitFor() != 0 || null == line) {
+						throw new IllegalStateException("Probe for '" + engine + "' failed: " + line);
+					}
+					System.out.printf("%-14s %-9s %10s %10s %8s%n", (Object[]) line.trim().split(" "));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Single benchmark mode, run in a fresh JVM.
+	 */
+	public static class Probe {
+
+		public static void main(String[] args) throws Exception {
+			int instances = Integer.parseInt(args[0]);
+			int rounds = Integer.parseInt(args[1]);
+			long latency = Long.parseLong(args[2]);
+
+			// Without this the server's separate header and body writes wait on delayed acknowledgements.
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+			ExecutorService serverExecutor = Executors.newFixedThreadPool(256);
+			HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+			server.createContext("/legacy/update.php", exchange -> {
+				try {
+					Thread.sleep(latency);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				byte[] body = "4.2.0".getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream outputStream = exchange.getResponseBody()) {
+					outputStream.write(body);
+				}
+			});
+			server.setExecutor(serverExecutor);
+			server.start();
+
+			LegacySpigotVersionResolver resolver = new LegacySpigotVersionResolver("http://127.0.0.1:" + server.getAddress().getPort());
+			List<UpdateLib> updateLibs = new ArrayList<>();
+			List<CompletableFuture<UpdateStatus>> initial = new ArrayList<>();
+			AtomicBoolean virtual = new AtomicBoolean();
+			for (int i = 0; i < instances; i++) {
+				CompletableFuture<UpdateStatus> completed = new CompletableFuture<>();
+				updateLibs.add(UpdateLib.builder().resource(i + 1).version("1.0.0").resolver(resolver).disableRepeatingChecks().handler(status -> {
+					virtual.set(isVirtual(Thread.currentThread()));
+					completed.complete(status);
+				}).failureHandler(completed::complete).build());
+				initial.add(completed);
+			}
+			CompletableFuture.allOf(initial.toArray(new CompletableFuture[0])).get();
+
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			threads.resetPeakThreadCount();
+			long start = System.nanoTime();
+			for (int round = 0; round < rounds; round++) {
+				List<CompletableFuture<UpdateStatus>> checks = new ArrayList<>();
+				for (UpdateLib updateLib : updateLibs) {
+					checks.add(updateLib.check());
+				}
+				for (CompletableFuture<UpdateStatus> check : checks) {
+					if (check.get().isFailed()) {
+						throw new IllegalStateException("Check failed: " + check.get().getFailureReason());
+					}
+				}
+			}
+			long elapsed = System.nanoTime() - start;
+
+			System.out.println(HttpTransport.getEngine() + " " + (virtual.get() ? "virtual" : "platform") + " " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " " + Math.round(instances * (double) rounds / (elapsed / 1e9D)) + " " + threads.getPeakThreadCount());
+			server.stop(0);
+			serverExecutor.shutdownNow();
+			System.exit(0);
+		}
+
+		private static boolean isVirtual(Thread thread) {
+			try {
+				return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+			} catch (ReflectiveOperationException ex) {
+				return false;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib;
+
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.objects.enums.Status;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Open-addressing table of tracked resources, keyed by primitive resource identifier.
+ * <p>
+ * Entries are stored column-wise in parallel arrays, with the status and failure reason packed into a byte each, so
+ * a tracked resource costs a few dozen bytes plus its version strings and no per-entry objects. Collisions are
+ * resolved by linear probing and removals shift later entries back, so there are no tombstones. Not thread safe.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class ResourceTable {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final byte NONE = -1;
+	private static final Status[] STATUSES = Status.values();
+	private static final FailureReason[] FAILURE_REASONS = FailureReason.values();
+
+	private long[] keys;
+	private String[] currentVersions;
+	private String[] distributedVersions;
+	private String[] failureMessages;
+	private byte[] statuses;
+	private byte[] failureReasons;
+	private short[] httpStatuses;
+	private long[] lastChecks;
+	private int size = 0;
+
+	ResourceTable(int expected) {
+		int capacity = 16;
+		while (capacity * 3 / 4 < expected) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	int size() {
+		return size;
+	}
+
+	int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Find a resource.
+	 * @return Slot of the resource, or {@code -1} if it is not tracked.
+	 */
+	int indexOf(long resourceId) {
+		int mask = keys.length - 1;
+		for (int index = slot(resourceId, mask); ; index = (index + 1) & mask) {
+			long key = keys[index];
+			if (key == resourceId) {
+				return index;
+			} else if (key == EMPTY) {
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * Track a resource, or update its current version if it is already tracked. Updating the current version clears
+	 * the last status.
+	 */
+	void put(long resourceId, @NotNull String currentVersion) {
+		if (resourceId == EMPTY) {
+			throw new IllegalArgumentException("Resource identifier " + resourceId + " is reserved.");
+		}
+
+		int index = indexOf(resourceId);
+		if (index >= 0) {
+			if (!currentVersion.equals(currentVersions[index])) {
+				clear(index);
+				currentVersions[index] = currentVersion;
+			}
+			return;
+		}
+
+		if ((size + 1) * 4 > keys.length * 3) {
+			resize(keys.length << 1);
+		}
+		int mask = keys.length - 1;
+		index = slot(resourceId, mask);
+		while (keys[index] != EMPTY) {
+			index = (index + 1) & mask;
+		}
+		keys[index] = resourceId;
+		currentVersions[index] = currentVersion;
+		clear(index);
+		size++;
+	}
+
+	/**
+	 * Stop tracking a resource.
+	 * @return {@code true} if the resource was tracked.
+	 */
+	boolean remove(long resourceId) {
+		int gap = indexOf(resourceId);
+		if (gap < 0) {
+			return false;
+		}
+
+		// Shift back every following entry of the probe sequence that may occupy the gap.
+		int mask = keys.length - 1;
+		for (int index = (gap + 1) & mask; keys[index] != EMPTY; index = (index + 1) & mask) {
+			int home = slot(keys[index], mask);
+			if (((index - home) & mask) >= ((index - gap) & mask)) {
+				move(index, gap);
+				gap = index;
+			}
+		}
+		keys[gap] = EMPTY;
+		currentVersions[gap] = null;
+		clear(gap);
+		size--;
+		return true;
+	}
+
+	long key(int index) {
+		return keys[index];
+	}
+
+	boolean isUsed(int index) {
+		return keys[index] != EMPTY;
+	}
+
+	@NotNull String currentVersion(int index) {
+		return currentVersions[index];
+	}
+
+	long lastCheck(int index) {
+		return lastChecks[index];
+	}
+
+	/**
+	 * Store the outcome of a check.
+	 */
+	void record(int index, @NotNull UpdateStatus status, long time) {
+		distributedVersions[index] = status.getDistributedVersion();
+		statuses[index] = (byte) status.getStatus().ordinal();
+		FailureReason reason = status.getFailureReason();
+		failureReasons[index] = null == reason ? NONE : (byte) reason.ordinal();
+		httpStatuses[index] = (short) status.getHttpStatus();
+		failureMessages[index] = status.getFailureMessage();
+		lastChecks[index] = time;
+	}
+
+	/**
+	 * Get the last status of a resource.
+	 * @return Last status, or an unavailable status without a distributed version if it was not checked yet.
+	 */
+	@NotNull UpdateStatus status(int index) {
+		if (failureReasons[index] != NONE) {
+			return UpdateStatus.failed(currentVersions[index], FAILURE_REASONS[failureReasons[index]], httpStatuses[index], failureMessages[index]);
+		}
+		return new UpdateStatus(currentVersions[index], distributedVersions[index], statuses[index] == NONE ? Status.UNAVAILABLE : STATUSES[statuses[index]]);
+	}
+
+	private void clear(int index) {
+		distributedVersions[index] = null;
+		failureMessages[index] = null;
+		statuses[index] = NONE;
+		failureReasons[index] = NONE;
+		httpStatuses[index] = -1;
+		lastChecks[index] = 0L;
+	}
+
+	private void move(int from, int to) {
+		keys[to] = keys[from];
+		currentVersions[to] = currentVersions[from];
+		distributedVersions[to] = distributedVersions[from];
+		failureMessages[to] = failureMessages[from];
+		statuses[to] = statuses[from];
+		failureReasons[to] = failureReasons[from];
+		httpStatuses[to] = httpStatuses[from];
+		lastChecks[to] = lastChecks[from];
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		String[] oldCurrentVersions = currentVersions;
+		String[] oldDistributedVersions = distributedVersions;
+		String[] oldFailureMessages = failureMessages;
+		byte[] oldStatuses = statuses;
+		byte[] oldFailureReasons = failureReasons;
+		short[] oldHttpStatuses = httpStatuses;
+		long[] oldLastChecks = lastChecks;
+		allocate(capacity);
+
+		int mask = capacity - 1;
+		for (int from = 0; from < oldKeys.length; from++) {
+			if (oldKeys[from] == EMPTY) {
+				continue;
+			}
+			int to = slot(oldKeys[from], mask);
+			while (keys[to] != EMPTY) {
+				to = (to + 1) & mask;
+			}
+			keys[to] = oldKeys[from];
+			currentVersions[to] = oldCurrentVersions[from];
+			distributedVersions[to] = oldDistributedVersions[from];
+			failureMessages[to] = oldFailureMessages[from];
+			statuses[to] = oldStatuses[from];
+			failureReasons[to] = oldFailureReasons[from];
+			httpStatuses[to] = oldHttpStatuses[from];
+			lastChecks[to] = oldLastChecks[from];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		currentVersions = new String[capacity];
+		distributedVersions = new String[capacity];
+		failureMessages = new String[capacity];
+		statuses = new byte[capacity];
+		failureReasons = new byte[capacity];
+		httpStatuses = new short[capacity];
+		lastChecks = new long[capacity];
+	}
+
+	private static int slot(long resourceId, int mask) {
+		long hash = resourceId * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+}
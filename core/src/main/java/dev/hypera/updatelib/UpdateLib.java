@@ -0,0 +1,432 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib;
+
+import dev.hypera.updatelib.comparators.IVersionComparator;
+import dev.hypera.updatelib.diagnostics.CheckEventLog;
+import dev.hypera.updatelib.exceptions.VersionComparisonFailureException;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.RequestContext;
+import dev.hypera.updatelib.objects.SemanticVersion;
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.objects.enums.Status;
+import dev.hypera.updatelib.policy.UpdatePolicy;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import dev.hypera.updatelib.scheduling.AdaptiveInterval;
+import dev.hypera.updatelib.scheduling.LoadAwareScheduler;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * UpdateLib main class
+ * <p>
+ * Repeating checks only hold an instance weakly between checks, so an abandoned instance stops checking once it is
+ * garbage collected. Keep a reference for as long as checks should repeat, and {@link #close()} it when it is no
+ * longer needed, for example when the plugin is disabled.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class UpdateLib implements AutoCloseable {
+
+	private static final String VERSION = "4.0.0";
+	private static final int EVENT_LOG_SIZE = 16;
+	private static final String VIRTUAL_THREADS_PROPERTY = "updatelib.virtualThreads";
+	private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+	static final ExecutorService CHECK_EXECUTOR = checkExecutor();
+	static final ScheduledExecutorService SCHEDULER = scheduler();
+
+	private final long resourceId;
+	private final String currentVersion;
+	private final int connectTimeout;
+	private final int firstByteTimeout;
+	private final long totalTimeout;
+	private final int maxBodySize;
+	private final long interval;
+	private final AdaptiveInterval adaptiveInterval;
+	private final LoadAwareScheduler loadAwareScheduler;
+	private final IVersionResolver versionResolver;
+	private final IVersionComparator versionComparator;
+	private final UpdatePolicy policy;
+	private final SemanticVersion parsedCurrentVersion;
+	private final Consumer<UpdateStatus> statusHandler;
+	private final Consumer<UpdateStatus> failureHandler;
+
+	private final CheckEventLog eventLog = new CheckEventLog(EVENT_LOG_SIZE);
+	private final Queue<Runnable> closeListeners = new ConcurrentLinkedQueue<>();
+
+	private UpdateStatus lastStatus = UpdateStatus.DEFAULT;
+	private long lastCheck = 0L;
+	private volatile boolean closed = false;
+	private volatile ScheduledFuture<?> scheduled = null;
+	private volatile Object transportHandle = null;
+
+	@Internal
+	protected UpdateLib(long resourceId, String currentVersion, int connectTimeout, int firstByteTimeout, long totalTimeout, int maxBodySize, boolean repeatingChecks, long interval, AdaptiveInterval adaptiveInterval, LoadAwareScheduler loadAwareScheduler, IVersionResolver versionResolver, IVersionComparator versionComparator, UpdatePolicy policy, Consumer<UpdateStatus> statusHandler, Consumer<UpdateStatus> failureHandler) {
+		this.resourceId = resourceId;
+		this.currentVersion = currentVersion;
+		this.connectTimeout = connectTimeout;
+		this.firstByteTimeout = firstByteTimeout;
+		this.totalTimeout = totalTimeout;
+		this.maxBodySize = maxBodySize;
+		this.interval = interval;
+		this.adaptiveInterval = adaptiveInterval;
+		this.loadAwareScheduler = loadAwareScheduler;
+		this.versionResolver = versionResolver;
+		this.versionComparator = versionComparator;
+		this.policy = policy;
+		this.parsedCurrentVersion = null == policy ? null : UpdatePolicy.tryParse(currentVersion);
+		this.statusHandler = statusHandler;
+		this.failureHandler = failureHandler;
+
+		if (repeatingChecks) {
+			scheduledCheck();
+		} else {
+			check();
+		}
+	}
+
+	/**
+	 * Create an instance that only carries http settings and never checks on its own, passed to resolvers by
+	 * components that check resources without a dedicated {@link UpdateLib} instance, such as {@link UpdateTracker}.
+	 */
+	@Internal
+	protected UpdateLib(int connectTimeout, int firstByteTimeout, long totalTimeout, int maxBodySize) {
+		this.resourceId = -1L;
+		this.currentVersion = null;
+		this.connectTimeout = connectTimeout;
+		this.firstByteTimeout = firstByteTimeout;
+		this.totalTimeout = totalTimeout;
+		this.maxBodySize = maxBodySize;
+		this.interval = 0L;
+		this.adaptiveInterval = null;
+		this.loadAwareScheduler = null;
+		this.versionResolver = null;
+		this.versionComparator = null;
+		this.policy = null;
+		this.parsedCurrentVersion = null;
+		this.statusHandler = status -> {};
+		this.failureHandler = status -> {};
+	}
+
+	/**
+	 * Create a new {@link UpdateLibBuilder} instance.
+	 * @return New {@link UpdateLibBuilder} instance.
+	 */
+	public static UpdateLibBuilder builder() {
+		return UpdateLibBuilder.create();
+	}
+
+	/**
+	 * Get the current version of UpdateLib.
+	 * @return Current UpdateLib version.
+	 */
+	public static String getVersion() {
+		return VERSION;
+	}
+
+	/**
+	 * Get the executor running update checks, for shared components that check resources in the background.
+	 * @return Check executor.
+	 */
+	@Internal
+	public static @NotNull Executor getCheckExecutor() {
+		return CHECK_EXECUTOR;
+	}
+
+	/**
+	 * Checks for an update.
+	 * <p>
+	 * Expected failures, such as timeouts, unexpected http status codes or rate limits, complete the returned future
+	 * with a {@link UpdateStatus#isFailed() failed} status instead of an exception. Cancelling the returned future, or
+	 * the check running out of time, aborts the in-flight request and frees the thread running the check.
+	 * @return {@link CompletableFuture<UpdateStatus>}
+	 */
+	public CompletableFuture<UpdateStatus> check() {
+		long start = System.nanoTime();
+		CompletableFuture<UpdateStatus> future = new CompletableFuture<>();
+		RequestContext context = new RequestContext(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalTimeout));
+
+		Future<?> task = CHECK_EXECUTOR.submit(() -> context.run(() -> {
+			try {
+				String distributedVersion = versionResolver.getVersion(this, resourceId);
+				Status comparison = versionComparator.compareVersions(currentVersion, distributedVersion);
+				if (comparison.isAvailable() && null != policy && !policy.allows(currentVersion, parsedCurrentVersion, distributedVersion, UpdatePolicy.tryParse(distributedVersion))) {
+					comparison = Status.UNAVAILABLE;
+				}
+				if (context.isAborted()) {
+					return;
+				}
+
+				lastStatus = new UpdateStatus(currentVersion, distributedVersion, comparison);
+				lastCheck = Instant.now().toEpochMilli();
+				if (null != adaptiveInterval) {
+					adaptiveInterval.observe(distributedVersion, lastCheck);
+				}
+
+				statusHandler.accept(lastStatus);
+				future.complete(lastStatus);
+			} catch (VersionResolveFailureException ex) {
+				fail(future, ex.getReason(), ex.getStatusCode(), ex.getMessage());
+			} catch (VersionComparisonFailureException ex) {
+				fail(future, FailureReason.COMPARISON, -1, ex.getMessage());
+			} catch (Throwable throwable) {
+				future.completeExceptionally(throwable);
+			}
+		}));
+
+		// The failure handler runs on a check thread, a slow handler would otherwise hold up every other deadline.
+		ScheduledFuture<?> deadline = SCHEDULER.schedule(() -> CHECK_EXECUTOR.execute(() -> fail(future, FailureReason.TIMEOUT, -1, "Update check did not complete within " + totalTimeout + "ms.")), totalTimeout, TimeUnit.MILLISECONDS);
+
+		future.whenComplete((status, throwable) -> {
+			deadline.cancel(false);
+			if (null != throwable || status.getFailureReason() == FailureReason.TIMEOUT) {
+				context.abort();
+				task.cancel(true);
+			}
+			record(context, start, status);
+		});
+
+		return future;
+	}
+
+	private void record(@NotNull RequestContext context, long start, UpdateStatus status) {
+		long latency = System.nanoTime() - start;
+		long timestamp = System.currentTimeMillis();
+		Status result = null == status ? Status.UNAVAILABLE : status.getStatus();
+		FailureReason reason = null == status ? FailureReason.UNKNOWN : status.getFailureReason();
+		eventLog.record(resourceId, versionResolver.getClass(), timestamp, latency, context.getHttpStatus(), context.getBodyBytes(), result, reason);
+		CheckEventLog.global().record(resourceId, versionResolver.getClass(), timestamp, latency, context.getHttpStatus(), context.getBodyBytes(), result, reason);
+	}
+
+	private void scheduledCheck() {
+		if (closed) {
+			return;
+		}
+		if (null == loadAwareScheduler) {
+			runScheduledCheck();
+		} else {
+			loadAwareScheduler.submit(new WeakTask<>(this, UpdateLib::runScheduledCheck), SCHEDULER);
+		}
+	}
+
+	private void runScheduledCheck() {
+		if (closed) {
+			return;
+		}
+		// The next check is only scheduled once this one has completed, so slow checks never overlap.
+		WeakTask<UpdateLib> next = new WeakTask<>(this, UpdateLib::scheduledCheck);
+		check().whenComplete((status, throwable) -> {
+			if (!closed) {
+				scheduled = SCHEDULER.schedule(next, getInterval(), TimeUnit.MILLISECONDS);
+			}
+		});
+	}
+
+	/**
+	 * Stop repeating checks. Checks can still be started with {@link #check()}.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		ScheduledFuture<?> current = scheduled;
+		if (null != current) {
+			current.cancel(false);
+		}
+		Runnable listener;
+		while (null != (listener = closeListeners.poll())) {
+			listener.run();
+		}
+	}
+
+	/**
+	 * Run an action once this instance is closed, used by shared components to release what they hold for it.
+	 * Actions added after the instance was closed are run straight away.
+	 * @param listener Action to run.
+	 */
+	@Internal
+	public void addCloseListener(@NotNull Runnable listener) {
+		closeListeners.add(listener);
+		if (closed && closeListeners.remove(listener)) {
+			listener.run();
+		}
+	}
+
+	/**
+	 * Keep an object used by the http transport for this instance, such as a pooled client, reachable for as long as
+	 * this instance is.
+	 * @param transportHandle Transport handle, or {@code null} to drop it.
+	 */
+	@Internal
+	public void setTransportHandle(@Nullable Object transportHandle) {
+		this.transportHandle = transportHandle;
+	}
+
+	/**
+	 * Check whether this instance has been closed.
+	 * @return {@code true} if repeating checks have been stopped.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	private void fail(@NotNull CompletableFuture<UpdateStatus> future, @NotNull FailureReason reason, int httpStatus, String message) {
+		UpdateStatus status = UpdateStatus.failed(currentVersion, reason, httpStatus, message);
+		if (future.complete(status)) {
+			failureHandler.accept(status);
+		}
+	}
+
+	/**
+	 * Get the last update status.
+	 * @return Last update status.
+	 */
+	public UpdateStatus getLastStatus() {
+		return lastStatus;
+	}
+
+	/**
+	 * Get the log of this instance's recent checks. Checks of every instance are also recorded in
+	 * {@link CheckEventLog#global()}.
+	 * @return Check event log, keeping the last {@value #EVENT_LOG_SIZE} checks.
+	 */
+	public @NotNull CheckEventLog getEventLog() {
+		return eventLog;
+	}
+
+	/**
+	 * Get the last time UpdateLib checked for an update.
+	 * @return Last check time.
+	 */
+	public long getLastCheck() {
+		return lastCheck;
+	}
+
+	/**
+	 * Get the time until the next repeating check, after the current check has completed.
+	 * @return Check interval in milliseconds.
+	 */
+	public long getInterval() {
+		return null == adaptiveInterval ? interval : adaptiveInterval.getInterval();
+	}
+
+	/**
+	 * Get the http connection timeout.
+	 * @return Connection timeout.
+	 */
+	@Internal
+	public int getTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Get the http connection timeout.
+	 * @return Connection timeout in milliseconds.
+	 */
+	@Internal
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Get the time to wait for the first byte of a response.
+	 * @return First byte timeout in milliseconds.
+	 */
+	@Internal
+	public int getFirstByteTimeout() {
+		return firstByteTimeout;
+	}
+
+	/**
+	 * Get the maximum time a whole update check may take.
+	 * @return Total timeout in milliseconds.
+	 */
+	@Internal
+	public long getTotalTimeout() {
+		return totalTimeout;
+	}
+
+	/**
+	 * Get the maximum size of a response body.
+	 * @return Maximum body size in bytes.
+	 */
+	@Internal
+	public int getMaxBodySize() {
+		return maxBodySize;
+	}
+
+	private static @NotNull ExecutorService checkExecutor() {
+		// Checks spend nearly all their time waiting on a request, which costs a virtual thread next to nothing. They
+		// are looked up reflectively so the Java 8 baseline keeps working, and can be disabled with a system property.
+		if (Boolean.parseBoolean(System.getProperty(VIRTUAL_THREADS_PROPERTY, "true"))) {
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException ignored) {
+				// Virtual threads are only available on Java 21 and newer.
+			}
+		}
+		// Idle threads exit soon, as they keep the classloader of a shaded copy reachable once its plugin is disabled.
+		return new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_TIMEOUT, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), threadFactory("UpdateLib-Check-"));
+	}
+
+	private static @NotNull ScheduledExecutorService scheduler() {
+		// The thread exits shortly after nothing is scheduled, and cancelled tasks are dropped right away instead of
+		// keeping what they captured reachable until they would have run.
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, threadFactory("UpdateLib-Scheduler-"));
+		scheduler.setRemoveOnCancelPolicy(true);
+		scheduler.setKeepAliveTime(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+		scheduler.allowCoreThreadTimeOut(true);
+		return scheduler;
+	}
+
+	private static @NotNull ThreadFactory threadFactory(@NotNull String prefix) {
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			// Threads inherit the context classloader of whichever plugin happened to start them otherwise.
+			thread.setContextClassLoader(UpdateLib.class.getClassLoader());
+			return thread;
+		};
+	}
+
+}
@@ -0,0 +1,288 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib;
+
+import dev.hypera.updatelib.comparators.IVersionComparator;
+import dev.hypera.updatelib.comparators.impl.SemanticVersioningComparator;
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.policy.UpdatePolicy;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.LegacySpigotVersionResolver;
+import dev.hypera.updatelib.scheduling.AdaptiveInterval;
+import dev.hypera.updatelib.scheduling.ILoadSignal;
+import dev.hypera.updatelib.scheduling.LoadAwareScheduler;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * UpdateLib builder
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class UpdateLibBuilder {
+
+	private long resourceId = -1;
+	private String currentVersion = null;
+	private boolean repeatingChecks = true;
+	private long checkInterval = TimeUnit.HOURS.toMillis(2);
+	private long minimumInterval = -1L;
+	private long maximumInterval = -1L;
+	private LoadAwareScheduler loadAwareScheduler = null;
+	private int connectTimeout = 10000;
+	private int firstByteTimeout = 10000;
+	private long totalTimeout = TimeUnit.SECONDS.toMillis(30);
+	private int maxBodySize = 1024 * 1024;
+	private IVersionResolver versionResolver = new LegacySpigotVersionResolver();
+	private IVersionComparator versionComparator = new SemanticVersioningComparator();
+	private UpdatePolicy policy = null;
+	private Consumer<UpdateStatus> statusHandler = status -> {};
+	private Consumer<UpdateStatus> failureHandler = status -> {};
+
+	/**
+	 * Creates a new {@link UpdateLibBuilder} instance.
+	 * @return New {@link UpdateLibBuilder} instance.
+	 */
+	public static @NotNull UpdateLibBuilder create() {
+		return new UpdateLibBuilder();
+	}
+
+	/**
+	 * Sets the resource identifier. (required)
+	 * @param resourceId Resource identifier.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder resource(long resourceId) {
+		this.resourceId = resourceId;
+		return this;
+	}
+
+	/**
+	 * Sets the current version. (required)
+	 * @param version Current version.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder version(@NotNull String version) {
+		this.currentVersion = version;
+		return this;
+	}
+
+	/**
+	 * Disable repeating update checks.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder disableRepeatingChecks() {
+		this.repeatingChecks = false;
+		return this;
+	}
+
+	/**
+	 * Sets the update check interval.
+	 * @param interval Interval.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder interval(long interval, @NotNull TimeUnit unit) {
+		this.checkInterval = unit.toMillis(interval);
+		return this;
+	}
+
+	/**
+	 * Adapt the update check interval to how often the resource is actually updated, see {@link AdaptiveInterval}.
+	 * The interval set with {@link #interval(long, TimeUnit)} is used until the release cadence is known.
+	 * @param minimum Minimum interval.
+	 * @param maximum Maximum interval.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder adaptiveInterval(long minimum, long maximum, @NotNull TimeUnit unit) {
+		this.minimumInterval = unit.toMillis(minimum);
+		this.maximumInterval = unit.toMillis(maximum);
+		return this;
+	}
+
+	/**
+	 * Defer scheduled update checks while the load reported by a signal is at or above a threshold, see
+	 * {@link LoadAwareScheduler}. Checks started with {@link UpdateLib#check()} are never deferred.
+	 * @param signal Load signal, for example {@link dev.hypera.updatelib.scheduling.impl.CpuLoadSignal} or a supplier
+	 * of the server's tick time.
+	 * @param threshold Load at or above which checks are deferred.
+	 * @param maxDeferral Maximum time a check may be deferred.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder loadSignal(@NotNull ILoadSignal signal, double threshold, long maxDeferral, @NotNull TimeUnit unit) {
+		this.loadAwareScheduler = new LoadAwareScheduler(signal, threshold, maxDeferral, unit);
+		return this;
+	}
+
+	/**
+	 * Defer scheduled update checks using a load aware scheduler, which can be shared between {@link UpdateLib}
+	 * instances so their deferred checks are batched together.
+	 * @param loadAwareScheduler Load aware scheduler.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder loadAwareScheduler(@NotNull LoadAwareScheduler loadAwareScheduler) {
+		this.loadAwareScheduler = loadAwareScheduler;
+		return this;
+	}
+
+	/**
+	 * Sets the http connection timeout for UpdateLib.
+	 * @param timeout Connection/read timeout.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder timeout(int timeout) {
+		this.connectTimeout = timeout;
+		this.firstByteTimeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Sets the time to wait for a connection to be established.
+	 * @param timeout Connect timeout.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder connectTimeout(long timeout, @NotNull TimeUnit unit) {
+		this.connectTimeout = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+		return this;
+	}
+
+	/**
+	 * Sets the time to wait for the first byte of a response once connected.
+	 * @param timeout First byte timeout.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder firstByteTimeout(long timeout, @NotNull TimeUnit unit) {
+		this.firstByteTimeout = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+		return this;
+	}
+
+	/**
+	 * Sets the maximum time a whole update check may take, including rate limit delays and reading the response.
+	 * @param timeout Total timeout.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder totalTimeout(long timeout, @NotNull TimeUnit unit) {
+		this.totalTimeout = unit.toMillis(timeout);
+		return this;
+	}
+
+	/**
+	 * Sets the maximum size of a response body, larger responses fail the check instead of being read into memory.
+	 * @param maxBodySize Maximum body size in bytes.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder maxBodySize(int maxBodySize) {
+		this.maxBodySize = maxBodySize;
+		return this;
+	}
+
+	/**
+	 * Sets the version resolver to be used.
+	 * @param versionResolver Version resolver.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder resolver(@NotNull IVersionResolver versionResolver) {
+		this.versionResolver = versionResolver;
+		return this;
+	}
+
+	/**
+	 * Sets the version comparator to be used.
+	 * @param versionComparator Version comparator.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder comparator(@NotNull IVersionComparator versionComparator) {
+		this.versionComparator = versionComparator;
+		return this;
+	}
+
+	/**
+	 * Sets the update policy, available updates it does not allow are reported as unavailable.
+	 * @param policy Policy expression, see {@link UpdatePolicy}.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 * @throws IllegalArgumentException if the policy expression is invalid.
+	 */
+	public @NotNull UpdateLibBuilder policy(@NotNull String policy) {
+		this.policy = UpdatePolicy.compile(policy);
+		return this;
+	}
+
+	/**
+	 * Sets the update policy, available updates it does not allow are reported as unavailable.
+	 * @param policy Compiled policy, can be shared between {@link UpdateLib} instances.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder policy(@NotNull UpdatePolicy policy) {
+		this.policy = policy;
+		return this;
+	}
+
+	/**
+	 * Sets the status handler.
+	 * @param statusHandler Status handler.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder handler(@NotNull Consumer<UpdateStatus> statusHandler) {
+		this.statusHandler = statusHandler;
+		return this;
+	}
+
+	/**
+	 * Sets the failure handler, called with a {@link UpdateStatus#isFailed() failed} status when a check fails.
+	 * @param failureHandler Failure handler.
+	 * @return Current {@link UpdateLibBuilder} instance.
+	 */
+	public @NotNull UpdateLibBuilder failureHandler(@NotNull Consumer<UpdateStatus> failureHandler) {
+		this.failureHandler = failureHandler;
+		return this;
+	}
+
+	/**
+	 * Builds a new {@link UpdateLib} instance using the provided settings.
+	 * @return New {@link UpdateLib} instance.
+	 * @throws IllegalStateException if resourceId or currentVersion are not provided, the total timeout, maximum body size or check interval are not positive, or the adaptive interval bounds are invalid.
+	 */
+	public @NotNull UpdateLib build() {
+		if (resourceId == -1L || null == currentVersion) {
+			throw new IllegalStateException("resourceId and currentVersion cannot be null.");
+		} else if (totalTimeout <= 0L) {
+			throw new IllegalStateException("totalTimeout must be greater than 0.");
+		} else if (maxBodySize <= 0) {
+			throw new IllegalStateException("maxBodySize must be greater than 0.");
+		} else if (repeatingChecks && checkInterval <= 0L) {
+			throw new IllegalStateException("checkInterval must be greater than 0.");
+		} else if (minimumInterval != -1L && (minimumInterval <= 0L || minimumInterval > maximumInterval)) {
+			throw new IllegalStateException("Adaptive interval bounds must satisfy 0 < minimum <= maximum.");
+		} else {
+			AdaptiveInterval adaptiveInterval = minimumInterval == -1L ? null : new AdaptiveInterval(checkInterval, minimumInterval, maximumInterval);
+			return new UpdateLib(resourceId, currentVersion, connectTimeout, firstByteTimeout, totalTimeout, maxBodySize, repeatingChecks, checkInterval, adaptiveInterval, loadAwareScheduler, versionResolver, versionComparator, policy, statusHandler, failureHandler);
+		}
+	}
+
+}
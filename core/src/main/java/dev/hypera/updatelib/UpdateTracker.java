@@ -0,0 +1,566 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib;
+
+import dev.hypera.updatelib.comparators.IVersionComparator;
+import dev.hypera.updatelib.diagnostics.CheckEventLog;
+import dev.hypera.updatelib.exceptions.VersionComparisonFailureException;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.RequestContext;
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.objects.enums.Status;
+import dev.hypera.updatelib.policy.UpdatePolicy;
+import dev.hypera.updatelib.resolvers.IBulkVersionResolver;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import dev.hypera.updatelib.scheduling.LoadAwareScheduler;
+import java.util.AbstractList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracks the update status of many resources in a single object.
+ * <p>
+ * Per-resource state lives in a primitive, long-keyed table instead of one {@link UpdateLib} instance per resource.
+ * All resources are checked together on one schedule: resolvers implementing {@link IBulkVersionResolver} answer
+ * every resource with a single call, other resolvers are called once per resource, with at most a
+ * {@link UpdateTrackerBuilder#concurrency(int) configured amount} of calls running at the same time. Every call is
+ * bound by the total timeout, which only starts once the call is made, so resources waiting for their turn do not
+ * time out. Requests are further paced per host by the {@link dev.hypera.updatelib.http.RateLimiter}.
+ * <p>
+ * Resolvers and triggers that check the {@link UpdateLib} instance passed to a resolver, such as subscriptions,
+ * check every tracked resource.
+ * <p>
+ * Like {@link UpdateLib}, scheduled checks only hold a tracker weakly, keep a reference for as long as checks should
+ * repeat and {@link #close()} it when it is no longer needed.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class UpdateTracker implements AutoCloseable {
+
+	private static final int EVENT_LOG_SIZE = 256;
+
+	private final long totalTimeout;
+	private final int concurrency;
+	private final long interval;
+	private final LoadAwareScheduler loadAwareScheduler;
+	private final IVersionResolver versionResolver;
+	private final IVersionComparator versionComparator;
+	private final UpdatePolicy policy;
+	private final Handler statusHandler;
+	private final Handler failureHandler;
+	private final UpdateLib carrier;
+	private final ResourceTable table = new ResourceTable(16);
+	private final CheckEventLog eventLog = new CheckEventLog(EVENT_LOG_SIZE);
+	private final Queue<Runnable> queued = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger running = new AtomicInteger();
+
+	private volatile boolean closed = false;
+	private volatile ScheduledFuture<?> scheduled = null;
+
+	@Internal
+	protected UpdateTracker(int connectTimeout, int firstByteTimeout, long totalTimeout, int maxBodySize, int concurrency, boolean repeatingChecks, long interval, LoadAwareScheduler loadAwareScheduler, IVersionResolver versionResolver, IVersionComparator versionComparator, UpdatePolicy policy, Handler statusHandler, Handler failureHandler) {
+		this.totalTimeout = totalTimeout;
+		this.concurrency = concurrency;
+		this.interval = interval;
+		this.loadAwareScheduler = loadAwareScheduler;
+		this.versionResolver = versionResolver;
+		this.versionComparator = versionComparator;
+		this.policy = policy;
+		this.statusHandler = statusHandler;
+		this.failureHandler = failureHandler;
+		this.carrier = new Carrier(this, connectTimeout, firstByteTimeout, totalTimeout, maxBodySize);
+
+		if (repeatingChecks) {
+			scheduled = UpdateLib.SCHEDULER.schedule(new WeakTask<>(this, UpdateTracker::scheduledCheck), interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Create a new {@link UpdateTrackerBuilder} instance.
+	 * @return New {@link UpdateTrackerBuilder} instance.
+	 */
+	public static @NotNull UpdateTrackerBuilder builder() {
+		return UpdateTrackerBuilder.create();
+	}
+
+	/**
+	 * Track a resource. Tracking an already tracked resource with a different current version forgets its last
+	 * status. Resources are first checked by the next scheduled check, or by {@link #check(long)}.
+	 * @param resourceId Resource identifier.
+	 * @param currentVersion Current version.
+	 */
+	public void track(long resourceId, @NotNull String currentVersion) {
+		synchronized (table) {
+			table.put(resourceId, currentVersion);
+		}
+	}
+
+	/**
+	 * Stop tracking a resource.
+	 * @param resourceId Resource identifier.
+	 * @return {@code true} if the resource was tracked.
+	 */
+	public boolean untrack(long resourceId) {
+		synchronized (table) {
+			return table.remove(resourceId);
+		}
+	}
+
+	/**
+	 * Check whether a resource is tracked.
+	 * @param resourceId Resource identifier.
+	 * @return {@code true} if the resource is tracked.
+	 */
+	public boolean isTracked(long resourceId) {
+		synchronized (table) {
+			return table.indexOf(resourceId) >= 0;
+		}
+	}
+
+	/**
+	 * Get the amount of tracked resources.
+	 * @return Tracked resource count.
+	 */
+	public int size() {
+		synchronized (table) {
+			return table.size();
+		}
+	}
+
+	/**
+	 * Get the last update status of a resource.
+	 * @param resourceId Resource identifier.
+	 * @return Last update status, or {@code null} if the resource is not tracked.
+	 */
+	public @Nullable UpdateStatus getStatus(long resourceId) {
+		synchronized (table) {
+			int index = table.indexOf(resourceId);
+			return index < 0 ? null : table.status(index);
+		}
+	}
+
+	/**
+	 * Get the last time a resource was checked.
+	 * @param resourceId Resource identifier.
+	 * @return Last check time in epoch milliseconds, {@code 0} if it was not checked yet or is not tracked.
+	 */
+	public long getLastCheck(long resourceId) {
+		synchronized (table) {
+			int index = table.indexOf(resourceId);
+			return index < 0 ? 0L : table.lastCheck(index);
+		}
+	}
+
+	/**
+	 * Visit the last update status of every tracked resource, for example to render a dashboard. The statuses are
+	 * snapshotted first, so the visitor may call back into the tracker.
+	 * @param visitor Visitor.
+	 */
+	public void forEach(@NotNull Handler visitor) {
+		long[] resourceIds;
+		UpdateStatus[] statuses;
+		synchronized (table) {
+			resourceIds = new long[table.size()];
+			statuses = new UpdateStatus[resourceIds.length];
+			for (int index = 0, count = 0; index < table.capacity(); index++) {
+				if (table.isUsed(index)) {
+					resourceIds[count] = table.key(index);
+					statuses[count++] = table.status(index);
+				}
+			}
+		}
+
+		for (int i = 0; i < resourceIds.length; i++) {
+			visitor.handle(resourceIds[i], statuses[i]);
+		}
+	}
+
+	/**
+	 * Check a single resource.
+	 * @param resourceId Resource identifier.
+	 * @return {@link CompletableFuture} completed once the resource's status was updated.
+	 */
+	public @NotNull CompletableFuture<Void> check(long resourceId) {
+		return submit(new Batch(new long[] { resourceId }), this::resolve);
+	}
+
+	/**
+	 * Check every tracked resource, with a single bulk request if the resolver supports it.
+	 * @return {@link CompletableFuture} completed once every resource's status was updated.
+	 */
+	public @NotNull CompletableFuture<Void> checkAll() {
+		long[] resourceIds = snapshot();
+		if (versionResolver instanceof IBulkVersionResolver) {
+			return submit(new Batch(resourceIds), this::resolveBulk);
+		}
+
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[resourceIds.length];
+		for (int i = 0; i < resourceIds.length; i++) {
+			futures[i] = check(resourceIds[i]);
+		}
+		return CompletableFuture.allOf(futures);
+	}
+
+	/**
+	 * Get the log of this tracker's recent checks, one event per resource checked. Checks are also recorded in
+	 * {@link CheckEventLog#global()}.
+	 * @return Check event log, keeping the last {@value #EVENT_LOG_SIZE} events.
+	 */
+	public @NotNull CheckEventLog getEventLog() {
+		return eventLog;
+	}
+
+	/**
+	 * Get the interval between scheduled checks.
+	 * @return Check interval in milliseconds.
+	 */
+	public long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Stop scheduled checks. Resources can still be checked with {@link #check(long)} and {@link #checkAll()}.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		ScheduledFuture<?> current = scheduled;
+		if (null != current) {
+			current.cancel(false);
+		}
+		carrier.close();
+	}
+
+	/**
+	 * Check whether this tracker has been closed.
+	 * @return {@code true} if scheduled checks have been stopped.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	private void scheduledCheck() {
+		if (closed) {
+			return;
+		}
+		if (null == loadAwareScheduler) {
+			runScheduledCheck();
+		} else {
+			loadAwareScheduler.submit(new WeakTask<>(this, UpdateTracker::runScheduledCheck), UpdateLib.SCHEDULER);
+		}
+	}
+
+	private void runScheduledCheck() {
+		if (closed) {
+			return;
+		}
+		WeakTask<UpdateTracker> next = new WeakTask<>(this, UpdateTracker::scheduledCheck);
+		checkAll().whenComplete((ignored, throwable) -> {
+			if (!closed) {
+				scheduled = UpdateLib.SCHEDULER.schedule(next, interval, TimeUnit.MILLISECONDS);
+			}
+		});
+	}
+
+	private @NotNull long[] snapshot() {
+		synchronized (table) {
+			long[] resourceIds = new long[table.size()];
+			for (int index = 0, count = 0; index < table.capacity(); index++) {
+				if (table.isUsed(index)) {
+					resourceIds[count++] = table.key(index);
+				}
+			}
+			return resourceIds;
+		}
+	}
+
+	private @NotNull CompletableFuture<Void> submit(@NotNull Batch batch, @NotNull Consumer<Batch> action) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		queued.add(() -> start(batch, action, future));
+		drain();
+		return future;
+	}
+
+	private void drain() {
+		// Every submission and completion drains, so a slot freed while another thread gave up is never left unused.
+		while (!queued.isEmpty()) {
+			int current = running.get();
+			if (current >= concurrency) {
+				return;
+			}
+			if (!running.compareAndSet(current, current + 1)) {
+				continue;
+			}
+
+			Runnable next = queued.poll();
+			if (null == next) {
+				running.decrementAndGet();
+			} else {
+				next.run();
+			}
+		}
+	}
+
+	private void start(@NotNull Batch batch, @NotNull Consumer<Batch> action, @NotNull CompletableFuture<Void> future) {
+		future.whenComplete((ignored, throwable) -> {
+			running.decrementAndGet();
+			drain();
+		});
+
+		long start = System.nanoTime();
+		RequestContext context = new RequestContext(start + TimeUnit.MILLISECONDS.toNanos(totalTimeout));
+		Future<?> task = UpdateLib.CHECK_EXECUTOR.submit(() -> context.run(() -> {
+			try {
+				action.accept(batch);
+				future.complete(null);
+			} catch (Throwable throwable) {
+				future.completeExceptionally(throwable);
+			}
+		}));
+
+		// The deadline completes the check itself, as a task cancelled before it started, or a resolver ignoring the
+		// abort, would otherwise never free its slot. The failure handler runs on a check thread, like UpdateLib's.
+		ScheduledFuture<?> deadline = UpdateLib.SCHEDULER.schedule(() -> {
+			context.abort();
+			task.cancel(true);
+			UpdateLib.CHECK_EXECUTOR.execute(() -> context.run(() -> {
+				batch.expire();
+				for (int index = 0; index < batch.resourceIds.length; index++) {
+					fail(batch, index, FailureReason.TIMEOUT, -1, "Update check did not complete within " + totalTimeout + "ms.", start);
+				}
+				future.complete(null);
+			}));
+		}, totalTimeout, TimeUnit.MILLISECONDS);
+		future.whenComplete((ignored, throwable) -> deadline.cancel(false));
+	}
+
+	private void resolve(@NotNull Batch batch) {
+		long start = System.nanoTime();
+		String version;
+		try {
+			version = versionResolver.getVersion(carrier, batch.resourceIds[0]);
+		} catch (VersionResolveFailureException | RuntimeException ex) {
+			VersionResolveFailureException failure = VersionResolveFailureException.wrap(ex);
+			fail(batch, 0, reason(failure), failure.getStatusCode(), failure.getMessage(), start);
+			return;
+		}
+		apply(batch, 0, version, start);
+	}
+
+	private void resolveBulk(@NotNull Batch batch) {
+		long[] resourceIds = batch.resourceIds;
+		if (resourceIds.length == 0) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		Map<Long, String> versions;
+		try {
+			versions = ((IBulkVersionResolver) versionResolver).getVersions(carrier, new LongList(resourceIds));
+		} catch (VersionResolveFailureException | RuntimeException ex) {
+			VersionResolveFailureException failure = VersionResolveFailureException.wrap(ex);
+			FailureReason reason = reason(failure);
+			for (int index = 0; index < resourceIds.length; index++) {
+				fail(batch, index, reason, failure.getStatusCode(), failure.getMessage(), start);
+			}
+			return;
+		}
+
+		for (int index = 0; index < resourceIds.length; index++) {
+			String version = versions.get(resourceIds[index]);
+			if (null == version) {
+				fail(batch, index, FailureReason.INVALID_RESOURCE, -1, "Resource " + resourceIds[index] + " was not found.", start);
+			} else {
+				apply(batch, index, version, start);
+			}
+		}
+	}
+
+	private @NotNull FailureReason reason(@NotNull VersionResolveFailureException ex) {
+		RequestContext context = RequestContext.current();
+		return null != context && context.isAborted() ? FailureReason.TIMEOUT : ex.getReason();
+	}
+
+	private void apply(@NotNull Batch batch, int index, @NotNull String distributedVersion, long start) {
+		long resourceId = batch.resourceIds[index];
+		String currentVersion = currentVersion(resourceId);
+		if (null == currentVersion) {
+			return;
+		}
+
+		Status comparison;
+		try {
+			comparison = versionComparator.compareVersions(currentVersion, distributedVersion);
+		} catch (VersionComparisonFailureException ex) {
+			fail(batch, index, FailureReason.COMPARISON, -1, ex.getMessage(), start);
+			return;
+		}
+		if (comparison.isAvailable() && null != policy && !policy.allows(currentVersion, UpdatePolicy.tryParse(currentVersion), distributedVersion, UpdatePolicy.tryParse(distributedVersion))) {
+			comparison = Status.UNAVAILABLE;
+		}
+
+		UpdateStatus status = new UpdateStatus(currentVersion, distributedVersion, comparison);
+		if (record(batch, index, currentVersion, status, start)) {
+			statusHandler.handle(resourceId, status);
+		}
+	}
+
+	private void fail(@NotNull Batch batch, int index, @NotNull FailureReason reason, int httpStatus, @Nullable String message, long start) {
+		long resourceId = batch.resourceIds[index];
+		String currentVersion = currentVersion(resourceId);
+		if (null == currentVersion) {
+			return;
+		}
+
+		UpdateStatus status = UpdateStatus.failed(currentVersion, reason, httpStatus, message);
+		if (record(batch, index, currentVersion, status, start)) {
+			failureHandler.handle(resourceId, status);
+		}
+	}
+
+	private @Nullable String currentVersion(long resourceId) {
+		synchronized (table) {
+			int index = table.indexOf(resourceId);
+			return index < 0 ? null : table.currentVersion(index);
+		}
+	}
+
+	private boolean record(@NotNull Batch batch, int index, @NotNull String currentVersion, @NotNull UpdateStatus status, long start) {
+		if (!batch.claim(index, status)) {
+			return false;
+		}
+
+		long resourceId = batch.resourceIds[index];
+		long timestamp = System.currentTimeMillis();
+		synchronized (table) {
+			// The resource may have been untracked or re-tracked with another version while it was being checked.
+			int slot = table.indexOf(resourceId);
+			if (slot < 0 || !currentVersion.equals(table.currentVersion(slot))) {
+				return false;
+			}
+			table.record(slot, status, timestamp);
+		}
+
+		// Bulk checks share one request, so every resource reports the request's totals.
+		RequestContext context = RequestContext.current();
+		int httpStatus = null == context ? status.getHttpStatus() : context.getHttpStatus();
+		long bodyBytes = null == context ? 0L : context.getBodyBytes();
+		long latency = System.nanoTime() - start;
+		eventLog.record(resourceId, versionResolver.getClass(), timestamp, latency, httpStatus, bodyBytes, status.getStatus(), status.getFailureReason());
+		CheckEventLog.global().record(resourceId, versionResolver.getClass(), timestamp, latency, httpStatus, bodyBytes, status.getStatus(), status.getFailureReason());
+		return true;
+	}
+
+	/**
+	 * Receives the update status of a tracked resource.
+	 */
+	@FunctionalInterface
+	public interface Handler {
+
+		/**
+		 * Handle the update status of a resource.
+		 * @param resourceId Resource identifier.
+		 * @param status Update status.
+		 */
+		void handle(long resourceId, @NotNull UpdateStatus status);
+
+	}
+
+	private static class Carrier extends UpdateLib {
+
+		private final UpdateTracker tracker;
+
+		private Carrier(@NotNull UpdateTracker tracker, int connectTimeout, int firstByteTimeout, long totalTimeout, int maxBodySize) {
+			super(connectTimeout, firstByteTimeout, totalTimeout, maxBodySize);
+			this.tracker = tracker;
+		}
+
+		@Override
+		public CompletableFuture<UpdateStatus> check() {
+			return tracker.checkAll().thenApply(ignored -> UpdateStatus.DEFAULT);
+		}
+
+	}
+
+	/**
+	 * Resources checked by a single resolver call, each recorded at most once, either by the call or by its deadline.
+	 */
+	private static class Batch {
+
+		private final long[] resourceIds;
+		private final boolean[] recorded;
+		private boolean expired = false;
+
+		private Batch(@NotNull long[] resourceIds) {
+			this.resourceIds = resourceIds;
+			this.recorded = new boolean[resourceIds.length];
+		}
+
+		private synchronized void expire() {
+			expired = true;
+		}
+
+		private synchronized boolean claim(int index, @NotNull UpdateStatus status) {
+			// Once the deadline has passed, only timeouts are recorded.
+			if (recorded[index] || (expired && status.getFailureReason() != FailureReason.TIMEOUT)) {
+				return false;
+			}
+			recorded[index] = true;
+			return true;
+		}
+
+	}
+
+	private static class LongList extends AbstractList<Long> {
+
+		private final long[] values;
+
+		private LongList(@NotNull long[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public Long get(int index) {
+			return values[index];
+		}
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+	}
+
+}
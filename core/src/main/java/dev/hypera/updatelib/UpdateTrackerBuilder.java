@@ -0,0 +1,247 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib;
+
+import dev.hypera.updatelib.comparators.IVersionComparator;
+import dev.hypera.updatelib.comparators.impl.SemanticVersioningComparator;
+import dev.hypera.updatelib.policy.UpdatePolicy;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.LegacySpigotVersionResolver;
+import dev.hypera.updatelib.scheduling.ILoadSignal;
+import dev.hypera.updatelib.scheduling.LoadAwareScheduler;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * UpdateTracker builder
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class UpdateTrackerBuilder {
+
+	private boolean repeatingChecks = true;
+	private long checkInterval = TimeUnit.HOURS.toMillis(2);
+	private LoadAwareScheduler loadAwareScheduler = null;
+	private int connectTimeout = 10000;
+	private int firstByteTimeout = 10000;
+	private long totalTimeout = TimeUnit.SECONDS.toMillis(30);
+	private int maxBodySize = 1024 * 1024;
+	private int concurrency = 8;
+	private IVersionResolver versionResolver = new LegacySpigotVersionResolver();
+	private IVersionComparator versionComparator = new SemanticVersioningComparator();
+	private UpdatePolicy policy = null;
+	private UpdateTracker.Handler statusHandler = (resourceId, status) -> {};
+	private UpdateTracker.Handler failureHandler = (resourceId, status) -> {};
+
+	/**
+	 * Creates a new {@link UpdateTrackerBuilder} instance.
+	 * @return New {@link UpdateTrackerBuilder} instance.
+	 */
+	public static @NotNull UpdateTrackerBuilder create() {
+		return new UpdateTrackerBuilder();
+	}
+
+	/**
+	 * Disable repeating update checks, resources are then only checked on request.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder disableRepeatingChecks() {
+		this.repeatingChecks = false;
+		return this;
+	}
+
+	/**
+	 * Sets the interval between checks of all tracked resources.
+	 * @param interval Interval.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder interval(long interval, @NotNull TimeUnit unit) {
+		this.checkInterval = unit.toMillis(interval);
+		return this;
+	}
+
+	/**
+	 * Defer scheduled checks while the load reported by a signal is at or above a threshold, see
+	 * {@link LoadAwareScheduler}. Checks started with {@link UpdateTracker#checkAll()} are never deferred.
+	 * @param signal Load signal.
+	 * @param threshold Load at or above which checks are deferred.
+	 * @param maxDeferral Maximum time a check may be deferred.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder loadSignal(@NotNull ILoadSignal signal, double threshold, long maxDeferral, @NotNull TimeUnit unit) {
+		this.loadAwareScheduler = new LoadAwareScheduler(signal, threshold, maxDeferral, unit);
+		return this;
+	}
+
+	/**
+	 * Defer scheduled checks using a load aware scheduler, which can be shared with other trackers and
+	 * {@link UpdateLib} instances so their deferred checks are batched together.
+	 * @param loadAwareScheduler Load aware scheduler.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder loadAwareScheduler(@NotNull LoadAwareScheduler loadAwareScheduler) {
+		this.loadAwareScheduler = loadAwareScheduler;
+		return this;
+	}
+
+	/**
+	 * Sets the time to wait for a connection to be established.
+	 * @param timeout Connect timeout.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder connectTimeout(long timeout, @NotNull TimeUnit unit) {
+		this.connectTimeout = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+		return this;
+	}
+
+	/**
+	 * Sets the time to wait for the first byte of a response once connected.
+	 * @param timeout First byte timeout.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder firstByteTimeout(long timeout, @NotNull TimeUnit unit) {
+		this.firstByteTimeout = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+		return this;
+	}
+
+	/**
+	 * Sets the maximum time a single resolver call may take. With a bulk resolver this bounds the check of every
+	 * tracked resource together.
+	 * @param timeout Total timeout.
+	 * @param unit Time unit.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder totalTimeout(long timeout, @NotNull TimeUnit unit) {
+		this.totalTimeout = unit.toMillis(timeout);
+		return this;
+	}
+
+	/**
+	 * Sets the maximum size of a response body, larger responses fail the check instead of being read into memory.
+	 * @param maxBodySize Maximum body size in bytes.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder maxBodySize(int maxBodySize) {
+		this.maxBodySize = maxBodySize;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum amount of resources checked at the same time when the resolver cannot check them in bulk.
+	 * Further resources wait in a queue, and their total timeout only starts once they are checked.
+	 * @param concurrency Maximum concurrent checks.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder concurrency(int concurrency) {
+		this.concurrency = concurrency;
+		return this;
+	}
+
+	/**
+	 * Sets the version resolver to be used, preferably an {@link dev.hypera.updatelib.resolvers.IBulkVersionResolver}.
+	 * @param versionResolver Version resolver.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder resolver(@NotNull IVersionResolver versionResolver) {
+		this.versionResolver = versionResolver;
+		return this;
+	}
+
+	/**
+	 * Sets the version comparator to be used.
+	 * @param versionComparator Version comparator.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder comparator(@NotNull IVersionComparator versionComparator) {
+		this.versionComparator = versionComparator;
+		return this;
+	}
+
+	/**
+	 * Sets the update policy, available updates it does not allow are reported as unavailable.
+	 * @param policy Policy expression, see {@link UpdatePolicy}.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 * @throws IllegalArgumentException if the policy expression is invalid.
+	 */
+	public @NotNull UpdateTrackerBuilder policy(@NotNull String policy) {
+		this.policy = UpdatePolicy.compile(policy);
+		return this;
+	}
+
+	/**
+	 * Sets the update policy, available updates it does not allow are reported as unavailable.
+	 * @param policy Compiled policy.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder policy(@NotNull UpdatePolicy policy) {
+		this.policy = policy;
+		return this;
+	}
+
+	/**
+	 * Sets the status handler, called for every resource checked successfully.
+	 * @param statusHandler Status handler.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder handler(@NotNull UpdateTracker.Handler statusHandler) {
+		this.statusHandler = statusHandler;
+		return this;
+	}
+
+	/**
+	 * Sets the failure handler, called with a {@link dev.hypera.updatelib.objects.UpdateStatus#isFailed() failed}
+	 * status for every resource whose check failed.
+	 * @param failureHandler Failure handler.
+	 * @return Current {@link UpdateTrackerBuilder} instance.
+	 */
+	public @NotNull UpdateTrackerBuilder failureHandler(@NotNull UpdateTracker.Handler failureHandler) {
+		this.failureHandler = failureHandler;
+		return this;
+	}
+
+	/**
+	 * Builds a new {@link UpdateTracker} instance using the provided settings.
+	 * @return New {@link UpdateTracker} instance.
+	 * @throws IllegalStateException if the total timeout, maximum body size, concurrency or check interval are not
+	 *                               positive.
+	 */
+	public @NotNull UpdateTracker build() {
+		if (totalTimeout <= 0L) {
+			throw new IllegalStateException("totalTimeout must be greater than 0.");
+		} else if (maxBodySize <= 0) {
+			throw new IllegalStateException("maxBodySize must be greater than 0.");
+		} else if (concurrency <= 0) {
+			throw new IllegalStateException("concurrency must be greater than 0.");
+		} else if (repeatingChecks && checkInterval <= 0L) {
+			throw new IllegalStateException("checkInterval must be greater than 0.");
+		} else {
+			return new UpdateTracker(connectTimeout, firstByteTimeout, totalTimeout, maxBodySize, concurrency, repeatingChecks, checkInterval, loadAwareScheduler, versionResolver, versionComparator, policy, statusHandler, failureHandler);
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib;
+
+import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scheduler registration holding its target through a weak reference, so a pending task does not keep an abandoned
+ * instance reachable, nor through its handlers the classloader of the plugin that created it.
+ *
+ * @param <T> Target type.
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class WeakTask<T> implements Runnable {
+
+	private final WeakReference<T> reference;
+	private final Consumer<T> action;
+
+	/**
+	 * Create a new weak task.
+	 * @param target Target.
+	 * @param action Action run on the target if it is still reachable, must not capture the target itself.
+	 */
+	WeakTask(@NotNull T target, @NotNull Consumer<T> action) {
+		this.reference = new WeakReference<>(target);
+		this.action = action;
+	}
+
+	@Override
+	public void run() {
+		T target = reference.get();
+		if (null != target) {
+			action.accept(target);
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.cache;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Memory fences ordering the plain reads and writes of {@link SharedVersionCache}'s sequence lock.
+ * <p>
+ * This is the Java 8 variant, which uses the fences of {@code sun.misc.Unsafe} and falls back to a volatile access if
+ * it is unavailable. The multi-release jar replaces it on Java 11 and newer with a variant using
+ * {@code java.lang.invoke.VarHandle}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class Fences {
+
+	private static final MethodHandle LOAD_FENCE = unsafeFence("loadFence");
+	private static final MethodHandle STORE_FENCE = unsafeFence("storeFence");
+	private static final MethodHandle FULL_FENCE = unsafeFence("fullFence");
+
+	private static volatile int fallback = 0;
+
+	private Fences() {
+	}
+
+	/**
+	 * Keep later reads and writes from moving before earlier reads.
+	 */
+	static void acquire() {
+		run(LOAD_FENCE, false);
+	}
+
+	/**
+	 * Keep later reads from moving before earlier reads.
+	 */
+	static void loadLoad() {
+		run(LOAD_FENCE, false);
+	}
+
+	/**
+	 * Keep later writes from moving before earlier writes.
+	 */
+	static void storeStore() {
+		run(STORE_FENCE, true);
+	}
+
+	/**
+	 * Keep earlier reads and writes from moving after later writes.
+	 */
+	static void release() {
+		run(FULL_FENCE, true);
+	}
+
+	private static void run(@Nullable MethodHandle fence, boolean write) {
+		if (null == fence) {
+			if (write) {
+				fallback = 0;
+			} else {
+				int ignored = fallback;
+			}
+			return;
+		}
+		try {
+			fence.invokeExact();
+		} catch (Throwable throwable) {
+			throw new IllegalStateException(throwable);
+		}
+	}
+
+	private static @Nullable MethodHandle unsafeFence(String name) {
+		try {
+			Class<?> type = Class.forName("sun.misc.Unsafe");
+			Field field = type.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			return MethodHandles.lookup().findVirtual(type, name, MethodType.methodType(void.class)).bindTo(field.get(null));
+		} catch (ReflectiveOperationException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,399 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Host-local version cache shared between JVMs through a memory-mapped file.
+ * <p>
+ * The file holds a fixed number of slots addressed by open addressing on the resolver key and resource identifier.
+ * Writers serialise on a {@link FileLock}, readers access the mapping without locking and use a per-slot sequence
+ * number to detect torn reads. Once every slot is taken, the least recently updated entry is evicted.
+ * <p>
+ * One JVM per file may hold the poller lease, which is released automatically when that JVM exits. The poller renews
+ * the lease whenever it refreshes an entry, so other JVMs can tell a live poller from one that stopped refreshing.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class SharedVersionCache implements Closeable {
+
+	public static final int DEFAULT_SLOT_COUNT = 4096;
+	public static final int MAX_VERSION_LENGTH = 94;
+
+	private static final int MAGIC = 0x554C5343;
+	private static final int FORMAT = 1;
+	private static final int HEADER_SIZE = 64;
+	private static final int SLOT_SIZE = 128;
+	private static final long WRITE_LOCK_POSITION = 32L;
+	private static final long LEASE_POSITION = 40L;
+	private static final int LEASE_RENEWED = 48;
+	private static final int READ_ATTEMPTS = 8;
+
+	private static final int SLOT_SEQUENCE = 0;
+	private static final int SLOT_RESOLVER = 8;
+	private static final int SLOT_RESOURCE = 16;
+	private static final int SLOT_UPDATED = 24;
+	private static final int SLOT_LENGTH = 32;
+	private static final int SLOT_DATA = 34;
+
+	private static final Map<Path, SharedVersionCache> CACHES = new ConcurrentHashMap<>();
+
+	private final Path path;
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int slotCount;
+
+	private volatile FileLock lease;
+	private volatile boolean closed = false;
+
+	private SharedVersionCache(@NotNull Path path, int slotCount) throws IOException {
+		this.path = path;
+		this.file = new RandomAccessFile(path.toFile(), "rw");
+		this.channel = file.getChannel();
+
+		try (FileLock ignored = channel.lock(WRITE_LOCK_POSITION, 8L, false)) {
+			if (file.length() < HEADER_SIZE) {
+				file.setLength(HEADER_SIZE + (long) slotCount * SLOT_SIZE);
+				MappedByteBuffer header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+				header.putInt(0, MAGIC);
+				header.putInt(4, FORMAT);
+				header.putInt(8, slotCount);
+				header.putInt(12, SLOT_SIZE);
+				header.force();
+			}
+
+			MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT || header.getInt(12) != SLOT_SIZE) {
+				throw new IOException("'" + path + "' is not a compatible shared version cache.");
+			}
+			this.slotCount = header.getInt(8);
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			file.close();
+			throw ex;
+		}
+
+		this.buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) this.slotCount * SLOT_SIZE);
+	}
+
+	/**
+	 * Open the shared cache backed by the given file, creating it with {@link #DEFAULT_SLOT_COUNT} slots if needed.
+	 * @param path Cache file.
+	 * @return Shared cache, reused for every call with the same file in this JVM.
+	 * @throws IOException if the cache file could not be opened.
+	 */
+	public static @NotNull SharedVersionCache open(@NotNull Path path) throws IOException {
+		return open(path, DEFAULT_SLOT_COUNT);
+	}
+
+	/**
+	 * Open the shared cache backed by the given file, creating it if needed.
+	 * @param path Cache file.
+	 * @param slotCount Amount of slots used when creating a new cache file, ignored for existing files.
+	 * @return Shared cache, reused for every call with the same file in this JVM.
+	 * @throws IOException if the cache file could not be opened.
+	 */
+	public static @NotNull SharedVersionCache open(@NotNull Path path, int slotCount) throws IOException {
+		if (slotCount <= 0) {
+			throw new IllegalArgumentException("slotCount must be greater than 0.");
+		}
+
+		Path key = path.toAbsolutePath().normalize();
+		try {
+			return CACHES.computeIfAbsent(key, p -> {
+				try {
+					return new SharedVersionCache(p, slotCount);
+				} catch (IOException ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		} catch (IllegalStateException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Create a resolver key from an identifier, for example a resolver class name.
+	 * @param identifier Identifier.
+	 * @return Resolver key.
+	 */
+	public static long key(@NotNull String identifier) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < identifier.length(); i++) {
+			hash ^= identifier.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Get a cached version without locking.
+	 * @param resolverKey Resolver key.
+	 * @param resourceId Resource identifier.
+	 * @return Cached entry, or {@code null} if there is none.
+	 */
+	public @Nullable Entry get(long resolverKey, long resourceId) {
+		ensureOpen();
+		int start = index(resolverKey, resourceId);
+		for (int probe = 0; probe < slotCount; probe++) {
+			int position = HEADER_SIZE + ((start + probe) % slotCount) * SLOT_SIZE;
+			for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+				long sequence = buffer.getLong(position + SLOT_SEQUENCE);
+				Fences.acquire();
+				if (sequence == 0L) {
+					return null;
+				}
+				if ((sequence & 1L) != 0L) {
+					Thread.yield();
+					continue;
+				}
+
+				if (buffer.getLong(position + SLOT_RESOLVER) != resolverKey || buffer.getLong(position + SLOT_RESOURCE) != resourceId) {
+					Fences.loadLoad();
+					if (buffer.getLong(position + SLOT_SEQUENCE) == sequence) {
+						break;
+					}
+					continue;
+				}
+
+				long updated = buffer.getLong(position + SLOT_UPDATED);
+				int length = buffer.getShort(position + SLOT_LENGTH);
+				if (length < 0 || length > MAX_VERSION_LENGTH) {
+					Thread.yield();
+					continue;
+				}
+
+				byte[] data = new byte[length];
+				for (int i = 0; i < length; i++) {
+					data[i] = buffer.get(position + SLOT_DATA + i);
+				}
+
+				Fences.loadLoad();
+				if (buffer.getLong(position + SLOT_SEQUENCE) == sequence) {
+					return new Entry(new String(data, StandardCharsets.UTF_8), updated);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Store a version in the cache, evicting the least recently updated entry if every slot is taken.
+	 * @param resolverKey Resolver key.
+	 * @param resourceId Resource identifier.
+	 * @param version Version.
+	 * @param updated Time the version was resolved, in epoch milliseconds.
+	 * @return {@code true} if the version was stored, {@code false} if it is too long.
+	 * @throws IOException if the write lock could not be acquired.
+	 */
+	public boolean put(long resolverKey, long resourceId, @NotNull String version, long updated) throws IOException {
+		ensureOpen();
+		byte[] data = version.getBytes(StandardCharsets.UTF_8);
+		if (data.length > MAX_VERSION_LENGTH) {
+			return false;
+		}
+
+		synchronized (this) {
+			try (FileLock ignored = channel.lock(WRITE_LOCK_POSITION, 8L, false)) {
+				int start = index(resolverKey, resourceId);
+				int target = -1;
+				int oldest = -1;
+				long oldestUpdated = Long.MAX_VALUE;
+				for (int probe = 0; probe < slotCount; probe++) {
+					int position = HEADER_SIZE + ((start + probe) % slotCount) * SLOT_SIZE;
+					if (buffer.getLong(position + SLOT_SEQUENCE) == 0L || (buffer.getLong(position + SLOT_RESOLVER) == resolverKey && buffer.getLong(position + SLOT_RESOURCE) == resourceId)) {
+						target = position;
+						break;
+					}
+
+					long slotUpdated = buffer.getLong(position + SLOT_UPDATED);
+					if (slotUpdated < oldestUpdated) {
+						oldestUpdated = slotUpdated;
+						oldest = position;
+					}
+				}
+
+				// Overwriting an occupied slot keeps the probe sequences running through it intact, unlike clearing it.
+				write(-1 == target ? oldest : target, resolverKey, resourceId, data, updated);
+				return true;
+			}
+		}
+	}
+
+	private void write(int position, long resolverKey, long resourceId, byte[] data, long updated) {
+		// A writer that died mid-update leaves an odd sequence behind, round it up before writing.
+		long sequence = buffer.getLong(position + SLOT_SEQUENCE) | 1L;
+		buffer.putLong(position + SLOT_SEQUENCE, sequence);
+		Fences.storeStore();
+		buffer.putLong(position + SLOT_RESOLVER, resolverKey);
+		buffer.putLong(position + SLOT_RESOURCE, resourceId);
+		buffer.putLong(position + SLOT_UPDATED, updated);
+		buffer.putShort(position + SLOT_LENGTH, (short) data.length);
+		for (int i = 0; i < data.length; i++) {
+			buffer.put(position + SLOT_DATA + i, data[i]);
+		}
+		Fences.release();
+		buffer.putLong(position + SLOT_SEQUENCE, sequence + 1L);
+	}
+
+	/**
+	 * Try to acquire the poller lease for this host. Once acquired, the lease is kept until this cache is closed or
+	 * the JVM exits.
+	 * @return {@code true} if this JVM holds the poller lease.
+	 */
+	public boolean acquireLease() {
+		FileLock current = lease;
+		if (null != current && current.isValid()) {
+			return true;
+		}
+		if (closed) {
+			return false;
+		}
+
+		synchronized (this) {
+			if (null != lease && lease.isValid()) {
+				return true;
+			}
+			try {
+				lease = channel.tryLock(LEASE_POSITION, 8L, false);
+			} catch (IOException | OverlappingFileLockException ex) {
+				lease = null;
+			}
+			if (null == lease) {
+				return false;
+			}
+		}
+		renewLease();
+		return true;
+	}
+
+	/**
+	 * Renew the poller lease, if held by this JVM.
+	 */
+	public void renewLease() {
+		if (isPoller()) {
+			buffer.putLong(LEASE_RENEWED, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Get the time the poller last renewed its lease.
+	 * @return Time in epoch milliseconds, or {@code 0} if no poller has renewed the lease since it was last released.
+	 */
+	public long getLeaseRenewed() {
+		ensureOpen();
+		return buffer.getLong(LEASE_RENEWED);
+	}
+
+	/**
+	 * Check whether this JVM holds the poller lease.
+	 * @return {@code true} if this JVM holds the poller lease.
+	 */
+	public boolean isPoller() {
+		FileLock current = lease;
+		return null != current && current.isValid();
+	}
+
+	/**
+	 * Get the amount of slots in this cache.
+	 * @return Slot count.
+	 */
+	public int getSlotCount() {
+		return slotCount;
+	}
+
+	/**
+	 * Close this cache, releasing the poller lease if held.
+	 * @throws IOException if the cache file could not be closed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (isPoller()) {
+			buffer.putLong(LEASE_RENEWED, 0L);
+		}
+		closed = true;
+		CACHES.remove(path, this);
+		channel.close();
+		file.close();
+	}
+
+	private int index(long resolverKey, long resourceId) {
+		long hash = resolverKey ^ (resourceId * 0x9E3779B97F4A7C15L);
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return (int) ((hash & Long.MAX_VALUE) % slotCount);
+	}
+
+	private void ensureOpen() {
+		if (closed) {
+			throw new IllegalStateException("Shared version cache '" + path + "' has been closed.");
+		}
+	}
+
+	/**
+	 * Cached version entry
+	 */
+	public static class Entry {
+
+		private final String version;
+		private final long updated;
+
+		private Entry(@NotNull String version, long updated) {
+			this.version = version;
+			this.updated = updated;
+		}
+
+		public @NotNull String getVersion() {
+			return version;
+		}
+
+		public long getUpdated() {
+			return updated;
+		}
+
+	}
+
+}
@@ -23,10 +23,9 @@
 
 package dev.hypera.updatelib.comparators.impl;
 
-import com.vdurmont.semver4j.Semver;
-import com.vdurmont.semver4j.Semver.SemverType;
 import dev.hypera.updatelib.comparators.IVersionComparator;
 import dev.hypera.updatelib.exceptions.VersionComparisonFailureException;
+import dev.hypera.updatelib.objects.SemanticVersion;
 import dev.hypera.updatelib.objects.enums.Status;
 import org.jetbrains.annotations.NotNull;
 
@@ -47,13 +46,13 @@ public class SemanticVersioningComparator implements IVersionComparator {
 	@Override
 	public @NotNull Status compareVersions(@NotNull String currentVersion, @NotNull String distributedVersion) throws VersionComparisonFailureException {
 		try {
-			Semver current = new Semver(currentVersion, SemverType.LOOSE);
-			Semver distributed = new Semver(distributedVersion, SemverType.LOOSE);
-			if (distributed.isGreaterThan(current)) {
+			SemanticVersion current = SemanticVersion.parse(currentVersion);
+			SemanticVersion distributed = SemanticVersion.parse(distributedVersion);
+			if (distributed.compareTo(current) > 0) {
 				switch (distributed.diff(current)) {
-					case MAJOR:
+					case 0:
 						return Status.MAJOR_AVAILABLE;
-					case MINOR:
+					case 1:
 						return Status.MINOR_AVAILABLE;
 					default:
 						return Status.AVAILABLE;
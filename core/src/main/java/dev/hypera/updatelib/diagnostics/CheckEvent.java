@@ -0,0 +1,121 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.diagnostics;
+
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.objects.enums.Status;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Check event, a copy of one entry of a {@link CheckEventLog}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class CheckEvent {
+
+	private final long resourceId;
+	private final String resolver;
+	private final long timestamp;
+	private final long latency;
+	private final int httpStatus;
+	private final long bodyBytes;
+	private final Status status;
+	private final FailureReason failureReason;
+
+	CheckEvent(long resourceId, @NotNull String resolver, long timestamp, long latency, int httpStatus, long bodyBytes, @NotNull Status status, @Nullable FailureReason failureReason) {
+		this.resourceId = resourceId;
+		this.resolver = resolver;
+		this.timestamp = timestamp;
+		this.latency = latency;
+		this.httpStatus = httpStatus;
+		this.bodyBytes = bodyBytes;
+		this.status = status;
+		this.failureReason = failureReason;
+	}
+
+	public long getResourceId() {
+		return resourceId;
+	}
+
+	/**
+	 * Get the name of the resolver's class.
+	 * @return Fully qualified class name.
+	 */
+	public @NotNull String getResolver() {
+		return resolver;
+	}
+
+	/**
+	 * Get the time the check completed.
+	 * @return Completion time in epoch milliseconds.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Get the time the check took.
+	 * @return Latency in nanoseconds.
+	 */
+	public long getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Get the status code of the last http response received during the check.
+	 * @return Http status code, or {@code -1} if no response was received.
+	 */
+	public int getHttpStatus() {
+		return httpStatus;
+	}
+
+	/**
+	 * Get the amount of response body bytes read during the check.
+	 * @return Body bytes.
+	 */
+	public long getBodyBytes() {
+		return bodyBytes;
+	}
+
+	public @NotNull Status getStatus() {
+		return status;
+	}
+
+	public @Nullable FailureReason getFailureReason() {
+		return failureReason;
+	}
+
+	public boolean isFailed() {
+		return null != failureReason;
+	}
+
+	@Override
+	public String toString() {
+		return Instant.ofEpochMilli(timestamp) + " resource=" + resourceId + " resolver=" + resolver.substring(resolver.lastIndexOf('.') + 1) + " latency=" + TimeUnit.NANOSECONDS.toMillis(latency) + "ms http=" + httpStatus + " bytes=" + bodyBytes + " outcome=" + (null == failureReason ? status : failureReason);
+	}
+
+}
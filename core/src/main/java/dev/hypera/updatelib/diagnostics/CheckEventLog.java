@@ -0,0 +1,179 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.diagnostics;
+
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.objects.enums.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Fixed-size, lock-free ring buffer of recent {@link CheckEvent check events}.
+ * <p>
+ * Writers take a sequence number with a single atomic increment, then claim its slot by swapping the slot's previous
+ * sequence number for a marker, and publish the event by writing the slot's sequence number last, so recording never
+ * blocks and never allocates. A writer whose slot is still being written by another writer, or already holds a newer
+ * event, drops its event rather than waiting. Readers copy slots newest first and discard any slot whose sequence
+ * changed while it was being copied, so a snapshot only contains complete events, at the cost of possibly missing
+ * events recorded during the snapshot.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public final class CheckEventLog {
+
+	private static final int GLOBAL_CAPACITY = 1024;
+	private static final CheckEventLog GLOBAL = new CheckEventLog(GLOBAL_CAPACITY);
+	private static final Status[] STATUSES = Status.values();
+	private static final FailureReason[] FAILURE_REASONS = FailureReason.values();
+	private static final long EMPTY = -1L;
+	private static final long WRITING = -2L;
+
+	private final int mask;
+	private final AtomicLong cursor = new AtomicLong();
+	private final AtomicLongArray sequences;
+	private final AtomicLongArray resourceIds;
+	private final AtomicLongArray timestamps;
+	private final AtomicLongArray latencies;
+	private final AtomicLongArray bytes;
+	private final AtomicIntegerArray outcomes;
+	// Class names rather than classes, so the global log does not keep a reloaded plugin's classloader reachable.
+	private final AtomicReferenceArray<String> resolvers;
+
+	/**
+	 * Create a new check event log.
+	 * @param capacity Amount of events kept, rounded up to a power of two.
+	 */
+	public CheckEventLog(int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.mask = size - 1;
+		this.sequences = new AtomicLongArray(size);
+		this.resourceIds = new AtomicLongArray(size);
+		this.timestamps = new AtomicLongArray(size);
+		this.latencies = new AtomicLongArray(size);
+		this.bytes = new AtomicLongArray(size);
+		this.outcomes = new AtomicIntegerArray(size);
+		this.resolvers = new AtomicReferenceArray<>(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, EMPTY);
+		}
+	}
+
+	/**
+	 * Get the JVM-wide log, recording the checks of every {@link dev.hypera.updatelib.UpdateLib} and
+	 * {@link dev.hypera.updatelib.UpdateTracker} instance.
+	 * @return Global check event log.
+	 */
+	public static @NotNull CheckEventLog global() {
+		return GLOBAL;
+	}
+
+	/**
+	 * Record a check.
+	 * @param resourceId Resource identifier.
+	 * @param resolver Class of the resolver used.
+	 * @param timestamp Completion time in epoch milliseconds.
+	 * @param latency Time the check took in nanoseconds.
+	 * @param httpStatus Status code of the last http response, or {@code -1}.
+	 * @param bodyBytes Amount of response body bytes read.
+	 * @param status Resulting status.
+	 * @param failureReason Reason the check failed, or {@code null} if it succeeded.
+	 */
+	public void record(long resourceId, @NotNull Class<?> resolver, long timestamp, long latency, int httpStatus, long bodyBytes, @NotNull Status status, @Nullable FailureReason failureReason) {
+		long sequence = cursor.getAndIncrement();
+		int slot = (int) sequence & mask;
+
+		// Writers whose sequences are a multiple of the capacity apart share a slot, only the one claiming it may write.
+		long previous;
+		do {
+			previous = sequences.get(slot);
+			if (previous == WRITING || previous > sequence) {
+				return;
+			}
+		} while (!sequences.compareAndSet(slot, previous, WRITING));
+
+		resourceIds.set(slot, resourceId);
+		resolvers.set(slot, resolver.getName());
+		timestamps.set(slot, timestamp);
+		latencies.set(slot, latency);
+		bytes.set(slot, bodyBytes);
+		outcomes.set(slot, (httpStatus & 0xFFFF) << 16 | (status.ordinal() & 0xFF) << 8 | (null == failureReason ? 0xFF : failureReason.ordinal()));
+		sequences.set(slot, sequence);
+	}
+
+	/**
+	 * Get the amount of events recorded since this log was created, including those no longer kept.
+	 * @return Recorded event count.
+	 */
+	public long getRecorded() {
+		return cursor.get();
+	}
+
+	/**
+	 * Copy every kept event.
+	 * @return Events, newest first.
+	 */
+	public @NotNull List<CheckEvent> snapshot() {
+		return snapshot(mask + 1);
+	}
+
+	/**
+	 * Copy the most recent events.
+	 * @param limit Maximum amount of events.
+	 * @return Events, newest first.
+	 */
+	public @NotNull List<CheckEvent> snapshot(int limit) {
+		long newest = cursor.get() - 1;
+		long oldest = Math.max(0L, newest - Math.min(limit, mask + 1) + 1);
+		List<CheckEvent> events = new ArrayList<>((int) (newest - oldest + 1));
+		for (long sequence = newest; sequence >= oldest; sequence--) {
+			int slot = (int) sequence & mask;
+			if (sequences.get(slot) != sequence) {
+				continue;
+			}
+
+			long resourceId = resourceIds.get(slot);
+			String resolver = resolvers.get(slot);
+			long timestamp = timestamps.get(slot);
+			long latency = latencies.get(slot);
+			long bodyBytes = bytes.get(slot);
+			int outcome = outcomes.get(slot);
+			if (sequences.get(slot) != sequence) {
+				// Overwritten while copying.
+				continue;
+			}
+
+			int httpStatus = outcome >>> 16;
+			int reason = outcome & 0xFF;
+			events.add(new CheckEvent(resourceId, resolver, timestamp, latency, httpStatus == 0xFFFF ? -1 : httpStatus, bodyBytes, STATUSES[(outcome >>> 8) & 0xFF], reason == 0xFF ? null : FAILURE_REASONS[reason]));
+		}
+		return events;
+	}
+
+}
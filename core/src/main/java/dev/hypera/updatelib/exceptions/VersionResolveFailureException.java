@@ -0,0 +1,124 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.exceptions;
+
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import org.jetbrains.annotations.NotNull;
+
+public class VersionResolveFailureException extends UpdateLibException {
+
+	private final FailureReason reason;
+	private final int statusCode;
+
+	public VersionResolveFailureException() {
+		super();
+		this.reason = FailureReason.UNKNOWN;
+		this.statusCode = -1;
+	}
+
+	public VersionResolveFailureException(String message) {
+		super(message);
+		this.reason = FailureReason.UNKNOWN;
+		this.statusCode = -1;
+	}
+
+	public VersionResolveFailureException(String message, Throwable cause) {
+		super(message, cause);
+		this.reason = FailureReason.UNKNOWN;
+		this.statusCode = -1;
+	}
+
+	public VersionResolveFailureException(Throwable cause) {
+		super(cause);
+		this.reason = FailureReason.UNKNOWN;
+		this.statusCode = -1;
+	}
+
+	/**
+	 * Create an exception for an expected failure. No stack trace is captured.
+	 * @param reason Failure reason.
+	 * @param message Failure message.
+	 */
+	public VersionResolveFailureException(@NotNull FailureReason reason, String message) {
+		this(reason, -1, message, null);
+	}
+
+	/**
+	 * Create an exception for an unexpected http status code. No stack trace is captured.
+	 * @param statusCode Http status code.
+	 * @param message Failure message.
+	 */
+	public VersionResolveFailureException(int statusCode, String message) {
+		this(FailureReason.HTTP_STATUS, statusCode, message, null);
+	}
+
+	protected VersionResolveFailureException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+		this.reason = FailureReason.UNKNOWN;
+		this.statusCode = -1;
+	}
+
+	private VersionResolveFailureException(@NotNull FailureReason reason, int statusCode, String message, Throwable cause) {
+		super(message, cause, false, false);
+		this.reason = reason;
+		this.statusCode = statusCode;
+	}
+
+	/**
+	 * Wrap an exception thrown while resolving a version, classifying it by its type. No stack trace is captured for
+	 * the wrapper, the original exception is kept as the cause.
+	 * @param ex Exception.
+	 * @return Version resolve failure exception.
+	 */
+	public static @NotNull VersionResolveFailureException wrap(@NotNull Exception ex) {
+		if (ex instanceof VersionResolveFailureException) {
+			return (VersionResolveFailureException) ex;
+		} else if (ex instanceof InterruptedIOException) {
+			return new VersionResolveFailureException(FailureReason.TIMEOUT, -1, ex.getMessage(), ex);
+		} else if (ex instanceof IOException) {
+			return new VersionResolveFailureException(FailureReason.CONNECTION, -1, ex.getMessage(), ex);
+		} else {
+			return new VersionResolveFailureException(FailureReason.PARSE_ERROR, -1, ex.toString(), ex);
+		}
+	}
+
+	/**
+	 * Get the reason the version could not be resolved.
+	 * @return Failure reason.
+	 */
+	public @NotNull FailureReason getReason() {
+		return reason;
+	}
+
+	/**
+	 * Get the http status code the request failed with, if applicable.
+	 * @return Http status code, or {@code -1}.
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import dev.hypera.updatelib.json.JsonReader;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides whether enough of a response body has been read, so {@link HttpTransport} can stop reading before the end
+ * of large responses once the value a resolver needs has arrived.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+@FunctionalInterface
+public interface BodyCompletion {
+
+	/**
+	 * Check whether the body read so far contains everything needed.
+	 * @param buffer Buffer containing the body read so far.
+	 * @param length Amount of bytes read so far.
+	 * @return {@code true} to stop reading.
+	 */
+	boolean isComplete(byte @NotNull [] buffer, int length);
+
+	/**
+	 * Get a completion that is only complete once both this and another completion are.
+	 * @param other Other completion.
+	 * @return Combined completion.
+	 */
+	default @NotNull BodyCompletion and(@NotNull BodyCompletion other) {
+		return (buffer, length) -> isComplete(buffer, length) && other.isComplete(buffer, length);
+	}
+
+	/**
+	 * Get a completion that is complete once a JSON body contains a fully read scalar value at a path.
+	 * @param path Path to the value, as used by {@link JsonReader#select(CharSequence, Object...)}.
+	 * @return JSON path completion.
+	 */
+	static @NotNull BodyCompletion json(@NotNull Object... path) {
+		return (buffer, length) -> {
+			String json = new String(buffer, 0, length, StandardCharsets.UTF_8);
+			JsonReader reader = new JsonReader(json);
+			try {
+				// A value running up to the end of what was read, such as a number, may still continue.
+				return null != reader.select(path) && reader.getPosition() < json.length();
+			} catch (IllegalStateException ex) {
+				// The path runs into the part of the body that has not been read yet.
+				return false;
+			}
+		};
+	}
+
+}
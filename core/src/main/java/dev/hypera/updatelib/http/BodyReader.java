@@ -0,0 +1,126 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Bounded response body reader.
+ * <p>
+ * Bodies are read into buffers borrowed from a small shared pool and copied out once, so a typical response costs a
+ * single allocation. Reading fails as soon as the body is known to exceed the maximum size, either from its
+ * {@code Content-Length} or while reading, and stops early once an optional {@link BodyCompletion} is satisfied.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+@Internal
+public final class BodyReader {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAX_POOLED_BUFFER_SIZE = 65536;
+	private static final int POOL_SIZE = 16;
+	private static final int FIRST_COMPLETION_CHECK = 1024;
+	private static final byte[] EMPTY = new byte[0];
+	private static final BlockingQueue<byte[]> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+	private BodyReader() {
+	}
+
+	/**
+	 * Read a response body.
+	 * @param inputStream Body stream, not closed by this method.
+	 * @param contentLength Declared body length, or {@code -1} if unknown.
+	 * @param maxBodySize Maximum body size in bytes.
+	 * @param completion Completion deciding whether reading may stop early, or {@code null} to read the whole body.
+	 * @return Body, possibly truncated if the completion was satisfied early.
+	 * @throws IOException if reading failed.
+	 * @throws VersionResolveFailureException if the body is larger than the maximum size.
+	 */
+	public static byte @NotNull [] read(@NotNull InputStream inputStream, long contentLength, int maxBodySize, @Nullable BodyCompletion completion) throws IOException, VersionResolveFailureException {
+		if (contentLength > maxBodySize) {
+			throw tooLarge(maxBodySize);
+		}
+		if (contentLength == 0L) {
+			return EMPTY;
+		}
+
+		byte[] buffer = POOL.poll();
+		if (null == buffer) {
+			buffer = new byte[contentLength > BUFFER_SIZE && contentLength <= MAX_POOLED_BUFFER_SIZE ? (int) contentLength : BUFFER_SIZE];
+		}
+
+		try {
+			int length = 0;
+			int nextCompletionCheck = FIRST_COMPLETION_CHECK;
+			while (true) {
+				// Pooled buffers may be larger than the maximum size, reads must never go past it.
+				int capacity = Math.min(buffer.length, maxBodySize);
+				if (length == capacity) {
+					if (length >= maxBodySize) {
+						// Only fail if there is actually more to read.
+						if (inputStream.read() == -1) {
+							break;
+						}
+						throw tooLarge(maxBodySize);
+					}
+					buffer = Arrays.copyOf(buffer, (int) Math.min(maxBodySize, (long) buffer.length << 1));
+					capacity = buffer.length;
+				}
+
+				int read = inputStream.read(buffer, length, capacity - length);
+				if (read == -1) {
+					break;
+				}
+				length += read;
+
+				// Checking at doubling intervals keeps the total cost of completion checks linear in the body size.
+				if (null != completion && length >= nextCompletionCheck) {
+					if (completion.isComplete(buffer, length)) {
+						break;
+					}
+					nextCompletionCheck = length << 1;
+				}
+			}
+			return Arrays.copyOf(buffer, length);
+		} finally {
+			if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+				POOL.offer(buffer);
+			}
+		}
+	}
+
+	private static @NotNull VersionResolveFailureException tooLarge(int maxBodySize) {
+		return new VersionResolveFailureException(FailureReason.BODY_TOO_LARGE, "Response body is larger than the maximum of " + maxBodySize + " bytes.");
+	}
+
+}
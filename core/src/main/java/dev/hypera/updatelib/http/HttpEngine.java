@@ -0,0 +1,70 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Engine sending the requests of {@link HttpTransport}, selected for the running JVM by {@link HttpEngines}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+interface HttpEngine {
+
+	String USER_AGENT = "UpdateLib/" + UpdateLib.getVersion();
+	byte[] EMPTY_BODY = new byte[0];
+
+	/**
+	 * Send a single GET request, without any rate limiting or retries.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param context Context of the running check, or {@code null} if the request is not made during a check.
+	 * @param url Request url.
+	 * @param headers Request headers.
+	 * @param completion Completion deciding whether reading may stop early, or {@code null} to read the whole body.
+	 * @return Response.
+	 * @throws IOException if the request failed.
+	 * @throws VersionResolveFailureException if the body is larger than {@link UpdateLib#getMaxBodySize()}.
+	 */
+	@NotNull HttpResponse request(@NotNull UpdateLib updateLib, @Nullable RequestContext context, @NotNull URL url, @NotNull Map<String, String> headers, @Nullable BodyCompletion completion) throws IOException, VersionResolveFailureException;
+
+	/**
+	 * Release what the engine holds on to between requests, called once no open {@link UpdateLib} instance is using
+	 * it. The engine must remain usable afterwards.
+	 */
+	default void release() {
+	}
+
+	/**
+	 * Get the name of this engine.
+	 * @return Name.
+	 */
+	@NotNull String getName();
+
+}
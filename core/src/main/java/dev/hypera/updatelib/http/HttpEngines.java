@@ -0,0 +1,50 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Selects the {@link HttpEngine} used by {@link HttpTransport}.
+ * <p>
+ * This is the Java 8 variant, which always uses {@link java.net.HttpURLConnection}. The multi-release jar replaces it
+ * on Java 11 and newer with a variant sending HTTPS requests with {@code java.net.http.HttpClient}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class HttpEngines {
+
+	/**
+	 * System property forcing an engine by its name, {@code urlconnection} or {@code httpclient}.
+	 */
+	static final String ENGINE_PROPERTY = "updatelib.http.engine";
+
+	private HttpEngines() {
+	}
+
+	static @NotNull HttpEngine select() {
+		return new UrlConnectionEngine();
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * HTTP response
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class HttpResponse {
+
+	private final int statusCode;
+	private final Map<String, String> headers;
+	private final byte[] body;
+	private String decodedBody = null;
+
+	/**
+	 * Create a new HTTP response.
+	 * @param statusCode Status code.
+	 * @param headers Response headers, keyed case-insensitively.
+	 * @param body Response body, empty unless the request succeeded.
+	 */
+	public HttpResponse(int statusCode, @NotNull Map<String, String> headers, byte @NotNull [] body) {
+		this.statusCode = statusCode;
+		this.headers = Collections.unmodifiableMap(headers);
+		this.body = body;
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public @Nullable String getHeader(@NotNull String name) {
+		return headers.get(name);
+	}
+
+	public @NotNull Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Get the response body, decoded as UTF-8.
+	 * @return Response body.
+	 */
+	public @NotNull String getBody() {
+		if (null == decodedBody) {
+			decodedBody = new String(body, StandardCharsets.UTF_8);
+		}
+		return decodedBody;
+	}
+
+	/**
+	 * Get the raw response body. The returned array is not copied and must not be modified.
+	 * @return Response body.
+	 */
+	public byte @NotNull [] getBodyBytes() {
+		return body;
+	}
+
+}
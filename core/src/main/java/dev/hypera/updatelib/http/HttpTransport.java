@@ -0,0 +1,159 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * HTTP transport shared by the built-in resolvers. Every request passes through the JVM-wide {@link RateLimiter}, and
+ * responses asking us to slow down are retried once the server allows it instead of failing. Requests made during an
+ * update check are bound by the check's {@link RequestContext deadline} and are disconnected when it is aborted.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+@Internal
+public final class HttpTransport {
+
+	private static final int MAX_ATTEMPTS = 3;
+	private static final HttpEngine ENGINE = HttpEngines.select();
+	private static final Set<UpdateLib> USERS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	private HttpTransport() {
+	}
+
+	/**
+	 * Send a GET request.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param address Request url.
+	 * @return Response.
+	 * @throws IOException if the request failed.
+	 * @throws VersionResolveFailureException if the host's rate limit did not allow the request in time, or the body is too large.
+	 */
+	public static @NotNull HttpResponse get(@NotNull UpdateLib updateLib, @NotNull String address) throws IOException, VersionResolveFailureException {
+		return get(updateLib, address, Collections.emptyMap());
+	}
+
+	/**
+	 * Send a GET request.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param address Request url.
+	 * @param headers Request headers.
+	 * @return Response.
+	 * @throws IOException if the request failed.
+	 * @throws VersionResolveFailureException if the host's rate limit did not allow the request in time, or the body is too large.
+	 */
+	public static @NotNull HttpResponse get(@NotNull UpdateLib updateLib, @NotNull String address, @NotNull Map<String, String> headers) throws IOException, VersionResolveFailureException {
+		return get(updateLib, address, headers, null);
+	}
+
+	/**
+	 * Send a GET request, reading the response body only until a completion is satisfied.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param address Request url.
+	 * @param headers Request headers.
+	 * @param completion Completion deciding whether reading may stop early, or {@code null} to read the whole body.
+	 * @return Response, whose body may be truncated once the completion was satisfied.
+	 * @throws IOException if the request failed.
+	 * @throws VersionResolveFailureException if the host's rate limit did not allow the request in time, or the body
+	 * is larger than {@link UpdateLib#getMaxBodySize()}.
+	 */
+	public static @NotNull HttpResponse get(@NotNull UpdateLib updateLib, @NotNull String address, @NotNull Map<String, String> headers, @Nullable BodyCompletion completion) throws IOException, VersionResolveFailureException {
+		URL url = new URL(address);
+		String host = url.getHost();
+		RateLimiter rateLimiter = RateLimiter.getInstance();
+		RequestContext context = RequestContext.current();
+		if (!updateLib.isClosed() && USERS.add(updateLib)) {
+			updateLib.addCloseListener(() -> release(updateLib));
+		}
+		long deadline = System.nanoTime() + (null == context ? rateLimiter.getMaxDelay() : Math.min(rateLimiter.getMaxDelay(), context.remaining()));
+
+		for (int attempt = 1; ; attempt++) {
+			try {
+				if (!rateLimiter.acquire(host, deadline - System.nanoTime())) {
+					throw new VersionResolveFailureException(FailureReason.RATE_LIMITED, host + " is rate limited, the request was deferred for too long.");
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for " + host + "'s rate limit.", ex);
+			}
+
+			HttpResponse response;
+			try {
+				response = ENGINE.request(updateLib, context, url, headers, completion);
+			} finally {
+				if (updateLib.isClosed()) {
+					// The request may have started what closing the instance already released.
+					release(updateLib);
+				}
+			}
+			if (null != context) {
+				context.recordResponse(response.getStatusCode(), response.getBodyBytes().length);
+			}
+			long retryAfter = rateLimiter.update(host, response);
+
+			int statusCode = response.getStatusCode();
+			if ((statusCode != 429 && statusCode != 503) || retryAfter <= 0L) {
+				return response;
+			}
+			if (attempt >= MAX_ATTEMPTS || System.nanoTime() + retryAfter > deadline) {
+				throw new VersionResolveFailureException(FailureReason.RATE_LIMITED, host + " is rate limited, retry after " + TimeUnit.NANOSECONDS.toSeconds(retryAfter) + " seconds.");
+			}
+		}
+	}
+
+	private static void release(@NotNull UpdateLib updateLib) {
+		updateLib.setTransportHandle(null);
+		synchronized (USERS) {
+			USERS.remove(updateLib);
+			USERS.removeIf(UpdateLib::isClosed);
+			if (!USERS.isEmpty()) {
+				return;
+			}
+		}
+		ENGINE.release();
+	}
+
+	/**
+	 * Get the name of the engine sending HTTPS requests, {@code httpclient} when {@code java.net.http} is used and
+	 * {@code urlconnection} otherwise.
+	 * @return Engine name.
+	 */
+	public static @NotNull String getEngine() {
+		return ENGINE.getName();
+	}
+
+}
@@ -0,0 +1,337 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-host token bucket rate limiter, shared by every resolver in the JVM.
+ * <p>
+ * Hosts are not limited until the server asks for it with a {@code 429}, {@code Retry-After} or the common
+ * {@code X-RateLimit-*} / {@code RateLimit-*} headers. Buckets then follow the advertised limits, raising the budget
+ * again as the server allows more requests, and return to unlimited once it stops advertising any. Requests that
+ * would exceed the budget are delayed instead of sent, up to the {@link #setMaxDelay(long, TimeUnit) maximum delay}.
+ * Hosts can also be given {@link #configure(String, int, double) static limits}, which then cap the advertised ones.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class RateLimiter {
+
+	private static final RateLimiter INSTANCE = new RateLimiter();
+	private static final double UNLIMITED = Double.POSITIVE_INFINITY;
+	private static final long EPOCH_THRESHOLD = 1_000_000_000L;
+
+	private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+	private volatile long maxDelay = TimeUnit.MINUTES.toNanos(2);
+
+	private RateLimiter() {
+	}
+
+	/**
+	 * Get the JVM-wide rate limiter.
+	 * @return Rate limiter.
+	 */
+	public static @NotNull RateLimiter getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Sets the static limits for a host, replacing its current budget. Limits advertised by the host can lower the
+	 * budget below these, but never raise it above them.
+	 * @param host Host name.
+	 * @param capacity Maximum amount of requests that can be sent in a burst.
+	 * @param perSecond Amount of requests allowed per second once the burst is used.
+	 */
+	public void configure(@NotNull String host, int capacity, double perSecond) {
+		if (capacity <= 0 || perSecond <= 0D) {
+			throw new IllegalArgumentException("capacity and perSecond must be greater than 0.");
+		}
+		buckets.put(host.toLowerCase(), new Bucket(capacity, perSecond));
+	}
+
+	/**
+	 * Sets the maximum time a request may be delayed before it fails as rate limited.
+	 * @param delay Maximum delay.
+	 * @param unit Time unit.
+	 */
+	public void setMaxDelay(long delay, @NotNull TimeUnit unit) {
+		this.maxDelay = unit.toNanos(delay);
+	}
+
+	/**
+	 * Get the maximum time a request may be delayed.
+	 * @return Maximum delay in nanoseconds.
+	 */
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	/**
+	 * Wait until the host's budget allows another request and take it.
+	 * @param host Host name.
+	 * @param maxWait Maximum time to wait, in nanoseconds.
+	 * @return {@code true} if a request may be sent, {@code false} if that would take longer than {@code maxWait}.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public boolean acquire(@NotNull String host, long maxWait) throws InterruptedException {
+		Bucket bucket = bucket(host);
+		long deadline = System.nanoTime() + maxWait;
+		while (true) {
+			long wait = bucket.tryTake(System.nanoTime());
+			if (wait == 0L) {
+				return true;
+			}
+			if (System.nanoTime() + wait > deadline) {
+				return false;
+			}
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	/**
+	 * Update the host's budget from a response.
+	 * @param host Host name.
+	 * @param response Response.
+	 * @return Time the server asked us to wait before the next request in nanoseconds, or {@code 0} if none.
+	 */
+	public long update(@NotNull String host, @NotNull HttpResponse response) {
+		Bucket bucket = bucket(host);
+		long now = System.nanoTime();
+
+		long retryAfter = parseRetryAfter(response.getHeader("Retry-After"));
+		if (retryAfter < 0L && response.getStatusCode() == 429) {
+			retryAfter = TimeUnit.SECONDS.toNanos(1);
+		}
+
+		long remaining = parseLong(firstHeader(response, "X-RateLimit-Remaining", "RateLimit-Remaining"));
+		long reset = parseReset(firstHeader(response, "X-RateLimit-Reset", "RateLimit-Reset"));
+		long limit = parseLong(firstHeader(response, "X-RateLimit-Limit", "RateLimit-Limit"));
+
+		bucket.adapt(now, limit, remaining, reset, retryAfter);
+		return Math.max(retryAfter, 0L);
+	}
+
+	/**
+	 * Get the current budget of a host, for monitoring.
+	 * @param host Host name.
+	 * @return Current budget, or {@code null} if no requests have been made to this host.
+	 */
+	public @Nullable Budget getBudget(@NotNull String host) {
+		Bucket bucket = buckets.get(host.toLowerCase());
+		return null == bucket ? null : bucket.snapshot(System.nanoTime());
+	}
+
+	/**
+	 * Get the current budget of every known host, for monitoring.
+	 * @return Current budgets, keyed by host name.
+	 */
+	public @NotNull Map<String, Budget> getBudgets() {
+		long now = System.nanoTime();
+		Map<String, Budget> budgets = new TreeMap<>();
+		buckets.forEach((host, bucket) -> budgets.put(host, bucket.snapshot(now)));
+		return Collections.unmodifiableMap(budgets);
+	}
+
+	private @NotNull Bucket bucket(@NotNull String host) {
+		return buckets.computeIfAbsent(host.toLowerCase(), h -> new Bucket(UNLIMITED, UNLIMITED));
+	}
+
+	private static @Nullable String firstHeader(@NotNull HttpResponse response, @NotNull String... names) {
+		for (String name : names) {
+			String value = response.getHeader(name);
+			if (null != value) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	private static long parseLong(@Nullable String value) {
+		if (null == value) {
+			return -1L;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			return -1L;
+		}
+	}
+
+	private static long parseReset(@Nullable String value) {
+		long reset = parseLong(value);
+		if (reset < 0L) {
+			return -1L;
+		}
+		// Some APIs send the reset as an epoch second, others as the amount of seconds until the reset.
+		if (reset > EPOCH_THRESHOLD) {
+			reset = Math.max(0L, reset - Instant.now().getEpochSecond());
+		}
+		return TimeUnit.SECONDS.toNanos(reset);
+	}
+
+	private static long parseRetryAfter(@Nullable String value) {
+		if (null == value) {
+			return -1L;
+		}
+		long seconds = parseLong(value);
+		if (seconds >= 0L) {
+			return TimeUnit.SECONDS.toNanos(seconds);
+		}
+		try {
+			long millis = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - Instant.now().toEpochMilli();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, millis));
+		} catch (Exception ex) {
+			return -1L;
+		}
+	}
+
+	private static class Bucket {
+
+		private final double maxCapacity;
+		private final double maxRefillRate;
+
+		private double capacity;
+		private double refillRate;
+		private double tokens;
+		private long lastRefill;
+		private long pausedUntil;
+
+		private Bucket(double capacity, double refillRate) {
+			this.maxCapacity = capacity;
+			this.maxRefillRate = refillRate;
+			this.capacity = capacity;
+			this.refillRate = refillRate;
+			this.tokens = capacity;
+			this.lastRefill = System.nanoTime();
+			this.pausedUntil = lastRefill;
+		}
+
+		private synchronized long tryTake(long now) {
+			refill(now);
+			if (pausedUntil - now > 0L) {
+				return pausedUntil - now;
+			}
+			if (tokens >= 1D) {
+				tokens -= 1D;
+				return 0L;
+			}
+			return Math.max(1L, (long) ((1D - tokens) / refillRate * TimeUnit.SECONDS.toNanos(1)));
+		}
+
+		private synchronized void adapt(long now, long limit, long remaining, long reset, long retryAfter) {
+			refill(now);
+			if (retryAfter >= 0L) {
+				pausedUntil = Math.max(pausedUntil, now + retryAfter);
+				tokens = 0D;
+			}
+
+			if (limit > 0L) {
+				capacity = Math.min(maxCapacity, limit);
+				tokens = Math.min(tokens, capacity);
+			}
+			if (remaining >= 0L) {
+				tokens = Math.min(tokens, remaining);
+				if (reset > 0L) {
+					if (remaining == 0L) {
+						pausedUntil = Math.max(pausedUntil, now + reset);
+					}
+					// Spread what is left of the advertised window evenly until it resets, which raises the rate again
+					// once a new window starts.
+					double seconds = (double) reset / TimeUnit.SECONDS.toNanos(1);
+					refillRate = Math.min(maxRefillRate, Math.max(remaining, 1L) / seconds);
+				} else {
+					refillRate = maxRefillRate;
+				}
+			} else if (retryAfter < 0L && limit < 0L) {
+				capacity = maxCapacity;
+				refillRate = maxRefillRate;
+			}
+		}
+
+		private synchronized @NotNull Budget snapshot(long now) {
+			refill(now);
+			long paused = Math.max(0L, pausedUntil - now);
+			return new Budget(tokens, capacity, refillRate, TimeUnit.NANOSECONDS.toMillis(paused));
+		}
+
+		private void refill(long now) {
+			long elapsed = now - lastRefill;
+			if (elapsed > 0L) {
+				tokens = Math.min(capacity, tokens + refillRate * elapsed / TimeUnit.SECONDS.toNanos(1));
+				lastRefill = now;
+			}
+		}
+
+	}
+
+	/**
+	 * Snapshot of a host's rate limit budget
+	 */
+	public static class Budget {
+
+		private final double available;
+		private final double capacity;
+		private final double refillRate;
+		private final long pausedFor;
+
+		private Budget(double available, double capacity, double refillRate, long pausedFor) {
+			this.available = available;
+			this.capacity = capacity;
+			this.refillRate = refillRate;
+			this.pausedFor = pausedFor;
+		}
+
+		public double getAvailable() {
+			return available;
+		}
+
+		public double getCapacity() {
+			return capacity;
+		}
+
+		public double getRefillRate() {
+			return refillRate;
+		}
+
+		public long getPausedFor() {
+			return pausedFor;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Budget{available=%.2f, capacity=%.0f, refillRate=%.3f/s, pausedFor=%dms}", available, capacity, refillRate, pausedFor);
+		}
+
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Context of a single update check, used by {@link HttpTransport} to enforce the check's deadline and to abort the
+ * in-flight request when the check is cancelled or times out.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+@Internal
+public class RequestContext {
+
+	private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+	private final long deadline;
+	private volatile Runnable abortAction;
+	private volatile boolean aborted = false;
+	private volatile int httpStatus = -1;
+	private volatile long bodyBytes = 0L;
+
+	/**
+	 * Create a new request context.
+	 * @param deadline Deadline of the check, as a {@link System#nanoTime()} value.
+	 */
+	public RequestContext(long deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Get the context of the check running on the current thread.
+	 * @return Request context, or {@code null} if the current thread is not running a check.
+	 */
+	public static @Nullable RequestContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Run an action with this context bound to the current thread.
+	 * @param action Action.
+	 */
+	public void run(@NotNull Runnable action) {
+		RequestContext previous = CURRENT.get();
+		CURRENT.set(this);
+		try {
+			action.run();
+		} finally {
+			if (null == previous) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Get the time left until the deadline.
+	 * @return Remaining time in nanoseconds, never negative.
+	 */
+	public long remaining() {
+		return Math.max(0L, deadline - System.nanoTime());
+	}
+
+	/**
+	 * Limit a timeout to the time left until the deadline.
+	 * @param timeout Timeout in milliseconds.
+	 * @return Timeout in milliseconds, at least 1.
+	 * @throws IOException if the deadline has passed or the check was aborted.
+	 */
+	public int limit(int timeout) throws IOException {
+		ensureActive();
+		long remaining = TimeUnit.NANOSECONDS.toMillis(remaining());
+		if (remaining <= 0L) {
+			throw new InterruptedIOException("The update check's deadline has passed.");
+		}
+		return (int) Math.max(1L, timeout <= 0 ? remaining : Math.min(timeout, remaining));
+	}
+
+	/**
+	 * Register the action aborting the request currently made by the check, such as disconnecting its connection.
+	 * @param abortAction Abort action, or {@code null} once the request completed.
+	 * @throws IOException if the check was aborted.
+	 */
+	public void attach(@Nullable Runnable abortAction) throws IOException {
+		this.abortAction = abortAction;
+		if (aborted && null != abortAction) {
+			abortAction.run();
+			ensureActive();
+		}
+	}
+
+	/**
+	 * Record a response received by the check, for diagnostics.
+	 * @param statusCode Http status code.
+	 * @param length Amount of body bytes read.
+	 */
+	public void recordResponse(int statusCode, int length) {
+		this.httpStatus = statusCode;
+		this.bodyBytes += length;
+	}
+
+	/**
+	 * Get the status code of the last response received by the check.
+	 * @return Http status code, or {@code -1} if no response was received.
+	 */
+	public int getHttpStatus() {
+		return httpStatus;
+	}
+
+	/**
+	 * Get the amount of response body bytes read by the check.
+	 * @return Body bytes.
+	 */
+	public long getBodyBytes() {
+		return bodyBytes;
+	}
+
+	/**
+	 * Abort the check, disconnecting the in-flight request if there is one.
+	 */
+	public void abort() {
+		aborted = true;
+		Runnable current = abortAction;
+		if (null != current) {
+			current.run();
+		}
+	}
+
+	/**
+	 * Check whether the check was aborted.
+	 * @return {@code true} if the check was aborted.
+	 */
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * Ensure the check has not been aborted.
+	 * @throws IOException if the check was aborted.
+	 */
+	public void ensureActive() throws IOException {
+		if (aborted) {
+			throw new InterruptedIOException("The update check was aborted.");
+		}
+	}
+
+}
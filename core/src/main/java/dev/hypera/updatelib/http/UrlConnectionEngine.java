@@ -0,0 +1,92 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link HttpEngine} using {@link HttpURLConnection}, available on every JVM.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class UrlConnectionEngine implements HttpEngine {
+
+	static final String NAME = "urlconnection";
+
+	@Override
+	public @NotNull HttpResponse request(@NotNull UpdateLib updateLib, @Nullable RequestContext context, @NotNull URL url, @NotNull Map<String, String> headers, @Nullable BodyCompletion completion) throws IOException, VersionResolveFailureException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setConnectTimeout(null == context ? updateLib.getConnectTimeout() : context.limit(updateLib.getConnectTimeout()));
+		connection.setReadTimeout(null == context ? updateLib.getFirstByteTimeout() : context.limit(updateLib.getFirstByteTimeout()));
+		connection.setRequestProperty("User-Agent", USER_AGENT);
+		headers.forEach(connection::setRequestProperty);
+
+		if (null != context) {
+			context.attach(connection::disconnect);
+		}
+
+		try {
+			int statusCode = connection.getResponseCode();
+
+			Map<String, String> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+				if (null != header.getKey() && !header.getValue().isEmpty()) {
+					responseHeaders.put(header.getKey(), header.getValue().get(0));
+				}
+			}
+
+			byte[] body = EMPTY_BODY;
+			if (statusCode >= 200 && statusCode < 300) {
+				try (InputStream inputStream = connection.getInputStream()) {
+					body = BodyReader.read(inputStream, connection.getContentLengthLong(), updateLib.getMaxBodySize(), completion);
+				}
+			} else if (null != connection.getErrorStream()) {
+				// Closing the error stream lets the connection return to the keep-alive pool.
+				connection.getErrorStream().close();
+			}
+
+			return new HttpResponse(statusCode, responseHeaders, body);
+		} finally {
+			if (null != context) {
+				context.attach(null);
+			}
+		}
+	}
+
+	@Override
+	public @NotNull String getName() {
+		return NAME;
+	}
+
+}
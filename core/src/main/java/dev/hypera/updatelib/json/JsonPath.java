@@ -0,0 +1,142 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compiled JSON path, selecting a scalar value from a document with a streaming {@link JsonReader}.
+ * <p>
+ * Paths are compiled once from an expression into object keys and array indexes, selecting a value does not parse
+ * the expression again. An expression is made of an optional leading {@code $}, property names separated by dots and
+ * array indexes in brackets, for example {@code $.resource.updates.latest.version} or {@code [0].version_number}.
+ * Property names containing dots or brackets can be quoted in brackets, for example {@code ['tag.name']}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public final class JsonPath {
+
+	private final String expression;
+	private final Object[] segments;
+
+	private JsonPath(@NotNull String expression, @NotNull Object[] segments) {
+		this.expression = expression;
+		this.segments = segments;
+	}
+
+	/**
+	 * Compile a path expression.
+	 * @param expression Path expression.
+	 * @return Compiled path.
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 */
+	public static @NotNull JsonPath compile(@NotNull String expression) {
+		List<Object> segments = new ArrayList<>();
+		int position = expression.startsWith("$") ? 1 : 0;
+		boolean expectName = position == 0;
+
+		while (position < expression.length()) {
+			char c = expression.charAt(position);
+			if (c == '[') {
+				int start = position + 1;
+				while (start < expression.length() && Character.isWhitespace(expression.charAt(start))) {
+					start++;
+				}
+				// Quoted names may contain brackets themselves, so the closing bracket is only looked for after the quote.
+				char quote = start < expression.length() ? expression.charAt(start) : 0;
+				int close = quote == '\'' || quote == '"' ? expression.indexOf(quote, start + 1) : start;
+				int end = close == -1 ? -1 : expression.indexOf(']', close);
+				if (end == -1) {
+					throw error(expression, "Unclosed bracket at " + position);
+				}
+				String content = expression.substring(position + 1, end).trim();
+				if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"') && content.charAt(content.length() - 1) == content.charAt(0)) {
+					segments.add(content.substring(1, content.length() - 1));
+				} else {
+					try {
+						int index = Integer.parseInt(content);
+						if (index < 0) {
+							throw error(expression, "Negative array index at " + position);
+						}
+						segments.add(index);
+					} catch (NumberFormatException ex) {
+						throw error(expression, "Invalid array index '" + content + "' at " + position);
+					}
+				}
+				position = end + 1;
+				expectName = false;
+			} else if (c == '.' || expectName) {
+				int start = c == '.' ? position + 1 : position;
+				int end = start;
+				while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+					end++;
+				}
+				if (end == start) {
+					throw error(expression, "Empty property name at " + start);
+				}
+				segments.add(expression.substring(start, end));
+				position = end;
+				expectName = false;
+			} else {
+				throw error(expression, "Unexpected '" + c + "' at " + position);
+			}
+		}
+
+		if (segments.isEmpty()) {
+			throw error(expression, "Empty path");
+		}
+		return new JsonPath(expression, segments.toArray());
+	}
+
+	/**
+	 * Select the value at this path.
+	 * @param json JSON document.
+	 * @return Value as a string, or {@code null} if the path does not exist or does not point at a scalar value.
+	 * @throws IllegalStateException if the document is malformed.
+	 */
+	public @Nullable String select(@NotNull CharSequence json) {
+		return new JsonReader(json).select(segments);
+	}
+
+	/**
+	 * Get the segments of this path, as used by {@link JsonReader#select(Object...)}.
+	 * @return Object keys ({@link String}) and array indexes ({@link Integer}).
+	 */
+	public @NotNull Object[] getSegments() {
+		return segments.clone();
+	}
+
+	@Override
+	public String toString() {
+		return expression;
+	}
+
+	private static @NotNull IllegalArgumentException error(@NotNull String expression, @NotNull String message) {
+		return new IllegalArgumentException(message + " in path '" + expression + "'.");
+	}
+
+}
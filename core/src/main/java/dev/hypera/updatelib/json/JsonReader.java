@@ -0,0 +1,457 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Minimal streaming JSON reader. Values are read in document order without building a tree, so resolvers only pay for
+ * the parts of a response they actually look at.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class JsonReader {
+
+	private static final int MAX_DEPTH = 64;
+
+	private static final int DOCUMENT_START = 0;
+	private static final int DOCUMENT_END = 1;
+	private static final int EMPTY_OBJECT = 2;
+	private static final int NONEMPTY_OBJECT = 3;
+	private static final int DANGLING_NAME = 4;
+	private static final int EMPTY_ARRAY = 5;
+	private static final int NONEMPTY_ARRAY = 6;
+
+	private final CharSequence input;
+	private final int[] scopes = new int[MAX_DEPTH + 1];
+	private int depth = 1;
+	private int position = 0;
+	private JsonToken peeked = null;
+
+	/**
+	 * Create a new JSON reader.
+	 * @param input JSON document.
+	 */
+	public JsonReader(@NotNull CharSequence input) {
+		this.input = input;
+		this.scopes[0] = DOCUMENT_START;
+	}
+
+	/**
+	 * Select a scalar value from a JSON document.
+	 * @param json JSON document.
+	 * @param path Path to the value, made of object keys ({@link String}) and array indexes ({@link Integer}).
+	 * @return Value as a string, or {@code null} if the path does not exist or does not point at a scalar value.
+	 * @throws IllegalStateException if the document is malformed.
+	 */
+	public static @Nullable String select(@NotNull CharSequence json, @NotNull Object... path) {
+		return new JsonReader(json).select(path);
+	}
+
+	/**
+	 * Select a scalar value, starting at the next value of this reader.
+	 * @param path Path to the value, made of object keys ({@link String}) and array indexes ({@link Integer}).
+	 * @return Value as a string, or {@code null} if the path does not exist or does not point at a scalar value.
+	 * @throws IllegalStateException if the document is malformed.
+	 */
+	public @Nullable String select(@NotNull Object... path) {
+		for (Object segment : path) {
+			if (segment instanceof Integer) {
+				if (peek() != JsonToken.BEGIN_ARRAY) {
+					return null;
+				}
+				beginArray();
+				int index = (Integer) segment;
+				for (int i = 0; i < index && hasNext(); i++) {
+					skipValue();
+				}
+				if (!hasNext()) {
+					return null;
+				}
+			} else {
+				if (peek() != JsonToken.BEGIN_OBJECT) {
+					return null;
+				}
+				beginObject();
+				if (!find(segment.toString())) {
+					return null;
+				}
+			}
+		}
+
+		JsonToken token = peek();
+		return token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN ? nextString() : null;
+	}
+
+	/**
+	 * Get the position of this reader in the input.
+	 * @return Index of the next character to be read.
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Get the type of the next token without consuming it.
+	 * @return Next token.
+	 * @throws IllegalStateException if the document is malformed.
+	 */
+	public @NotNull JsonToken peek() {
+		if (null != peeked) {
+			return peeked;
+		}
+
+		int scope = scopes[depth - 1];
+		switch (scope) {
+			case EMPTY_ARRAY:
+			case NONEMPTY_ARRAY: {
+				char c = nextNonWhitespace();
+				if (c == ']') {
+					return peeked = JsonToken.END_ARRAY;
+				}
+				if (scope == NONEMPTY_ARRAY) {
+					if (c != ',') {
+						throw syntaxError("Expected ',' or ']'");
+					}
+				} else {
+					position--;
+				}
+				scopes[depth - 1] = NONEMPTY_ARRAY;
+				return peeked = peekValue();
+			}
+			case EMPTY_OBJECT:
+			case NONEMPTY_OBJECT: {
+				char c = nextNonWhitespace();
+				if (c == '}') {
+					return peeked = JsonToken.END_OBJECT;
+				}
+				if (scope == NONEMPTY_OBJECT) {
+					if (c != ',') {
+						throw syntaxError("Expected ',' or '}'");
+					}
+					c = nextNonWhitespace();
+				}
+				if (c != '"') {
+					throw syntaxError("Expected name");
+				}
+				position--;
+				scopes[depth - 1] = DANGLING_NAME;
+				return peeked = JsonToken.NAME;
+			}
+			case DANGLING_NAME:
+				if (nextNonWhitespace() != ':') {
+					throw syntaxError("Expected ':'");
+				}
+				scopes[depth - 1] = NONEMPTY_OBJECT;
+				return peeked = peekValue();
+			case DOCUMENT_START:
+				scopes[depth - 1] = DOCUMENT_END;
+				return peeked = peekValue();
+			default:
+				if (skipWhitespace() < input.length()) {
+					throw syntaxError("Expected end of document");
+				}
+				return peeked = JsonToken.END_DOCUMENT;
+		}
+	}
+
+	/**
+	 * Consume the beginning of an object.
+	 */
+	public void beginObject() {
+		expect(JsonToken.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+	}
+
+	/**
+	 * Consume the end of an object.
+	 */
+	public void endObject() {
+		expect(JsonToken.END_OBJECT);
+		depth--;
+	}
+
+	/**
+	 * Consume the beginning of an array.
+	 */
+	public void beginArray() {
+		expect(JsonToken.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+	}
+
+	/**
+	 * Consume the end of an array.
+	 */
+	public void endArray() {
+		expect(JsonToken.END_ARRAY);
+		depth--;
+	}
+
+	/**
+	 * Check whether the current object or array has another element.
+	 * @return {@code true} if there is another element.
+	 */
+	public boolean hasNext() {
+		JsonToken token = peek();
+		return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+	}
+
+	/**
+	 * Consume the next property name.
+	 * @return Property name.
+	 */
+	public @NotNull String nextName() {
+		expect(JsonToken.NAME);
+		return readString();
+	}
+
+	/**
+	 * Consume the next scalar value as a string. Numbers and booleans are returned as written in the document.
+	 * @return Value.
+	 */
+	public @NotNull String nextString() {
+		JsonToken token = peek();
+		peeked = null;
+		switch (token) {
+			case STRING:
+				return readString();
+			case NUMBER:
+			case BOOLEAN:
+				return readLiteral();
+			default:
+				throw new IllegalStateException("Expected a scalar value but was " + token + " at position " + position);
+		}
+	}
+
+	/**
+	 * Consume the next boolean value.
+	 * @return Value.
+	 */
+	public boolean nextBoolean() {
+		expect(JsonToken.BOOLEAN);
+		return Boolean.parseBoolean(readLiteral());
+	}
+
+	/**
+	 * Consume the next null value.
+	 */
+	public void nextNull() {
+		expect(JsonToken.NULL);
+		readLiteral();
+	}
+
+	/**
+	 * Skip the next value, including any nested objects or arrays.
+	 */
+	public void skipValue() {
+		JsonToken token = peek();
+		switch (token) {
+			case BEGIN_OBJECT:
+				beginObject();
+				while (hasNext()) {
+					nextName();
+					skipValue();
+				}
+				endObject();
+				break;
+			case BEGIN_ARRAY:
+				beginArray();
+				while (hasNext()) {
+					skipValue();
+				}
+				endArray();
+				break;
+			case NAME:
+				nextName();
+				skipValue();
+				break;
+			case STRING:
+			case NUMBER:
+			case BOOLEAN:
+				nextString();
+				break;
+			case NULL:
+				nextNull();
+				break;
+			default:
+				throw new IllegalStateException("Expected a value but was " + token + " at position " + position);
+		}
+	}
+
+	/**
+	 * Skip properties of the current object until the given property is found.
+	 * @param name Property name.
+	 * @return {@code true} if the property was found and its value is next, {@code false} if the object ended.
+	 */
+	public boolean find(@NotNull String name) {
+		while (hasNext()) {
+			if (name.equals(nextName())) {
+				return true;
+			}
+			skipValue();
+		}
+		return false;
+	}
+
+	private @NotNull JsonToken peekValue() {
+		char c = nextNonWhitespace();
+		switch (c) {
+			case '{':
+				return JsonToken.BEGIN_OBJECT;
+			case '[':
+				return JsonToken.BEGIN_ARRAY;
+			case '"':
+				position--;
+				return JsonToken.STRING;
+			case 't':
+			case 'f':
+				position--;
+				return JsonToken.BOOLEAN;
+			case 'n':
+				position--;
+				return JsonToken.NULL;
+			default:
+				if (c == '-' || (c >= '0' && c <= '9')) {
+					position--;
+					return JsonToken.NUMBER;
+				}
+				throw syntaxError("Expected a value");
+		}
+	}
+
+	private void expect(@NotNull JsonToken expected) {
+		JsonToken token = peek();
+		if (token != expected) {
+			throw new IllegalStateException("Expected " + expected + " but was " + token + " at position " + position);
+		}
+		peeked = null;
+	}
+
+	private void push(int scope) {
+		if (depth > MAX_DEPTH) {
+			throw syntaxError("Document nested too deeply");
+		}
+		scopes[depth++] = scope;
+	}
+
+	private @NotNull String readString() {
+		position++;
+		StringBuilder builder = null;
+		int start = position;
+		while (position < input.length()) {
+			char c = input.charAt(position++);
+			if (c == '"') {
+				if (null == builder) {
+					return input.subSequence(start, position - 1).toString();
+				}
+				return builder.append(input, start, position - 1).toString();
+			}
+			if (c == '\\') {
+				if (null == builder) {
+					builder = new StringBuilder();
+				}
+				builder.append(input, start, position - 1);
+				builder.append(readEscape());
+				start = position;
+			}
+		}
+		throw syntaxError("Unterminated string");
+	}
+
+	private char readEscape() {
+		if (position >= input.length()) {
+			throw syntaxError("Unterminated escape sequence");
+		}
+		char c = input.charAt(position++);
+		switch (c) {
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'u':
+				if (position + 4 > input.length()) {
+					throw syntaxError("Unterminated escape sequence");
+				}
+				int value = 0;
+				for (int i = 0; i < 4; i++) {
+					int digit = Character.digit(input.charAt(position++), 16);
+					if (digit < 0) {
+						throw syntaxError("Invalid unicode escape");
+					}
+					value = (value << 4) | digit;
+				}
+				return (char) value;
+			default:
+				return c;
+		}
+	}
+
+	private @NotNull String readLiteral() {
+		int start = position;
+		while (position < input.length()) {
+			char c = input.charAt(position);
+			if (c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c)) {
+				break;
+			}
+			position++;
+		}
+		String literal = input.subSequence(start, position).toString();
+		if (literal.isEmpty() || (literal.charAt(0) == 't' && !literal.equals("true")) || (literal.charAt(0) == 'f' && !literal.equals("false")) || (literal.charAt(0) == 'n' && !literal.equals("null"))) {
+			throw syntaxError("Invalid literal '" + literal + "'");
+		}
+		return literal;
+	}
+
+	private char nextNonWhitespace() {
+		position = skipWhitespace();
+		if (position >= input.length()) {
+			throw syntaxError("Unexpected end of document");
+		}
+		return input.charAt(position++);
+	}
+
+	private int skipWhitespace() {
+		int index = position;
+		while (index < input.length()) {
+			char c = input.charAt(index);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				break;
+			}
+			index++;
+		}
+		return index;
+	}
+
+	private @NotNull IllegalStateException syntaxError(@NotNull String message) {
+		return new IllegalStateException(message + " at position " + position + ".");
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.objects;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Loosely parsed semantic version.
+ * <p>
+ * Accepts any number of numeric components ({@code 1}, {@code 1.2}, {@code 1.2.3.4}), an optional leading {@code v},
+ * a pre-release suffix introduced by {@code -} or directly following the numbers ({@code 1.0-beta.2},
+ * {@code 1.0b2}) and build metadata after {@code +}, which is ignored for precedence. Missing components are treated
+ * as {@code 0}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class SemanticVersion implements Comparable<SemanticVersion> {
+
+	private static final String[] NO_IDENTIFIERS = new String[0];
+
+	private final String original;
+	private final long[] components;
+	private final String suffix;
+	private final String[] identifiers;
+	private final String build;
+
+	private SemanticVersion(@NotNull String original, long[] components, @Nullable String suffix, @Nullable String build) {
+		this.original = original;
+		this.components = components;
+		this.suffix = suffix;
+		this.identifiers = null == suffix ? NO_IDENTIFIERS : suffix.split("\\.");
+		this.build = build;
+	}
+
+	/**
+	 * Parse a version.
+	 * @param version Version.
+	 * @return Parsed version.
+	 * @throws IllegalArgumentException if the version does not start with a number.
+	 */
+	public static @NotNull SemanticVersion parse(@NotNull String version) {
+		String input = version.trim();
+		int position = 0;
+		if (position < input.length() && (input.charAt(position) == 'v' || input.charAt(position) == 'V')) {
+			position++;
+		}
+
+		long[] components = new long[3];
+		int count = 0;
+		while (true) {
+			int start = position;
+			long value = 0L;
+			while (position < input.length() && isDigit(input.charAt(position))) {
+				int digit = input.charAt(position++) - '0';
+				// Checked before multiplying, as a wrapped value is not necessarily negative.
+				if (value > (Long.MAX_VALUE - digit) / 10L) {
+					throw new IllegalArgumentException("'" + version + "' has a version component that is too large.");
+				}
+				value = value * 10L + digit;
+			}
+			if (start == position) {
+				throw new IllegalArgumentException("'" + version + "' is not a valid version.");
+			}
+
+			if (count == components.length) {
+				components = Arrays.copyOf(components, count * 2);
+			}
+			components[count++] = value;
+
+			if (position + 1 < input.length() && input.charAt(position) == '.' && isDigit(input.charAt(position + 1))) {
+				position++;
+			} else {
+				break;
+			}
+		}
+
+		String build = null;
+		int plus = input.indexOf('+', position);
+		String rest = plus < 0 ? input.substring(position) : input.substring(position, plus);
+		if (plus >= 0) {
+			build = input.substring(plus + 1);
+		}
+
+		while (!rest.isEmpty() && (rest.charAt(0) == '-' || rest.charAt(0) == '.' || rest.charAt(0) == '_')) {
+			rest = rest.substring(1);
+		}
+
+		return new SemanticVersion(version, Arrays.copyOf(components, Math.max(count, 3)), rest.isEmpty() ? null : rest, null == build || build.isEmpty() ? null : build);
+	}
+
+	/**
+	 * Get a numeric component of this version.
+	 * @param index Component index, {@code 0} being the major version.
+	 * @return Component value, {@code 0} if this version does not have that many components.
+	 */
+	public long getComponent(int index) {
+		return index < components.length ? components[index] : 0L;
+	}
+
+	public long getMajor() {
+		return components[0];
+	}
+
+	public long getMinor() {
+		return components[1];
+	}
+
+	public long getPatch() {
+		return components[2];
+	}
+
+	/**
+	 * Get the pre-release suffix of this version.
+	 * @return Suffix, or {@code null} if this is not a pre-release.
+	 */
+	public @Nullable String getSuffix() {
+		return suffix;
+	}
+
+	public @Nullable String getBuild() {
+		return build;
+	}
+
+	public boolean isPreRelease() {
+		return null != suffix;
+	}
+
+	/**
+	 * Get the index of the first numeric component that differs from another version.
+	 * @param other Other version.
+	 * @return Component index, or {@code -1} if all numeric components are equal.
+	 */
+	public int diff(@NotNull SemanticVersion other) {
+		int length = Math.max(components.length, other.components.length);
+		for (int i = 0; i < length; i++) {
+			if (getComponent(i) != other.getComponent(i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int compareTo(@NotNull SemanticVersion other) {
+		int index = diff(other);
+		if (index >= 0) {
+			return Long.compare(getComponent(index), other.getComponent(index));
+		}
+
+		// A release takes precedence over its pre-releases.
+		if (null == suffix || null == other.suffix) {
+			return null == suffix ? (null == other.suffix ? 0 : 1) : -1;
+		}
+
+		int length = Math.min(identifiers.length, other.identifiers.length);
+		for (int i = 0; i < length; i++) {
+			int result = compareIdentifiers(identifiers[i], other.identifiers[i]);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return Integer.compare(identifiers.length, other.identifiers.length);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return this == o || (o instanceof SemanticVersion && compareTo((SemanticVersion) o) == 0);
+	}
+
+	@Override
+	public int hashCode() {
+		int length = components.length;
+		while (length > 0 && components[length - 1] == 0L) {
+			length--;
+		}
+		int hash = Arrays.hashCode(Arrays.copyOf(components, length));
+		// Identifiers are hashed the way compareIdentifiers equates them, without leading zeros and ignoring case.
+		for (String identifier : identifiers) {
+			String normalized = isNumeric(identifier) ? stripLeadingZeros(identifier) : identifier;
+			int identifierHash = 1;
+			for (int i = 0; i < normalized.length(); i++) {
+				identifierHash = 31 * identifierHash + Character.toLowerCase(Character.toUpperCase(normalized.charAt(i)));
+			}
+			hash = 31 * hash + identifierHash;
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return original;
+	}
+
+	private static int compareIdentifiers(@NotNull String a, @NotNull String b) {
+		boolean numericA = isNumeric(a);
+		boolean numericB = isNumeric(b);
+		if (numericA && numericB) {
+			String trimmedA = stripLeadingZeros(a);
+			String trimmedB = stripLeadingZeros(b);
+			int result = Integer.compare(trimmedA.length(), trimmedB.length());
+			return result != 0 ? result : trimmedA.compareTo(trimmedB);
+		}
+		if (numericA != numericB) {
+			return numericA ? -1 : 1;
+		}
+		return a.compareToIgnoreCase(b);
+	}
+
+	private static @NotNull String stripLeadingZeros(@NotNull String identifier) {
+		int index = 0;
+		while (index < identifier.length() - 1 && identifier.charAt(index) == '0') {
+			index++;
+		}
+		return identifier.substring(index);
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isNumeric(@NotNull String identifier) {
+		if (identifier.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < identifier.length(); i++) {
+			if (!Character.isDigit(identifier.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
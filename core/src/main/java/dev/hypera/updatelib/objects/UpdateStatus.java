@@ -23,6 +23,7 @@
 
 package dev.hypera.updatelib.objects;
 
+import dev.hypera.updatelib.objects.enums.FailureReason;
 import dev.hypera.updatelib.objects.enums.Status;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -39,11 +40,33 @@ public class UpdateStatus {
 	private final String currentVersion;
 	private final String distributedVersion;
 	private final Status status;
+	private final FailureReason failureReason;
+	private final int httpStatus;
+	private final String failureMessage;
 
 	public UpdateStatus(@Nullable String currentVersion, @Nullable String distributedVersion, @NotNull Status status) {
+		this(currentVersion, distributedVersion, status, null, -1, null);
+	}
+
+	private UpdateStatus(@Nullable String currentVersion, @Nullable String distributedVersion, @NotNull Status status, @Nullable FailureReason failureReason, int httpStatus, @Nullable String failureMessage) {
 		this.currentVersion = currentVersion;
 		this.distributedVersion = distributedVersion;
 		this.status = status;
+		this.failureReason = failureReason;
+		this.httpStatus = httpStatus;
+		this.failureMessage = failureMessage;
+	}
+
+	/**
+	 * Create a status for a failed update check.
+	 * @param currentVersion Current version.
+	 * @param failureReason Reason the check failed.
+	 * @param httpStatus Http status code the check failed with, or {@code -1}.
+	 * @param failureMessage Failure message.
+	 * @return Failed update status.
+	 */
+	public static @NotNull UpdateStatus failed(@Nullable String currentVersion, @NotNull FailureReason failureReason, int httpStatus, @Nullable String failureMessage) {
+		return new UpdateStatus(currentVersion, null, Status.UNAVAILABLE, failureReason, httpStatus, failureMessage);
 	}
 
 	public @Nullable String getCurrentVersion() {
@@ -62,4 +85,20 @@ public class UpdateStatus {
 		return status.isAvailable();
 	}
 
+	public boolean isFailed() {
+		return null != failureReason;
+	}
+
+	public @Nullable FailureReason getFailureReason() {
+		return failureReason;
+	}
+
+	public int getHttpStatus() {
+		return httpStatus;
+	}
+
+	public @Nullable String getFailureMessage() {
+		return failureMessage;
+	}
+
 }
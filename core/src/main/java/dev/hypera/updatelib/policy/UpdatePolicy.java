@@ -0,0 +1,390 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.policy;
+
+import dev.hypera.updatelib.objects.SemanticVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Update policy, decides whether an available update should be reported.
+ * <p>
+ * Policies are compiled once from an expression into a predicate tree, evaluating a version does not parse the
+ * expression again. An expression is made of terms combined with {@code &&} (or just whitespace), {@code ||},
+ * {@code !} and parentheses:
+ * <ul>
+ *     <li>{@code >=4.0}, {@code >4}, {@code <=4.2.1}, {@code <5}, {@code =4.1.0}, {@code !=4.1.0} - version ranges.</li>
+ *     <li>{@code 4.x}, {@code 4.1.*} - versions within a release line.</li>
+ *     <li>{@code ~4.1.2} - versions within 4.1.x, at least 4.1.2. {@code ^4.1} - versions within 4.x, at least 4.1.</li>
+ *     <li>{@code release}, {@code prerelease}, {@code channel:beta} - release channels, matched against the
+ *     pre-release suffix.</li>
+ *     <li>{@code update:major}, {@code update:minor}, {@code update:patch} - the kind of update compared to the
+ *     current version.</li>
+ *     <li>{@code *-SNAPSHOT}, {@code "1.0 *"} - glob patterns matched against the whole version.</li>
+ * </ul>
+ * For example {@code "4.x && update:patch && !prerelease"} only reports stable patch updates within 4.x, and
+ * {@code "!*-SNAPSHOT"} ignores snapshot builds.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class UpdatePolicy {
+
+	private final String expression;
+	private final Node root;
+
+	private UpdatePolicy(@NotNull String expression, @NotNull Node root) {
+		this.expression = expression;
+		this.root = root;
+	}
+
+	/**
+	 * Compile a policy expression.
+	 * @param expression Policy expression.
+	 * @return Compiled policy.
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 */
+	public static @NotNull UpdatePolicy compile(@NotNull String expression) {
+		return new UpdatePolicy(expression, new Parser(expression).parse());
+	}
+
+	/**
+	 * Check whether an update to the given version is allowed by this policy.
+	 * @param currentVersion Current version.
+	 * @param distributedVersion Distributed version.
+	 * @return {@code true} if the update should be reported.
+	 */
+	public boolean allows(@NotNull String currentVersion, @NotNull String distributedVersion) {
+		return allows(currentVersion, tryParse(currentVersion), distributedVersion, tryParse(distributedVersion));
+	}
+
+	/**
+	 * Check whether an update to the given version is allowed by this policy, using already parsed versions.
+	 * @param currentVersion Current version.
+	 * @param current Parsed current version, or {@code null} if it is not a semantic version.
+	 * @param distributedVersion Distributed version.
+	 * @param distributed Parsed distributed version, or {@code null} if it is not a semantic version.
+	 * @return {@code true} if the update should be reported.
+	 */
+	public boolean allows(@NotNull String currentVersion, @Nullable SemanticVersion current, @NotNull String distributedVersion, @Nullable SemanticVersion distributed) {
+		return root.test(current, distributedVersion, distributed);
+	}
+
+	/**
+	 * Parse a version, returning {@code null} instead of failing if it is not a semantic version.
+	 * @param version Version.
+	 * @return Parsed version, or {@code null}.
+	 */
+	public static @Nullable SemanticVersion tryParse(@NotNull String version) {
+		try {
+			return SemanticVersion.parse(version);
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return expression;
+	}
+
+	private interface Node {
+
+		boolean test(@Nullable SemanticVersion current, @NotNull String version, @Nullable SemanticVersion parsed);
+
+	}
+
+	private static class Parser {
+
+		private final String expression;
+		private final List<String> tokens = new ArrayList<>();
+		private int index = 0;
+
+		private Parser(@NotNull String expression) {
+			this.expression = expression;
+			tokenize();
+		}
+
+		private @NotNull Node parse() {
+			if (tokens.isEmpty()) {
+				throw error("Policy expression is empty");
+			}
+			Node node = parseOr();
+			if (index < tokens.size()) {
+				throw error("Unexpected '" + tokens.get(index) + "'");
+			}
+			return node;
+		}
+
+		private @NotNull Node parseOr() {
+			Node left = parseAnd();
+			while (accept("||")) {
+				Node a = left;
+				Node b = parseAnd();
+				left = (current, version, parsed) -> a.test(current, version, parsed) || b.test(current, version, parsed);
+			}
+			return left;
+		}
+
+		private @NotNull Node parseAnd() {
+			Node left = parseUnary();
+			while (index < tokens.size() && !tokens.get(index).equals("||") && !tokens.get(index).equals(")")) {
+				accept("&&");
+				Node a = left;
+				Node b = parseUnary();
+				left = (current, version, parsed) -> a.test(current, version, parsed) && b.test(current, version, parsed);
+			}
+			return left;
+		}
+
+		private @NotNull Node parseUnary() {
+			if (accept("!")) {
+				Node node = parseUnary();
+				return (current, version, parsed) -> !node.test(current, version, parsed);
+			}
+			if (accept("(")) {
+				Node node = parseOr();
+				if (!accept(")")) {
+					throw error("Expected ')'");
+				}
+				return node;
+			}
+			if (index >= tokens.size()) {
+				throw error("Unexpected end of expression");
+			}
+			return parseTerm(tokens.get(index++));
+		}
+
+		private @NotNull Node parseTerm(@NotNull String token) {
+			if (token.startsWith("\"")) {
+				return glob(token.substring(1, token.length() - 1));
+			}
+
+			String lower = token.toLowerCase(Locale.ROOT);
+			switch (lower) {
+				case "release":
+				case "stable":
+					return (current, version, parsed) -> null != parsed && !parsed.isPreRelease();
+				case "prerelease":
+					return (current, version, parsed) -> null != parsed && parsed.isPreRelease();
+				case "update:major":
+					return update(0, 0);
+				case "update:minor":
+					return update(1, 1);
+				case "update:patch":
+					return update(2, Integer.MAX_VALUE);
+				default:
+					break;
+			}
+
+			if (lower.startsWith("channel:")) {
+				String channel = lower.substring("channel:".length());
+				if (channel.equals("release") || channel.equals("stable")) {
+					return (current, version, parsed) -> null != parsed && !parsed.isPreRelease();
+				}
+				return (current, version, parsed) -> null != parsed && parsed.isPreRelease() && parsed.getSuffix().toLowerCase(Locale.ROOT).startsWith(channel);
+			}
+
+			for (String operator : new String[] { ">=", "<=", "!=", "==", ">", "<", "=", "~", "^" }) {
+				if (token.startsWith(operator)) {
+					String operand = token.substring(operator.length());
+					if (operand.isEmpty()) {
+						if (index >= tokens.size()) {
+							throw error("Expected a version after '" + operator + "'");
+						}
+						operand = tokens.get(index++);
+					}
+					return comparison(operator, parseVersion(operand));
+				}
+			}
+
+			if (isWildcardVersion(token)) {
+				return prefix(token);
+			}
+			if (token.contains("*") || token.contains("?")) {
+				return glob(token);
+			}
+			if (Character.isDigit(token.charAt(0))) {
+				SemanticVersion target = parseVersion(token);
+				return (current, version, parsed) -> null != parsed && parsed.compareTo(target) == 0;
+			}
+
+			throw error("Unknown term '" + token + "'");
+		}
+
+		private @NotNull Node comparison(@NotNull String operator, @NotNull SemanticVersion target) {
+			switch (operator) {
+				case ">=":
+					return (current, version, parsed) -> null != parsed && parsed.compareTo(target) >= 0;
+				case "<=":
+					return (current, version, parsed) -> null != parsed && parsed.compareTo(target) <= 0;
+				case ">":
+					return (current, version, parsed) -> null != parsed && parsed.compareTo(target) > 0;
+				case "<":
+					return (current, version, parsed) -> null != parsed && parsed.compareTo(target) < 0;
+				case "!=":
+					return (current, version, parsed) -> null == parsed || parsed.compareTo(target) != 0;
+				case "~":
+					return (current, version, parsed) -> null != parsed && parsed.compareTo(target) >= 0 && parsed.getMajor() == target.getMajor() && parsed.getMinor() == target.getMinor();
+				case "^":
+					return (current, version, parsed) -> null != parsed && parsed.compareTo(target) >= 0 && parsed.getMajor() == target.getMajor();
+				default:
+					return (current, version, parsed) -> null != parsed && parsed.compareTo(target) == 0;
+			}
+		}
+
+		private @NotNull Node update(int from, int to) {
+			return (current, version, parsed) -> {
+				if (null == current || null == parsed) {
+					return false;
+				}
+				int diff = parsed.diff(current);
+				// Versions that only differ in their pre-release suffix count as patch updates.
+				if (diff < 0) {
+					diff = 2;
+				}
+				return diff >= from && diff <= to;
+			};
+		}
+
+		private @NotNull Node prefix(@NotNull String token) {
+			String[] parts = token.split("\\.");
+			int length = 0;
+			while (length < parts.length && !isWildcard(parts[length])) {
+				length++;
+			}
+			long[] components = new long[length];
+			for (int i = 0; i < length; i++) {
+				components[i] = Long.parseLong(parts[i]);
+			}
+			return (current, version, parsed) -> {
+				if (null == parsed) {
+					return false;
+				}
+				for (int i = 0; i < components.length; i++) {
+					if (parsed.getComponent(i) != components[i]) {
+						return false;
+					}
+				}
+				return true;
+			};
+		}
+
+		private @NotNull Node glob(@NotNull String glob) {
+			StringBuilder regex = new StringBuilder();
+			for (char c : glob.toCharArray()) {
+				if (c == '*') {
+					regex.append(".*");
+				} else if (c == '?') {
+					regex.append('.');
+				} else {
+					regex.append(Pattern.quote(String.valueOf(c)));
+				}
+			}
+			Pattern pattern = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+			return (current, version, parsed) -> pattern.matcher(version).matches();
+		}
+
+		private @NotNull SemanticVersion parseVersion(@NotNull String version) {
+			try {
+				return SemanticVersion.parse(version);
+			} catch (IllegalArgumentException ex) {
+				throw error("Invalid version '" + version + "'");
+			}
+		}
+
+		private boolean isWildcardVersion(@NotNull String token) {
+			String[] parts = token.split("\\.", -1);
+			if (parts.length < 2 || !isWildcard(parts[parts.length - 1])) {
+				return false;
+			}
+			boolean wildcard = false;
+			for (String part : parts) {
+				if (isWildcard(part)) {
+					wildcard = true;
+				} else if (wildcard || part.isEmpty() || !part.chars().allMatch(Character::isDigit)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean isWildcard(@NotNull String part) {
+			return part.equals("x") || part.equals("X") || part.equals("*");
+		}
+
+		private boolean accept(@NotNull String token) {
+			if (index < tokens.size() && tokens.get(index).equals(token)) {
+				index++;
+				return true;
+			}
+			return false;
+		}
+
+		private void tokenize() {
+			int position = 0;
+			while (position < expression.length()) {
+				char c = expression.charAt(position);
+				if (Character.isWhitespace(c) || c == ',') {
+					position++;
+				} else if (c == '(' || c == ')') {
+					tokens.add(String.valueOf(c));
+					position++;
+				} else if (expression.startsWith("&&", position) || expression.startsWith("||", position)) {
+					tokens.add(expression.substring(position, position + 2));
+					position += 2;
+				} else if (c == '!' && !expression.startsWith("!=", position)) {
+					tokens.add("!");
+					position++;
+				} else if (c == '"') {
+					int end = expression.indexOf('"', position + 1);
+					if (end < 0) {
+						throw error("Unterminated quote");
+					}
+					tokens.add(expression.substring(position, end + 1));
+					position = end + 1;
+				} else {
+					int start = position;
+					while (position < expression.length()) {
+						char next = expression.charAt(position);
+						if (Character.isWhitespace(next) || next == ',' || next == '(' || next == ')' || expression.startsWith("&&", position) || expression.startsWith("||", position)) {
+							break;
+						}
+						position++;
+					}
+					tokens.add(expression.substring(start, position));
+				}
+			}
+		}
+
+		private @NotNull IllegalArgumentException error(@NotNull String message) {
+			return new IllegalArgumentException(message + " in policy '" + expression + "'.");
+		}
+
+	}
+
+}
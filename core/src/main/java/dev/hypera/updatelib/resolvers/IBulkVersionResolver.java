@@ -0,0 +1,43 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import java.util.Collection;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+public interface IBulkVersionResolver extends IVersionResolver {
+
+	/**
+	 * Get the current versions of multiple resources, using as few requests as the API allows.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceIds Resource identifiers.
+	 * @return Current distributed versions, keyed by resource identifier. Resources that could not be found are omitted.
+	 * @throws VersionResolveFailureException if something went wrong while getting the versions.
+	 */
+	@NotNull Map<Long, String> getVersions(@NotNull UpdateLib updateLib, @NotNull Collection<Long> resourceIds) throws VersionResolveFailureException;
+
+}
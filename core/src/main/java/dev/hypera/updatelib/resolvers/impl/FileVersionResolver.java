@@ -0,0 +1,96 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * File version resolver, reads the latest version of a resource from a plain text file in a local directory.
+ * <p>
+ * Meant for hosts where a deploy agent drops version files into a shared directory. Combine it with a
+ * {@link dev.hypera.updatelib.triggers.FileWatchTrigger} to check as soon as a file changes instead of polling.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class FileVersionResolver implements IVersionResolver {
+
+	private static final String DEFAULT_FILE_NAME_FORMAT = "%s.version";
+
+	private final Path directory;
+	private final String fileNameFormat;
+
+	public FileVersionResolver(@NotNull Path directory) {
+		this(directory, DEFAULT_FILE_NAME_FORMAT);
+	}
+
+	/**
+	 * Create a new file version resolver.
+	 * @param directory Directory containing the version files.
+	 * @param fileNameFormat Version file name, {@code %s} is replaced with the resource identifier.
+	 */
+	public FileVersionResolver(@NotNull Path directory, @NotNull String fileNameFormat) {
+		this.directory = directory;
+		this.fileNameFormat = fileNameFormat;
+	}
+
+	/**
+	 * Get the version file of a resource.
+	 * @param resourceId Resource identifier.
+	 * @return Version file.
+	 */
+	public @NotNull Path getPath(long resourceId) {
+		return directory.resolve(String.format(fileNameFormat, resourceId));
+	}
+
+	/**
+	 * Get the current version of a resource from its version file.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if something went wrong while getting the version.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		try {
+			String version = new String(Files.readAllBytes(getPath(resourceId)), StandardCharsets.UTF_8).trim();
+			if (version.isEmpty()) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, "Version file of resource " + resourceId + " is empty.");
+			}
+			return version;
+		} catch (NoSuchFileException ex) {
+			throw new VersionResolveFailureException(FailureReason.INVALID_RESOURCE, "Version file of resource " + resourceId + " does not exist.");
+		} catch (Exception ex) {
+			throw VersionResolveFailureException.wrap(ex);
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.BodyCompletion;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.json.JsonPath;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Declarative version resolver, getting the version from a JSON API described by a url template, a {@link JsonPath}
+ * to the version and error rules. Created with {@link JsonVersionResolverBuilder}, for example:
+ * <pre>
+ * JsonVersionResolver.builder()
+ *     .url("https://api.example.com/v1/resources/{id}")
+ *     .version("$.latest.version")
+ *     .errorStatus(404, FailureReason.INVALID_RESOURCE)
+ *     .errorWhen("$.success", value -&gt; !"true".equals(value), FailureReason.INVALID_RESOURCE)
+ *     .build();
+ * </pre>
+ * Requests are sent with the shared transport and stop reading once the version and every value checked by an error
+ * rule have arrived, the same as the built-in resolvers.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class JsonVersionResolver implements IVersionResolver {
+
+	private final String name;
+	private final String[] urlParts;
+	private final Map<String, String> headers;
+	private final JsonPath versionPath;
+	private final List<ErrorRule> errorRules;
+	private final BodyCompletion completion;
+
+	JsonVersionResolver(@NotNull String name, @NotNull String[] urlParts, @NotNull Map<String, String> headers, @NotNull JsonPath versionPath, @NotNull List<ErrorRule> errorRules, @NotNull BodyCompletion completion) {
+		this.name = name;
+		this.urlParts = urlParts;
+		this.headers = headers;
+		this.versionPath = versionPath;
+		this.errorRules = errorRules;
+		this.completion = completion;
+	}
+
+	/**
+	 * Create a new {@link JsonVersionResolverBuilder} instance.
+	 * @return New {@link JsonVersionResolverBuilder} instance.
+	 */
+	public static @NotNull JsonVersionResolverBuilder builder() {
+		return JsonVersionResolverBuilder.create();
+	}
+
+	/**
+	 * Get the current version of a resource.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if something went wrong while getting the version.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		try {
+			HttpResponse response = HttpTransport.get(updateLib, getUrl(resourceId), headers, completion);
+			for (ErrorRule rule : errorRules) {
+				if (rule.predicate.test(response)) {
+					throw new VersionResolveFailureException(rule.reason, rule.message);
+				}
+			}
+			if (response.getStatusCode() != 200) {
+				throw new VersionResolveFailureException(response.getStatusCode(), name + "'s API did not respond with a 200 status code.");
+			}
+
+			String version = versionPath.select(response.getBody());
+			if (null == version) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, name + "'s API response did not contain a version at '" + versionPath + "'.");
+			}
+
+			return version;
+		} catch (Exception ex) {
+			throw VersionResolveFailureException.wrap(ex);
+		}
+	}
+
+	/**
+	 * Get the url requested for a resource.
+	 * @param resourceId Resource identifier.
+	 * @return Request url.
+	 */
+	public @NotNull String getUrl(long resourceId) {
+		StringBuilder builder = new StringBuilder(urlParts[0]);
+		for (int i = 1; i < urlParts.length; i++) {
+			builder.append(resourceId).append(urlParts[i]);
+		}
+		return builder.toString();
+	}
+
+	static final class ErrorRule {
+
+		private final Predicate<HttpResponse> predicate;
+		private final FailureReason reason;
+		private final String message;
+
+		ErrorRule(@NotNull Predicate<HttpResponse> predicate, @NotNull FailureReason reason, @NotNull String message) {
+			this.predicate = predicate;
+			this.reason = reason;
+			this.message = message;
+		}
+
+		@NotNull ErrorRule named(@NotNull String name) {
+			return new ErrorRule(predicate, reason, message.replace("%s", name));
+		}
+
+	}
+
+}
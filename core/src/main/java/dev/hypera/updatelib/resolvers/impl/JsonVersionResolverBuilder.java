@@ -0,0 +1,175 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.http.BodyCompletion;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.json.JsonPath;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * JsonVersionResolver builder
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class JsonVersionResolverBuilder {
+
+	private static final String ID_PLACEHOLDER = "{id}";
+
+	private String urlTemplate = null;
+	private String name = null;
+	private JsonPath versionPath = null;
+	private final Map<String, String> headers = new LinkedHashMap<>();
+	private final List<JsonVersionResolver.ErrorRule> errorRules = new ArrayList<>();
+	private BodyCompletion completion = null;
+
+	/**
+	 * Creates a new {@link JsonVersionResolverBuilder} instance.
+	 * @return New {@link JsonVersionResolverBuilder} instance.
+	 */
+	public static @NotNull JsonVersionResolverBuilder create() {
+		return new JsonVersionResolverBuilder();
+	}
+
+	/**
+	 * Sets the url template. (required)
+	 * @param urlTemplate Url, with every {@code {id}} replaced by the resource identifier.
+	 * @return Current {@link JsonVersionResolverBuilder} instance.
+	 */
+	public @NotNull JsonVersionResolverBuilder url(@NotNull String urlTemplate) {
+		this.urlTemplate = urlTemplate;
+		return this;
+	}
+
+	/**
+	 * Sets the name of the API used in failure messages, defaults to the url's host.
+	 * @param name API name.
+	 * @return Current {@link JsonVersionResolverBuilder} instance.
+	 */
+	public @NotNull JsonVersionResolverBuilder name(@NotNull String name) {
+		this.name = name;
+		return this;
+	}
+
+	/**
+	 * Sets the path to the version. (required)
+	 * @param path Path expression, see {@link JsonPath}.
+	 * @return Current {@link JsonVersionResolverBuilder} instance.
+	 * @throws IllegalArgumentException if the path expression is invalid.
+	 */
+	public @NotNull JsonVersionResolverBuilder version(@NotNull String path) {
+		this.versionPath = JsonPath.compile(path);
+		return this;
+	}
+
+	/**
+	 * Adds a request header.
+	 * @param name Header name.
+	 * @param value Header value.
+	 * @return Current {@link JsonVersionResolverBuilder} instance.
+	 */
+	public @NotNull JsonVersionResolverBuilder header(@NotNull String name, @NotNull String value) {
+		this.headers.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Fail with a reason when the API responds with a status code, for example {@code 404} with
+	 * {@link FailureReason#INVALID_RESOURCE}. Other status codes than {@code 200} fail with
+	 * {@link FailureReason#HTTP_STATUS}.
+	 * @param statusCode Http status code.
+	 * @param reason Failure reason.
+	 * @return Current {@link JsonVersionResolverBuilder} instance.
+	 */
+	public @NotNull JsonVersionResolverBuilder errorStatus(int statusCode, @NotNull FailureReason reason) {
+		return errorWhen(response -> response.getStatusCode() == statusCode, reason, "%s's API responded with a " + statusCode + " status code.");
+	}
+
+	/**
+	 * Fail with a reason when a value of a successful response matches a predicate, for example when a
+	 * {@code success} property is not {@code true}.
+	 * @param path Path expression of the value, see {@link JsonPath}.
+	 * @param predicate Predicate, given the value or {@code null} if the response does not contain it.
+	 * @param reason Failure reason.
+	 * @return Current {@link JsonVersionResolverBuilder} instance.
+	 * @throws IllegalArgumentException if the path expression is invalid.
+	 */
+	public @NotNull JsonVersionResolverBuilder errorWhen(@NotNull String path, @NotNull Predicate<String> predicate, @NotNull FailureReason reason) {
+		JsonPath compiled = JsonPath.compile(path);
+		BodyCompletion valueCompletion = BodyCompletion.json(compiled.getSegments());
+		this.completion = null == completion ? valueCompletion : completion.and(valueCompletion);
+		return errorWhen(response -> response.getStatusCode() >= 200 && response.getStatusCode() < 300 && predicate.test(compiled.select(response.getBody())), reason, "%s's API responded with an error at '" + compiled + "'.");
+	}
+
+	/**
+	 * Fail with a reason when a response matches a predicate.
+	 * @param predicate Predicate.
+	 * @param reason Failure reason.
+	 * @param message Failure message, {@code %s} is replaced by the API name.
+	 * @return Current {@link JsonVersionResolverBuilder} instance.
+	 */
+	public @NotNull JsonVersionResolverBuilder errorWhen(@NotNull Predicate<HttpResponse> predicate, @NotNull FailureReason reason, @NotNull String message) {
+		this.errorRules.add(new JsonVersionResolver.ErrorRule(predicate, reason, message));
+		return this;
+	}
+
+	/**
+	 * Builds a new {@link JsonVersionResolver} instance using the provided settings.
+	 * @return New {@link JsonVersionResolver} instance.
+	 * @throws IllegalStateException if the url template or version path are not provided.
+	 */
+	public @NotNull JsonVersionResolver build() {
+		if (null == urlTemplate || null == versionPath) {
+			throw new IllegalStateException("url and version cannot be null.");
+		}
+
+		String apiName = null == name ? host(urlTemplate) : name;
+		List<JsonVersionResolver.ErrorRule> rules = new ArrayList<>();
+		for (JsonVersionResolver.ErrorRule rule : errorRules) {
+			rules.add(rule.named(apiName));
+		}
+
+		BodyCompletion versionCompletion = BodyCompletion.json(versionPath.getSegments());
+		return new JsonVersionResolver(apiName, urlTemplate.split(Pattern.quote(ID_PLACEHOLDER), -1), Collections.unmodifiableMap(new LinkedHashMap<>(headers)), versionPath, Collections.unmodifiableList(rules), null == completion ? versionCompletion : versionCompletion.and(completion));
+	}
+
+	private static @NotNull String host(@NotNull String urlTemplate) {
+		try {
+			String host = URI.create(urlTemplate.replace(ID_PLACEHOLDER, "0")).getHost();
+			return null == host ? urlTemplate : host;
+		} catch (IllegalArgumentException ex) {
+			return urlTemplate;
+		}
+	}
+
+}
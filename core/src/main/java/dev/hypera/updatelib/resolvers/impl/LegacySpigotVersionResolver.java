@@ -0,0 +1,134 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Spigot version resolver, uses the legacy SpigotMC API to get the latest version of a resource.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class LegacySpigotVersionResolver implements IVersionResolver {
+
+	private static final String DEFAULT_BASE_URL = "https://api.spigotmc.org";
+	private static final String URL_FORMAT = "%s/legacy/update.php?resource=%s";
+	private static final byte[] INVALID = { 'I', 'n', 'v', 'a', 'l', 'i', 'd' };
+	private static final int MAX_VERSION_LENGTH = 256;
+
+	private final String baseUrl;
+
+	public LegacySpigotVersionResolver() {
+		this(DEFAULT_BASE_URL);
+	}
+
+	/**
+	 * Create a new legacy Spigot version resolver using a different API host.
+	 * @param baseUrl SpigotMC legacy API base url, without a trailing slash, for example a mirror or test server.
+	 */
+	public LegacySpigotVersionResolver(@NotNull String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	/**
+	 * Get the current version of a SpigotMC resource.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if something went wrong while getting the version.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		try {
+			HttpResponse response = HttpTransport.get(updateLib, String.format(URL_FORMAT, baseUrl, resourceId));
+			if (response.getStatusCode() != 200) {
+				throw new VersionResolveFailureException(response.getStatusCode(), "SpigotMC's legacy API did not respond with a 200 status code.");
+			}
+
+			byte[] body = response.getBodyBytes();
+			return parseVersion(body, body.length);
+		} catch (Exception ex) {
+			throw VersionResolveFailureException.wrap(ex);
+		}
+	}
+
+	/**
+	 * Parse a legacy API response without decoding it first. Surrounding whitespace is skipped in place, the error
+	 * sentinel is detected by prefix and the version string is the only allocation.
+	 * @param body Response body.
+	 * @param length Amount of bytes in the body.
+	 * @return Version.
+	 * @throws VersionResolveFailureException if the response is an error or does not look like a version.
+	 */
+	@Internal
+	public static @NotNull String parseVersion(byte @NotNull [] body, int length) throws VersionResolveFailureException {
+		int start = 0;
+		int end = length;
+		while (start < end && isWhitespace(body[start])) {
+			start++;
+		}
+		while (end > start && isWhitespace(body[end - 1])) {
+			end--;
+		}
+
+		if (startsWith(body, start, end, INVALID)) {
+			throw new VersionResolveFailureException(FailureReason.INVALID_RESOURCE, "SpigotMC's legacy API responded with an invalid resource error.");
+		}
+		if (start == end || end - start > MAX_VERSION_LENGTH || body[start] == '<') {
+			throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, "SpigotMC's legacy API did not respond with a version.");
+		}
+		for (int i = start; i < end; i++) {
+			if ((body[i] & 0xFF) < 0x20 || body[i] == 0x7F) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, "SpigotMC's legacy API did not respond with a version.");
+			}
+		}
+
+		return new String(body, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+	}
+
+	private static boolean startsWith(byte @NotNull [] body, int start, int end, byte @NotNull [] prefix) {
+		if (end - start < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (body[start + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
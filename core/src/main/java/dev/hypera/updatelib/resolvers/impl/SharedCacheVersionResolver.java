@@ -0,0 +1,162 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.cache.SharedVersionCache;
+import dev.hypera.updatelib.cache.SharedVersionCache.Entry;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.RequestContext;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Shared cache version resolver, serves versions from a {@link SharedVersionCache} shared by every JVM on the host and
+ * only asks the wrapped resolver when the cached version is stale.
+ * <p>
+ * The JVM holding the poller lease keeps refreshing every entry it resolved shortly before it expires, for as long as
+ * the {@link UpdateLib} instance that first asked for it is open. Entries it does not refresh, such as those only
+ * other JVMs ask for, are resolved again by whichever JVM next finds them past their time to live. Refreshes run on
+ * the check executor, so a slow host only holds up its own refreshes.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class SharedCacheVersionResolver implements IVersionResolver {
+
+	private static final int REFRESH_PERCENT = 90;
+	private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+	private static final ScheduledExecutorService REFRESHER = refresher();
+
+	private final IVersionResolver resolver;
+	private final SharedVersionCache cache;
+	private final long resolverKey;
+	private final long timeToLive;
+	private final Map<Long, WeakReference<UpdateLib>> refreshing = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new shared cache version resolver.
+	 * @param resolver Wrapped version resolver.
+	 * @param cache Shared version cache.
+	 * @param key Key identifying the wrapped resolver and its configuration, such as its base url. Must be the same in
+	 *            every JVM sharing the cache, and differ between resolvers that may resolve different versions for the
+	 *            same resource identifier.
+	 * @param timeToLive Time a cached version is considered fresh.
+	 * @param unit Time unit.
+	 */
+	public SharedCacheVersionResolver(@NotNull IVersionResolver resolver, @NotNull SharedVersionCache cache, @NotNull String key, long timeToLive, @NotNull TimeUnit unit) {
+		if (timeToLive <= 0L) {
+			throw new IllegalArgumentException("timeToLive must be greater than 0.");
+		}
+		this.resolver = resolver;
+		this.cache = cache;
+		this.resolverKey = SharedVersionCache.key(key);
+		this.timeToLive = unit.toMillis(timeToLive);
+	}
+
+	/**
+	 * Get the current version of a resource, using the shared cache where possible.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if something went wrong while getting the version.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		long now = Instant.now().toEpochMilli();
+		Entry entry = cache.get(resolverKey, resourceId);
+		// The poller refreshes its entries before they expire, so an expired entry is one nobody is refreshing.
+		if (null != entry && now - entry.getUpdated() < timeToLive) {
+			return entry.getVersion();
+		}
+
+		String version = resolve(updateLib, resourceId, now);
+		if (cache.acquireLease() && null == refreshing.put(resourceId, new WeakReference<>(updateLib))) {
+			scheduleRefresh(new WeakReference<>(this), resourceId);
+		}
+		return version;
+	}
+
+	private @NotNull String resolve(@NotNull UpdateLib updateLib, long resourceId, long now) throws VersionResolveFailureException {
+		String version = resolver.getVersion(updateLib, resourceId);
+		try {
+			cache.put(resolverKey, resourceId, version, now);
+			cache.renewLease();
+		} catch (IOException ignored) {
+			// The resolved version is still valid, it just won't be shared with other JVMs.
+		}
+		return version;
+	}
+
+	private void refresh(long resourceId) {
+		WeakReference<UpdateLib> reference = refreshing.get(resourceId);
+		UpdateLib updateLib = null == reference ? null : reference.get();
+		if (null == updateLib || updateLib.isClosed() || !cache.isPoller()) {
+			refreshing.remove(resourceId);
+			return;
+		}
+
+		RequestContext context = new RequestContext(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(updateLib.getTotalTimeout()));
+		context.run(() -> {
+			try {
+				resolve(updateLib, resourceId, Instant.now().toEpochMilli());
+			} catch (VersionResolveFailureException | RuntimeException ignored) {
+				// Whichever JVM next finds the entry expired resolves the version itself.
+			}
+		});
+		scheduleRefresh(new WeakReference<>(this), resourceId);
+	}
+
+	private void scheduleRefresh(@NotNull WeakReference<SharedCacheVersionResolver> self, long resourceId) {
+		// Only the resolver is held, weakly, so a pending refresh does not keep an abandoned resolver reachable. The
+		// refresher only schedules, refreshes run on the check executor so a slow host does not delay the others.
+		REFRESHER.schedule(() -> UpdateLib.getCheckExecutor().execute(() -> {
+			SharedCacheVersionResolver resolver = self.get();
+			if (null != resolver) {
+				resolver.refresh(resourceId);
+			}
+		}), timeToLive * REFRESH_PERCENT / 100L, TimeUnit.MILLISECONDS);
+	}
+
+	private static @NotNull ScheduledExecutorService refresher() {
+		ScheduledThreadPoolExecutor refresher = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "UpdateLib-SharedCache-Refresher");
+			thread.setDaemon(true);
+			thread.setContextClassLoader(null);
+			return thread;
+		});
+		refresher.setRemoveOnCancelPolicy(true);
+		refresher.setKeepAliveTime(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+		refresher.allowCoreThreadTimeOut(true);
+		return refresher;
+	}
+
+}
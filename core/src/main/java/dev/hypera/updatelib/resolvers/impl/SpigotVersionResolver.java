@@ -26,15 +26,14 @@ package dev.hypera.updatelib.resolvers.impl;
 import dev.hypera.updatelib.UpdateLib;
 import dev.hypera.updatelib.annotations.Unstable;
 import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.BodyCompletion;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.json.JsonReader;
+import dev.hypera.updatelib.objects.enums.FailureReason;
 import dev.hypera.updatelib.resolvers.IVersionResolver;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.stream.Collectors;
-import javax.net.ssl.HttpsURLConnection;
+import java.util.Collections;
 import org.jetbrains.annotations.NotNull;
-import org.json.simple.JSONObject;
-import org.json.simple.JSONValue;
 
 /**
  * Spigot version resolver, uses the new SpigotMC API to get the latest version of a resource.
@@ -44,7 +43,23 @@ import org.json.simple.JSONValue;
 @Unstable("SpigotMC's new API is not currently stable, causing the version to possibly be incorrect or outdated.")
 public class SpigotVersionResolver implements IVersionResolver {
 
-	private static final String URL_FORMAT = "https://api.spigotmc.org/simple/0.1/index.php?action=getResource&id=%s";
+	private static final String DEFAULT_BASE_URL = "https://api.spigotmc.org";
+	private static final String URL_FORMAT = "%s/simple/0.1/index.php?action=getResource&id=%s";
+	private static final BodyCompletion COMPLETION = BodyCompletion.json("current_version");
+
+	private final String baseUrl;
+
+	public SpigotVersionResolver() {
+		this(DEFAULT_BASE_URL);
+	}
+
+	/**
+	 * Create a new Spigot version resolver using a different API host.
+	 * @param baseUrl SpigotMC API base url, without a trailing slash, for example a mirror or test server.
+	 */
+	public SpigotVersionResolver(@NotNull String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
 
 	/**
 	 * Get the current version of a SpigotMC resource.
@@ -56,22 +71,19 @@ public class SpigotVersionResolver implements IVersionResolver {
 	@Override
 	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
 		try {
-			URL url = new URL(String.format(URL_FORMAT, resourceId));
-			HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-			connection.setConnectTimeout(updateLib.getTimeout());
-			connection.setReadTimeout(updateLib.getTimeout());
-
-			if (connection.getResponseCode() != 200) {
-				throw new VersionResolveFailureException("SpigotMC's API did not respond with a 200 status code.");
+			HttpResponse response = HttpTransport.get(updateLib, String.format(URL_FORMAT, baseUrl, resourceId), Collections.emptyMap(), COMPLETION);
+			if (response.getStatusCode() != 200) {
+				throw new VersionResolveFailureException(response.getStatusCode(), "SpigotMC's API did not respond with a 200 status code.");
 			}
 
-			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			JSONObject json = (JSONObject) JSONValue.parse(bufferedReader.lines().collect(Collectors.joining()));
-			bufferedReader.close();
+			String version = JsonReader.select(response.getBody(), "current_version");
+			if (null == version) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, "SpigotMC's API response did not contain a version.");
+			}
 
-			return json.get("current_version").toString();
+			return version;
 		} catch (Exception ex) {
-			throw new VersionResolveFailureException(ex);
+			throw VersionResolveFailureException.wrap(ex);
 		}
 	}
 
@@ -0,0 +1,111 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.scheduling;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Adaptive check interval, derived from how often a resource's version has actually changed.
+ * <p>
+ * The times of the last {@value #HISTORY} version changes are kept. The next interval is a quarter of the expected time
+ * until the next release: the mean time between recent releases, or the time since the last release if that is
+ * longer. Active projects are therefore checked more often and dormant ones less often, always within the configured
+ * bounds. Until a change has been seen the interval starts at the base interval and grows as the resource stays
+ * unchanged.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class AdaptiveInterval {
+
+	private static final int HISTORY = 8;
+	private static final int CHECKS_PER_RELEASE = 4;
+
+	private final long base;
+	private final long minimum;
+	private final long maximum;
+	private final long[] changes = new long[HISTORY];
+
+	private int count = 0;
+	private int next = 0;
+	private long firstSeen = -1L;
+	private String lastVersion = null;
+	private long interval;
+
+	/**
+	 * Create a new adaptive interval.
+	 * @param base Initial interval in milliseconds.
+	 * @param minimum Minimum interval in milliseconds.
+	 * @param maximum Maximum interval in milliseconds.
+	 * @throws IllegalArgumentException if the minimum is not positive or greater than the maximum.
+	 */
+	public AdaptiveInterval(long base, long minimum, long maximum) {
+		if (minimum <= 0L || minimum > maximum) {
+			throw new IllegalArgumentException("Adaptive interval bounds must satisfy 0 < minimum <= maximum.");
+		}
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.base = clamp(base);
+		this.interval = this.base;
+	}
+
+	/**
+	 * Record the distributed version seen by a successful check.
+	 * @param version Distributed version.
+	 * @param now Check time in epoch milliseconds.
+	 */
+	public synchronized void observe(@NotNull String version, long now) {
+		if (firstSeen < 0L) {
+			firstSeen = now;
+		} else if (!version.equals(lastVersion)) {
+			changes[next] = now;
+			next = (next + 1) % HISTORY;
+			count = Math.min(HISTORY, count + 1);
+		}
+		lastVersion = version;
+		interval = compute(now);
+	}
+
+	/**
+	 * Get the interval to wait before the next check.
+	 * @return Interval in milliseconds.
+	 */
+	public synchronized long getInterval() {
+		return interval;
+	}
+
+	private long compute(long now) {
+		if (count == 0) {
+			return clamp(Math.max(base, (now - firstSeen) / CHECKS_PER_RELEASE));
+		}
+
+		long latest = changes[(next + HISTORY - 1) % HISTORY];
+		long meanGap = count == HISTORY ? (latest - changes[next]) / (HISTORY - 1) : (latest - firstSeen) / count;
+		return clamp(Math.max(meanGap, now - latest) / CHECKS_PER_RELEASE);
+	}
+
+	private long clamp(long value) {
+		return Math.max(minimum, Math.min(maximum, value));
+	}
+
+}
@@ -21,28 +21,21 @@
  * SOFTWARE.
  */
 
-package dev.hypera.updatelib.exceptions;
+package dev.hypera.updatelib.scheduling;
 
-public class VersionResolveFailureException extends UpdateLibException {
-
-	public VersionResolveFailureException() {
-		super();
-	}
-
-	public VersionResolveFailureException(String message) {
-		super(message);
-	}
-
-	public VersionResolveFailureException(String message, Throwable cause) {
-		super(message, cause);
-	}
-
-	public VersionResolveFailureException(Throwable cause) {
-		super(cause);
-	}
-
-	protected VersionResolveFailureException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
-		super(message, cause, enableSuppression, writableStackTrace);
-	}
+/**
+ * Load signal used by a {@link LoadAwareScheduler} to decide whether checks should be deferred, such as the server's
+ * tick time, the CPU load or the time spent collecting garbage.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+@FunctionalInterface
+public interface ILoadSignal {
+
+	/**
+	 * Get the current load. The scale is up to the signal, it only has to match the threshold it is used with.
+	 * @return Current load, or a negative value if it is unknown.
+	 */
+	double getLoad();
 
 }
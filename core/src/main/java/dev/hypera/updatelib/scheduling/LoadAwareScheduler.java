@@ -0,0 +1,176 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Defers scheduled checks while an {@link ILoadSignal} reports a load at or above a threshold.
+ * <p>
+ * Deferred checks are kept in order and the signal is polled until the load drops, at which point every pending check
+ * runs in one batch. A check is never deferred longer than the maximum deferral, after which it runs regardless of
+ * the load. A scheduler can be shared by many {@link dev.hypera.updatelib.UpdateLib} instances so their checks are
+ * batched together.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class LoadAwareScheduler {
+
+	private static final long DEFAULT_POLL_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+
+	private final ILoadSignal signal;
+	private final double threshold;
+	private final long maxDeferral;
+	private final long pollInterval;
+	private final Deque<Pending> pending = new ArrayDeque<>();
+	private final AtomicLong deferred = new AtomicLong();
+
+	private ScheduledFuture<?> poll = null;
+
+	/**
+	 * Create a new load aware scheduler, polling the load every 5 seconds while checks are deferred.
+	 * @param signal Load signal.
+	 * @param threshold Load at or above which checks are deferred.
+	 * @param maxDeferral Maximum time a check may be deferred.
+	 * @param unit Time unit.
+	 * @throws IllegalArgumentException if the maximum deferral is negative.
+	 */
+	public LoadAwareScheduler(@NotNull ILoadSignal signal, double threshold, long maxDeferral, @NotNull TimeUnit unit) {
+		this(signal, threshold, unit.toMillis(maxDeferral), DEFAULT_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Create a new load aware scheduler.
+	 * @param signal Load signal.
+	 * @param threshold Load at or above which checks are deferred.
+	 * @param maxDeferral Maximum time a check may be deferred.
+	 * @param pollInterval Time between polling the load while checks are deferred.
+	 * @param unit Time unit.
+	 * @throws IllegalArgumentException if the maximum deferral is negative or the poll interval is shorter than a millisecond.
+	 */
+	public LoadAwareScheduler(@NotNull ILoadSignal signal, double threshold, long maxDeferral, long pollInterval, @NotNull TimeUnit unit) {
+		this.signal = signal;
+		this.threshold = threshold;
+		this.maxDeferral = unit.toMillis(maxDeferral);
+		this.pollInterval = unit.toMillis(pollInterval);
+		if (this.maxDeferral < 0L || this.pollInterval <= 0L) {
+			throw new IllegalArgumentException("maxDeferral must not be negative and pollInterval must be at least 1ms.");
+		}
+	}
+
+	/**
+	 * Run a check now if the load allows it, otherwise defer it until the load drops or the maximum deferral passes.
+	 * @param check Check.
+	 * @param scheduler Scheduler used to poll the load while checks are deferred.
+	 */
+	@Internal
+	public void submit(@NotNull Runnable check, @NotNull ScheduledExecutorService scheduler) {
+		synchronized (pending) {
+			if (!pending.isEmpty() || isLoaded()) {
+				pending.add(new Pending(check, System.nanoTime()));
+				deferred.incrementAndGet();
+				if (null == poll) {
+					poll = scheduler.schedule(() -> poll(scheduler), Math.min(pollInterval, maxDeferral), TimeUnit.MILLISECONDS);
+				}
+				return;
+			}
+		}
+		check.run();
+	}
+
+	/**
+	 * Check whether the load is currently at or above the threshold.
+	 * @return {@code true} if checks are currently deferred.
+	 */
+	public boolean isLoaded() {
+		double load;
+		try {
+			load = signal.getLoad();
+		} catch (RuntimeException ex) {
+			// A broken signal must never stop checks.
+			return false;
+		}
+		return load >= 0D && load >= threshold;
+	}
+
+	/**
+	 * Get the amount of checks currently waiting for the load to drop.
+	 * @return Pending checks.
+	 */
+	public int getPending() {
+		synchronized (pending) {
+			return pending.size();
+		}
+	}
+
+	/**
+	 * Get the amount of checks that have been deferred since this scheduler was created.
+	 * @return Deferred checks.
+	 */
+	public long getDeferred() {
+		return deferred.get();
+	}
+
+	private void poll(@NotNull ScheduledExecutorService scheduler) {
+		List<Runnable> ready = new ArrayList<>();
+		synchronized (pending) {
+			boolean loaded = isLoaded();
+			long now = System.nanoTime();
+			long maxDeferralNanos = TimeUnit.MILLISECONDS.toNanos(maxDeferral);
+			while (!pending.isEmpty() && (!loaded || now - pending.peek().since >= maxDeferralNanos)) {
+				ready.add(pending.poll().check);
+			}
+
+			if (pending.isEmpty()) {
+				poll = null;
+			} else {
+				long untilOverdue = TimeUnit.NANOSECONDS.toMillis(maxDeferralNanos - (now - pending.peek().since));
+				poll = scheduler.schedule(() -> poll(scheduler), Math.max(1L, Math.min(pollInterval, untilOverdue)), TimeUnit.MILLISECONDS);
+			}
+		}
+		ready.forEach(Runnable::run);
+	}
+
+	private static final class Pending {
+
+		private final Runnable check;
+		private final long since;
+
+		private Pending(@NotNull Runnable check, long since) {
+			this.check = check;
+			this.since = since;
+		}
+
+	}
+
+}
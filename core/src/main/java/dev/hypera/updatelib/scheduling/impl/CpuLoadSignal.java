@@ -0,0 +1,81 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.scheduling.impl;
+
+import dev.hypera.updatelib.scheduling.ILoadSignal;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Load signal reporting the CPU load of this JVM between {@code 0} and {@code 1}, over the last 10 seconds or a
+ * configured window. The process CPU time is sampled once a second in the background. Falls back to the system load
+ * average per available processor, which may exceed {@code 1}, where the process CPU time is not available.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class CpuLoadSignal implements ILoadSignal {
+
+	private static final long DEFAULT_WINDOW = 10L;
+
+	private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+	private final SampleWindow window;
+
+	/**
+	 * Create a new CPU load signal, measuring the last 10 seconds.
+	 */
+	public CpuLoadSignal() {
+		this(DEFAULT_WINDOW, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Create a new CPU load signal.
+	 * @param window Time the load is measured over.
+	 * @param unit Time unit.
+	 * @throws IllegalArgumentException if the window is shorter than a second.
+	 */
+	public CpuLoadSignal(long window, @NotNull TimeUnit unit) {
+		if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+			com.sun.management.OperatingSystemMXBean bean = (com.sun.management.OperatingSystemMXBean) operatingSystem;
+			this.window = new SampleWindow(bean::getProcessCpuTime, window, unit);
+		} else {
+			this.window = null;
+		}
+	}
+
+	@Override
+	public double getLoad() {
+		if (null != window) {
+			double rate = window.getRate();
+			if (rate >= 0D) {
+				return Math.min(1D, rate / operatingSystem.getAvailableProcessors());
+			}
+		}
+
+		double average = operatingSystem.getSystemLoadAverage();
+		return average < 0D ? -1D : average / operatingSystem.getAvailableProcessors();
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.scheduling.impl;
+
+import dev.hypera.updatelib.scheduling.ILoadSignal;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Load signal reporting the fraction of time spent collecting garbage, between {@code 0} and {@code 1}, over the last
+ * 10 seconds or a configured window. The collection time is sampled once a second in the background.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class GcLoadSignal implements ILoadSignal {
+
+	private static final long DEFAULT_WINDOW = 10L;
+
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+	private final SampleWindow window;
+
+	/**
+	 * Create a new GC load signal, measuring the last 10 seconds.
+	 */
+	public GcLoadSignal() {
+		this(DEFAULT_WINDOW, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Create a new GC load signal.
+	 * @param window Time the load is measured over.
+	 * @param unit Time unit.
+	 * @throws IllegalArgumentException if the window is shorter than a second.
+	 */
+	public GcLoadSignal(long window, @NotNull TimeUnit unit) {
+		this.window = new SampleWindow(this::collectionTime, window, unit);
+	}
+
+	@Override
+	public double getLoad() {
+		double rate = window.getRate();
+		return rate < 0D ? -1D : Math.min(1D, rate);
+	}
+
+	private long collectionTime() {
+		long total = 0L;
+		for (GarbageCollectorMXBean collector : collectors) {
+			total += Math.max(0L, collector.getCollectionTime());
+		}
+		return TimeUnit.MILLISECONDS.toNanos(total);
+	}
+
+}
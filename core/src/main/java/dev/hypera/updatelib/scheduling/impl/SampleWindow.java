@@ -0,0 +1,138 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.scheduling.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Samples of a cumulative counter over a bounded window, taken once a second on a shared daemon thread. The rate is
+ * therefore measured over the last window however rarely it is requested, instead of since the previous request.
+ * <p>
+ * Windows are held weakly by the sampling thread and stop being sampled once they become unreachable.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class SampleWindow {
+
+	private static final long PERIOD = TimeUnit.SECONDS.toNanos(1);
+	private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+	private static final ScheduledExecutorService SAMPLER = sampler();
+
+	private final LongSupplier counter;
+	private final long[] times;
+	private final long[] values;
+
+	private int next = 0;
+	private int count = 0;
+
+	/**
+	 * Create a new sample window and start sampling it.
+	 * @param counter Cumulative counter, or a negative value if it is currently unavailable.
+	 * @param window Window length.
+	 * @param unit Time unit.
+	 * @throws IllegalArgumentException if the window is shorter than a second.
+	 */
+	SampleWindow(@NotNull LongSupplier counter, long window, @NotNull TimeUnit unit) {
+		long samples = unit.toNanos(window) / PERIOD;
+		if (samples < 1L) {
+			throw new IllegalArgumentException("window must be at least 1 second.");
+		}
+		this.counter = counter;
+		this.times = new long[(int) Math.min(3600L, samples) + 1];
+		this.values = new long[times.length];
+		sample();
+
+		Sampler sampler = new Sampler(this);
+		sampler.future = SAMPLER.scheduleAtFixedRate(sampler, PERIOD, PERIOD, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get the rate the counter increased at over the window, measured up to now.
+	 * @return Counter increase per nanosecond, or a negative value if the counter is unavailable.
+	 */
+	synchronized double getRate() {
+		long now = System.nanoTime();
+		long value = counter.getAsLong();
+		if (value < 0L || 0 == count) {
+			return -1D;
+		}
+		// The oldest sample is the start of the window, the ring only keeps the samples of the last window.
+		int oldest = (next - count + times.length) % times.length;
+		long elapsed = now - times[oldest];
+		return elapsed <= 0L ? 0D : Math.max(0L, value - values[oldest]) / (double) elapsed;
+	}
+
+	private synchronized void sample() {
+		long value = counter.getAsLong();
+		if (value < 0L) {
+			count = 0;
+			return;
+		}
+		times[next] = System.nanoTime();
+		values[next] = value;
+		next = (next + 1) % times.length;
+		count = Math.min(times.length, count + 1);
+	}
+
+	private static @NotNull ScheduledExecutorService sampler() {
+		ScheduledThreadPoolExecutor sampler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "UpdateLib-LoadSampler");
+			thread.setDaemon(true);
+			thread.setContextClassLoader(null);
+			return thread;
+		});
+		sampler.setRemoveOnCancelPolicy(true);
+		sampler.setKeepAliveTime(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+		sampler.allowCoreThreadTimeOut(true);
+		return sampler;
+	}
+
+	private static final class Sampler implements Runnable {
+
+		private final WeakReference<SampleWindow> window;
+		private volatile ScheduledFuture<?> future = null;
+
+		private Sampler(@NotNull SampleWindow window) {
+			this.window = new WeakReference<>(window);
+		}
+
+		@Override
+		public void run() {
+			SampleWindow current = window.get();
+			if (null != current) {
+				current.sample();
+			} else if (null != future) {
+				future.cancel(false);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,287 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.triggers;
+
+import dev.hypera.updatelib.UpdateLib;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * File watch trigger, checks {@link UpdateLib} instances as soon as the files they depend on change.
+ * <p>
+ * Every watched directory is registered with a single {@link WatchService} serviced by one daemon thread. Events are
+ * debounced: once a file changes, the trigger waits until no further changes arrive for the debounce period, or at
+ * most {@value #MAX_DEBOUNCE_MULTIPLIER} debounce periods, and then checks every affected instance once in a single
+ * pass. A deploy replacing hundreds of version files therefore results in one check per instance.
+ * <p>
+ * Instances are only held weakly and are unwatched once closed, so watching does not keep an abandoned instance
+ * reachable. Once nothing is watched anymore the watch service and its thread are released, and the next
+ * {@link #watch(Path, UpdateLib)} starts them again. The thread only holds the trigger weakly, so an abandoned trigger
+ * is released as well.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class FileWatchTrigger implements Closeable {
+
+	private static final int MAX_DEBOUNCE_MULTIPLIER = 10;
+	private static final long IDLE_POLL = TimeUnit.SECONDS.toNanos(1);
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+
+	private final long debounceNanos;
+	private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+	private final Map<Path, Set<UpdateLib>> watchers = new ConcurrentHashMap<>();
+
+	private WatchService watchService;
+	private boolean closed = false;
+
+	private FileWatchTrigger(long debounceNanos) throws IOException {
+		this.debounceNanos = debounceNanos;
+		this.watchService = start();
+	}
+
+	/**
+	 * Create a new file watch trigger.
+	 * @param debounce Time without further changes to wait for before checking.
+	 * @param unit Time unit.
+	 * @return New file watch trigger.
+	 * @throws IOException if the watch service could not be created.
+	 */
+	public static @NotNull FileWatchTrigger create(long debounce, @NotNull TimeUnit unit) throws IOException {
+		return new FileWatchTrigger(unit.toNanos(debounce));
+	}
+
+	/**
+	 * Check an {@link UpdateLib} instance whenever a file changes. The file does not need to exist yet, but its
+	 * directory does.
+	 * @param file File to watch.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @throws IOException if the directory could not be watched.
+	 * @throws ClosedWatchServiceException if the trigger has been closed.
+	 */
+	public void watch(@NotNull Path file, @NotNull UpdateLib updateLib) throws IOException {
+		Path path = file.toAbsolutePath().normalize();
+		Path directory = path.getParent();
+		if (null == directory) {
+			throw new IOException("Cannot watch " + file + ", it has no parent directory.");
+		}
+
+		boolean added;
+		synchronized (directories) {
+			if (closed) {
+				throw new ClosedWatchServiceException();
+			}
+			if (null == watchService) {
+				watchService = start();
+			}
+			if (!directories.containsKey(directory)) {
+				directories.put(directory, directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE));
+			}
+			added = watchers.computeIfAbsent(path, p -> Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()))).add(updateLib);
+		}
+		if (added) {
+			updateLib.addCloseListener(() -> unwatch(updateLib));
+		}
+	}
+
+	/**
+	 * Stop checking an {@link UpdateLib} instance when files change.
+	 * @param updateLib {@link UpdateLib} instance.
+	 */
+	public void unwatch(@NotNull UpdateLib updateLib) {
+		watchers.values().forEach(set -> set.remove(updateLib));
+		release();
+	}
+
+	/**
+	 * Stop watching files and terminate the watch thread.
+	 * @throws IOException if the watch service could not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (directories) {
+			closed = true;
+			if (null != watchService) {
+				stop();
+			}
+		}
+	}
+
+	private @NotNull WatchService start() throws IOException {
+		// Some watch services start a polling thread of their own, which inherits the context classloader as well.
+		Thread current = Thread.currentThread();
+		ClassLoader contextClassLoader = current.getContextClassLoader();
+		current.setContextClassLoader(null);
+		try {
+			WatchService service = FileSystems.getDefault().newWatchService();
+			WeakReference<FileWatchTrigger> reference = new WeakReference<>(this);
+			Thread thread = new Thread(() -> run(service, reference), "UpdateLib-Watch-" + COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			// The thread would otherwise keep the classloader of whichever plugin created the trigger reachable.
+			thread.setContextClassLoader(null);
+			thread.start();
+			return service;
+		} finally {
+			current.setContextClassLoader(contextClassLoader);
+		}
+	}
+
+	private void stop() throws IOException {
+		directories.clear();
+		WatchService service = watchService;
+		watchService = null;
+		// The watch thread exits once its service is closed.
+		service.close();
+	}
+
+	private static void run(@NotNull WatchService service, @NotNull WeakReference<FileWatchTrigger> reference) {
+		try {
+			while (poll(service, reference)) {
+				// Keep watching.
+			}
+		} catch (InterruptedException | ClosedWatchServiceException ignored) {
+			// Trigger closed or released.
+		}
+	}
+
+	private static boolean poll(@NotNull WatchService service, @NotNull WeakReference<FileWatchTrigger> reference) throws InterruptedException {
+		// The trigger is only held while handling events, so an abandoned trigger can be collected while waiting.
+		WatchKey key = service.poll(IDLE_POLL, TimeUnit.NANOSECONDS);
+		FileWatchTrigger trigger = reference.get();
+		if (null == trigger) {
+			try {
+				service.close();
+			} catch (IOException ignored) {
+				// Nothing else can be done with an abandoned service.
+			}
+			return false;
+		}
+
+		if (null == key) {
+			// Drops collected instances, and releases the trigger once nothing is watched anymore.
+			trigger.release();
+		} else {
+			trigger.debounce(service, key);
+		}
+		return true;
+	}
+
+	private void debounce(@NotNull WatchService service, @NotNull WatchKey first) throws InterruptedException {
+		Set<Path> changed = new HashSet<>();
+		Set<Path> overflowed = new HashSet<>();
+		collect(first, changed, overflowed);
+
+		long deadline = System.nanoTime() + debounceNanos * MAX_DEBOUNCE_MULTIPLIER;
+		WatchKey key;
+		while (System.nanoTime() < deadline && null != (key = service.poll(Math.min(debounceNanos, Math.max(0L, deadline - System.nanoTime())), TimeUnit.NANOSECONDS))) {
+			collect(key, changed, overflowed);
+		}
+
+		invalidate(changed, overflowed);
+	}
+
+	private void collect(@NotNull WatchKey key, @NotNull Set<Path> changed, @NotNull Set<Path> overflowed) {
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				overflowed.add(directory);
+			} else {
+				changed.add(directory.resolve((Path) event.context()));
+			}
+		}
+		if (!key.reset()) {
+			directories.remove(directory, key);
+		}
+	}
+
+	private void release() {
+		synchronized (directories) {
+			// Removing under the lock keeps a concurrent watch() from adding to a set that is being dropped.
+			Set<Path> watched = new HashSet<>();
+			for (Path path : watchers.keySet()) {
+				Set<UpdateLib> updateLibs = watchers.computeIfPresent(path, (p, set) -> {
+					synchronized (set) {
+						set.removeIf(UpdateLib::isClosed);
+						return set.isEmpty() ? null : set;
+					}
+				});
+				if (null != updateLibs) {
+					watched.add(path.getParent());
+				}
+			}
+
+			directories.entrySet().removeIf(entry -> {
+				if (watched.contains(entry.getKey())) {
+					return false;
+				}
+				entry.getValue().cancel();
+				return true;
+			});
+			if (watched.isEmpty() && null != watchService) {
+				try {
+					stop();
+				} catch (IOException ignored) {
+					// The service is dropped either way, and the next watch() starts a new one.
+				}
+			}
+		}
+	}
+
+	private void invalidate(@NotNull Set<Path> changed, @NotNull Set<Path> overflowed) {
+		// Collect first, so an instance depending on several changed files is only checked once.
+		Set<UpdateLib> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Map.Entry<Path, Set<UpdateLib>> entry : watchers.entrySet()) {
+			Set<UpdateLib> updateLibs = entry.getValue();
+			if (changed.contains(entry.getKey()) || overflowed.contains(entry.getKey().getParent())) {
+				synchronized (updateLibs) {
+					affected.addAll(updateLibs);
+				}
+			}
+		}
+		affected.removeIf(UpdateLib::isClosed);
+		release();
+
+		for (UpdateLib updateLib : affected) {
+			updateLib.check();
+		}
+	}
+
+}
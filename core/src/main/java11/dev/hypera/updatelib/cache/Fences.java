@@ -0,0 +1,68 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.cache;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Memory fences ordering the plain reads and writes of {@link SharedVersionCache}'s sequence lock.
+ * <p>
+ * This is the Java 11 variant of the multi-release jar, which uses the fences of {@link VarHandle}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class Fences {
+
+	private Fences() {
+	}
+
+	/**
+	 * Keep later reads and writes from moving before earlier reads.
+	 */
+	static void acquire() {
+		VarHandle.acquireFence();
+	}
+
+	/**
+	 * Keep later reads from moving before earlier reads.
+	 */
+	static void loadLoad() {
+		VarHandle.loadLoadFence();
+	}
+
+	/**
+	 * Keep later writes from moving before earlier writes.
+	 */
+	static void storeStore() {
+		VarHandle.storeStoreFence();
+	}
+
+	/**
+	 * Keep earlier reads and writes from moving after later writes.
+	 */
+	static void release() {
+		VarHandle.releaseFence();
+	}
+
+}
@@ -0,0 +1,245 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link HttpEngine} using {@link HttpClient}, which multiplexes requests to the same host over a single HTTP/2
+ * connection where the server supports it. Clients are shared by every instance using the same connect timeout and
+ * held by those instances, so a client and its connection pool last for as long as an instance using it, and are
+ * collected along with their selector threads once no instance is left.
+ * <p>
+ * HTTP/2 is only negotiated over TLS, and for plain HTTP/1.1 {@link java.net.HttpURLConnection} has less overhead per
+ * request, so cleartext requests may be handed to another engine.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+final class HttpClientEngine implements HttpEngine {
+
+	static final String NAME = "httpclient";
+	private static final int MAX_DRAIN = 8192;
+	private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+
+	private final Map<Integer, WeakReference<HttpClient>> clients = new ConcurrentHashMap<>();
+	private final ExecutorService executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_TIMEOUT, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), runnable -> {
+		Thread thread = new Thread(runnable, "UpdateLib-HttpClient-" + COUNTER.incrementAndGet());
+		thread.setDaemon(true);
+		thread.setContextClassLoader(null);
+		return thread;
+	});
+	private final HttpEngine cleartextEngine;
+
+	/**
+	 * Create a new HttpClient engine.
+	 * @param cleartextEngine Engine sending cleartext requests, or {@code null} to send every request with HttpClient.
+	 */
+	HttpClientEngine(@Nullable HttpEngine cleartextEngine) {
+		this.cleartextEngine = cleartextEngine;
+	}
+
+	@Override
+	public @NotNull HttpResponse request(@NotNull UpdateLib updateLib, @Nullable RequestContext context, @NotNull URL url, @NotNull Map<String, String> headers, @Nullable BodyCompletion completion) throws IOException, VersionResolveFailureException {
+		boolean cleartext = "http".equalsIgnoreCase(url.getProtocol());
+		if (cleartext && null != cleartextEngine) {
+			return cleartextEngine.request(updateLib, context, url, headers, completion);
+		}
+
+		// The client's selector and worker threads are started by whichever thread hands it work, and inherit its
+		// context classloader, which would keep the calling plugin's classloader reachable for as long as they live.
+		Thread thread = Thread.currentThread();
+		ClassLoader contextClassLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(null);
+		try {
+			return send(updateLib, context, url, headers, completion, cleartext);
+		} finally {
+			thread.setContextClassLoader(contextClassLoader);
+		}
+	}
+
+	private @NotNull HttpResponse send(@NotNull UpdateLib updateLib, @Nullable RequestContext context, @NotNull URL url, @NotNull Map<String, String> headers, @Nullable BodyCompletion completion, boolean cleartext) throws IOException, VersionResolveFailureException {
+		HttpClient client = client(Math.max(0, updateLib.getConnectTimeout()));
+		updateLib.setTransportHandle(client);
+
+		HttpRequest.Builder builder;
+		try {
+			builder = HttpRequest.newBuilder(url.toURI()).GET();
+			if (cleartext) {
+				// Cleartext HTTP/2 upgrades are rarely supported, attempting one only adds to every new connection.
+				builder.version(HttpClient.Version.HTTP_1_1);
+			}
+		} catch (URISyntaxException ex) {
+			throw new IOException("Invalid request url " + url + ".", ex);
+		}
+		// The client has no separate read timeout, so the request timeout covers connecting and the first byte.
+		int timeout = updateLib.getConnectTimeout() <= 0 || updateLib.getFirstByteTimeout() <= 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, (long) updateLib.getConnectTimeout() + updateLib.getFirstByteTimeout());
+		if (null != context) {
+			timeout = context.limit(timeout);
+		}
+		if (timeout > 0) {
+			builder.timeout(Duration.ofMillis(timeout));
+		}
+		builder.setHeader("User-Agent", USER_AGENT);
+		headers.forEach(builder::setHeader);
+
+		CompletableFuture<java.net.http.HttpResponse<InputStream>> pending = client.sendAsync(builder.build(), BodyHandlers.ofInputStream());
+		if (null != context) {
+			context.attach(() -> pending.cancel(true));
+		}
+
+		try {
+			java.net.http.HttpResponse<InputStream> response = await(pending);
+			try (InputStream inputStream = response.body()) {
+				if (null != context) {
+					context.attach(() -> closeQuietly(inputStream));
+				}
+
+				Map<String, String> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+				for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+					if (!header.getKey().startsWith(":") && !header.getValue().isEmpty()) {
+						responseHeaders.put(header.getKey(), header.getValue().get(0));
+					}
+				}
+
+				int statusCode = response.statusCode();
+				byte[] body = EMPTY_BODY;
+				if (statusCode >= 200 && statusCode < 300) {
+					body = BodyReader.read(inputStream, response.headers().firstValueAsLong("Content-Length").orElse(-1L), updateLib.getMaxBodySize(), completion);
+				} else {
+					// Draining a short error body lets the connection be reused.
+					drain(inputStream);
+				}
+				return new HttpResponse(statusCode, responseHeaders, body);
+			}
+		} finally {
+			if (null != context) {
+				context.attach(null);
+			}
+		}
+	}
+
+	@Override
+	public void release() {
+		// Requests still in flight keep their client, it is only closed once unreachable.
+		clients.clear();
+	}
+
+	@Override
+	public @NotNull String getName() {
+		return NAME;
+	}
+
+	private @NotNull HttpClient client(int connectTimeout) {
+		// The selector thread captures the access control context of the thread building the client, which includes the
+		// protection domain, and so the classloader, of UpdateLib. Holding the client strongly here would keep both alive
+		// even once every instance was abandoned without being closed, so only the instances using it hold it strongly.
+		HttpClient[] client = new HttpClient[1];
+		clients.compute(connectTimeout, (timeout, reference) -> {
+			client[0] = null == reference ? null : reference.get();
+			if (null != client[0]) {
+				return reference;
+			}
+			client[0] = createClient(timeout);
+			return new WeakReference<>(client[0]);
+		});
+		return client[0];
+	}
+
+	private @NotNull HttpClient createClient(int connectTimeout) {
+		HttpClient.Builder builder = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).executor(executor);
+		if (connectTimeout > 0) {
+			builder.connectTimeout(Duration.ofMillis(connectTimeout));
+		}
+		return builder.build();
+	}
+
+	private static <T> T await(@NotNull CompletableFuture<T> pending) throws IOException {
+		try {
+			return pending.get();
+		} catch (CancellationException ex) {
+			throw new InterruptedIOException("The update check was aborted.");
+		} catch (InterruptedException ex) {
+			pending.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the response.");
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof HttpTimeoutException) {
+				// Reported like HttpURLConnection's timeouts, which are InterruptedIOExceptions rather than plain ones.
+				SocketTimeoutException timeout = new SocketTimeoutException(ex.getCause().getMessage());
+				timeout.initCause(ex.getCause());
+				throw timeout;
+			}
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+	}
+
+	private static void drain(@NotNull InputStream inputStream) throws IOException {
+		byte[] buffer = new byte[1024];
+		int remaining = MAX_DRAIN;
+		int read;
+		while (remaining > 0 && (read = inputStream.read(buffer, 0, Math.min(buffer.length, remaining))) != -1) {
+			remaining -= read;
+		}
+	}
+
+	private static void closeQuietly(@NotNull InputStream inputStream) {
+		try {
+			inputStream.close();
+		} catch (IOException ignored) {
+			// The check is being aborted anyway.
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.resolvers.IBulkVersionResolver;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link UpdateTracker} deadlines with resolvers that ignore being aborted.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class UpdateTrackerTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+	}
+
+	@Test
+	void stuckResolverTimesOutAndFreesItsSlot() throws Exception {
+		AtomicInteger failures = new AtomicInteger();
+		UpdateTracker tracker = UpdateTracker.builder().disableRepeatingChecks().concurrency(1).totalTimeout(200L, TimeUnit.MILLISECONDS).resolver((updateLib, resourceId) -> {
+			if (resourceId == 1L) {
+				awaitIgnoringInterrupts(release);
+			}
+			return "1.0.1";
+		}).failureHandler((resourceId, status) -> failures.incrementAndGet()).build();
+		tracker.track(1L, "1.0.0");
+		tracker.track(2L, "1.0.0");
+
+		// With a single slot, the second resource can only be checked once the deadline freed the first one's.
+		tracker.checkAll().get(5L, TimeUnit.SECONDS);
+		assertEquals(FailureReason.TIMEOUT, tracker.getStatus(1L).getFailureReason());
+		assertFalse(tracker.getStatus(2L).isFailed());
+		assertEquals("1.0.1", tracker.getStatus(2L).getDistributedVersion());
+
+		// A resolver returning after its deadline does not replace the timeout.
+		release.countDown();
+		tracker.check(2L).get(5L, TimeUnit.SECONDS);
+		assertEquals(FailureReason.TIMEOUT, tracker.getStatus(1L).getFailureReason());
+		assertEquals(1, failures.get());
+	}
+
+	@Test
+	void stuckBulkResolverTimesOutEveryResource() throws Exception {
+		UpdateTracker tracker = UpdateTracker.builder().disableRepeatingChecks().totalTimeout(200L, TimeUnit.MILLISECONDS).resolver(new IBulkVersionResolver() {
+			@Override
+			public @NotNull Map<Long, String> getVersions(@NotNull UpdateLib updateLib, @NotNull Collection<Long> resourceIds) {
+				awaitIgnoringInterrupts(release);
+				Map<Long, String> versions = new HashMap<>();
+				for (long resourceId : resourceIds) {
+					versions.put(resourceId, "1.0.1");
+				}
+				return versions;
+			}
+
+			@Override
+			public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) {
+				return "1.0.1";
+			}
+		}).build();
+		for (long resourceId = 1L; resourceId <= 3L; resourceId++) {
+			tracker.track(resourceId, "1.0.0");
+		}
+
+		tracker.checkAll().get(5L, TimeUnit.SECONDS);
+		for (long resourceId = 1L; resourceId <= 3L; resourceId++) {
+			UpdateStatus status = tracker.getStatus(resourceId);
+			assertEquals(FailureReason.TIMEOUT, status.getFailureReason());
+		}
+	}
+
+	private static void awaitIgnoringInterrupts(@NotNull CountDownLatch latch) {
+		while (true) {
+			try {
+				latch.await();
+				return;
+			} catch (InterruptedException ignored) {
+				// Deliberately ignores the deadline's interrupt.
+			}
+		}
+	}
+
+}
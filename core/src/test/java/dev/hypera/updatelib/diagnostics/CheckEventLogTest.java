@@ -0,0 +1,152 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.objects.enums.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link CheckEventLog} wraparound and snapshots taken while events are being recorded.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class CheckEventLogTest {
+
+	private static final Status[] STATUSES = Status.values();
+	private static final FailureReason[] FAILURE_REASONS = FailureReason.values();
+
+	@Test
+	void keepsTheNewestEventsAfterWrapping() {
+		CheckEventLog log = new CheckEventLog(3);
+		assertTrue(log.snapshot().isEmpty());
+
+		for (long value = 0L; value < 10L; value++) {
+			record(log, value);
+		}
+
+		assertEquals(10L, log.getRecorded());
+		List<CheckEvent> events = log.snapshot();
+		assertEquals(4, events.size());
+		for (int i = 0; i < events.size(); i++) {
+			assertEquals(9L - i, events.get(i).getResourceId());
+			assertConsistent(events.get(i));
+		}
+
+		List<CheckEvent> limited = log.snapshot(2);
+		assertEquals(2, limited.size());
+		assertEquals(9L, limited.get(0).getResourceId());
+		assertEquals(8L, limited.get(1).getResourceId());
+	}
+
+	@Test
+	void snapshotsOnlyContainCompleteEvents() throws InterruptedException {
+		// A small log makes writers sharing a slot, and readers copying an overwritten one, as likely as possible.
+		CheckEventLog log = new CheckEventLog(2);
+		AtomicLong values = new AtomicLong();
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			threads.add(new Thread(() -> {
+				await(start);
+				for (int j = 0; j < 500_000; j++) {
+					record(log, values.getAndIncrement());
+				}
+			}));
+		}
+		for (int i = 0; i < 2; i++) {
+			threads.add(new Thread(() -> {
+				await(start);
+				try {
+					while (running.get()) {
+						List<CheckEvent> events = log.snapshot();
+						assertTrue(events.size() <= 2);
+						events.forEach(CheckEventLogTest::assertConsistent);
+					}
+				} catch (Throwable ex) {
+					failure.compareAndSet(null, ex);
+				}
+			}));
+		}
+
+		threads.forEach(Thread::start);
+		start.countDown();
+		for (Thread thread : threads.subList(0, 4)) {
+			thread.join();
+		}
+		running.set(false);
+		for (Thread thread : threads.subList(4, 6)) {
+			thread.join();
+		}
+
+		if (null != failure.get()) {
+			throw new AssertionError(failure.get());
+		}
+		assertEquals(2_000_000L, log.getRecorded());
+		log.snapshot().forEach(CheckEventLogTest::assertConsistent);
+	}
+
+	private static void record(CheckEventLog log, long value) {
+		// Every field is derived from the same value, so an event mixing two writes is detectable.
+		int index = (int) (value % 4);
+		log.record(value, index % 2 == 0 ? String.class : Long.class, value, value * 3L, 200 + index, value * 7L, STATUSES[index], index == 3 ? null : FAILURE_REASONS[index]);
+	}
+
+	private static void assertConsistent(CheckEvent event) {
+		long value = event.getResourceId();
+		int index = (int) (value % 4);
+		assertEquals(index % 2 == 0 ? String.class.getName() : Long.class.getName(), event.getResolver());
+		assertEquals(value, event.getTimestamp());
+		assertEquals(value * 3L, event.getLatency());
+		assertEquals(200 + index, event.getHttpStatus());
+		assertEquals(value * 7L, event.getBodyBytes());
+		assertEquals(STATUSES[index], event.getStatus());
+		if (index == 3) {
+			assertNull(event.getFailureReason());
+		} else {
+			assertEquals(FAILURE_REASONS[index], event.getFailureReason());
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.testing.FixtureServer;
+import dev.hypera.updatelib.testing.FixtureServer.Response;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link HttpTransport} retrying responses asking to slow down, against a local {@link FixtureServer}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class HttpTransportTest {
+
+	private static final String HOST = "127.0.0.1";
+
+	private final RateLimiter rateLimiter = RateLimiter.getInstance();
+	private FixtureServer server;
+	private UpdateLib updateLib;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		reset();
+		server = FixtureServer.start();
+		updateLib = FixtureServer.updateLib();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		server.close();
+		// Every fixture server shares the same host, so other tests must not inherit a pause.
+		reset();
+	}
+
+	@Test
+	void rateLimitedAfterTooManyRequestsAndRecovers() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		server.route("/limited", request -> count.incrementAndGet() == 3 ? new Response(429, "", "Retry-After", "1") : new Response(200, "ok"));
+
+		// Plain responses never limit the host.
+		for (int i = 0; i < 2; i++) {
+			assertEquals(200, HttpTransport.get(updateLib, server.getBaseUrl() + "/limited").getStatusCode());
+			assertEquals(Double.POSITIVE_INFINITY, rateLimiter.getBudget(HOST).getCapacity());
+		}
+
+		// The 429 pauses the host, and the request is sent again once the pause is over.
+		long start = System.nanoTime();
+		HttpResponse response = HttpTransport.get(updateLib, server.getBaseUrl() + "/limited");
+		assertEquals(200, response.getStatusCode());
+		assertEquals("ok", response.getBody());
+		assertEquals(4, server.getRequests().size());
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+
+		RateLimiter.Budget budget = rateLimiter.getBudget(HOST);
+		assertEquals(0L, budget.getPausedFor());
+		assertEquals(Double.POSITIVE_INFINITY, budget.getCapacity());
+		assertEquals(200, HttpTransport.get(updateLib, server.getBaseUrl() + "/limited").getStatusCode());
+	}
+
+	@Test
+	void retriesServiceUnavailableWithRetryAfter() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		server.route("/unavailable", request -> count.incrementAndGet() == 1 ? new Response(503, "", "Retry-After", "1") : new Response(200, "ok"));
+		server.route("/down", request -> new Response(503, ""));
+
+		assertEquals("ok", HttpTransport.get(updateLib, server.getBaseUrl() + "/unavailable").getBody());
+		assertEquals(2, count.get());
+
+		// Without Retry-After the server gave no sign that waiting helps, so the response is returned as is.
+		assertEquals(503, HttpTransport.get(updateLib, server.getBaseUrl() + "/down").getStatusCode());
+		assertEquals(3, server.getRequests().size());
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() throws Exception {
+		server.route("/limited", request -> new Response(429, "", "Retry-After", "1"));
+
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> HttpTransport.get(updateLib, server.getBaseUrl() + "/limited"));
+		assertEquals(FailureReason.RATE_LIMITED, ex.getReason());
+		assertEquals(3, server.getRequests().size());
+	}
+
+	@Test
+	void deadlineShorterThanRetryAfterFailsRateLimited() throws Exception {
+		server.route("/limited", request -> new Response(429, "", "Retry-After", "2"));
+
+		// Waiting would outlast the check, so it fails at once instead of sleeping past its deadline.
+		long start = System.nanoTime();
+		assertEquals(FailureReason.RATE_LIMITED, getWithin("/limited", 500L).getReason());
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+		assertEquals(1, server.getRequests().size());
+
+		// Later checks on the paused host are deferred rather than sent, and fail the same way.
+		assertEquals(FailureReason.RATE_LIMITED, getWithin("/limited", 200L).getReason());
+		assertEquals(1, server.getRequests().size());
+	}
+
+	private VersionResolveFailureException getWithin(String path, long timeout) {
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		new RequestContext(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout)).run(() -> {
+			try {
+				HttpTransport.get(updateLib, server.getBaseUrl() + path);
+			} catch (Exception ex) {
+				failure.set(ex);
+			}
+		});
+		assertTrue(failure.get() instanceof VersionResolveFailureException, String.valueOf(failure.get()));
+		return (VersionResolveFailureException) failure.get();
+	}
+
+	private void reset() throws InterruptedException {
+		rateLimiter.update(HOST, new HttpResponse(200, Collections.emptyMap(), new byte[0]));
+		RateLimiter.Budget budget = rateLimiter.getBudget(HOST);
+		if (budget.getPausedFor() > 0L) {
+			Thread.sleep(budget.getPausedFor() + 10L);
+		}
+	}
+
+}
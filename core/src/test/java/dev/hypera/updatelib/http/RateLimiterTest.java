@@ -0,0 +1,131 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link RateLimiter} buckets, each test using its own host as the limiter is shared by the whole JVM.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class RateLimiterTest {
+
+	private final RateLimiter rateLimiter = RateLimiter.getInstance();
+
+	@Test
+	void hostsAreUnlimitedUntilTheServerAsks() throws InterruptedException {
+		String host = "unlimited.test";
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(rateLimiter.acquire(host, 0L));
+		}
+		assertEquals(0L, rateLimiter.update(host, response(200)));
+		assertEquals(Double.POSITIVE_INFINITY, rateLimiter.getBudget(host).getCapacity());
+		assertTrue(rateLimiter.acquire(host, 0L));
+
+		// A 429 without Retry-After still pauses the host, for a second.
+		long retryAfter = rateLimiter.update(host, response(429));
+		assertEquals(TimeUnit.SECONDS.toNanos(1), retryAfter);
+		assertFalse(rateLimiter.acquire(host, TimeUnit.MILLISECONDS.toNanos(100)));
+		assertTrue(rateLimiter.getBudget(host).getPausedFor() > 0L);
+		assertTrue(rateLimiter.acquire(host, TimeUnit.SECONDS.toNanos(2)));
+	}
+
+	@Test
+	void configuredBucketRefills() throws InterruptedException {
+		String host = "Bucket.test";
+		rateLimiter.configure(host, 2, 10D);
+		assertTrue(rateLimiter.acquire(host, 0L));
+		assertTrue(rateLimiter.acquire(host, 0L));
+		assertFalse(rateLimiter.acquire(host, 0L));
+
+		// One token takes 100ms to refill.
+		long start = System.nanoTime();
+		assertTrue(rateLimiter.acquire(host, TimeUnit.SECONDS.toNanos(1)));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+		RateLimiter.Budget budget = rateLimiter.getBudget("bucket.test");
+		assertNotNull(budget);
+		assertEquals(2D, budget.getCapacity());
+		assertEquals(10D, budget.getRefillRate());
+	}
+
+	@Test
+	void advertisedLimitsAreFollowedUntilNoLongerSent() throws InterruptedException {
+		String host = "advertised.test";
+		rateLimiter.configure(host, 100, 100D);
+		assertEquals(0L, rateLimiter.update(host, response(200, "X-RateLimit-Limit", "10", "X-RateLimit-Remaining", "2", "X-RateLimit-Reset", "60")));
+		RateLimiter.Budget budget = rateLimiter.getBudget(host);
+		assertEquals(10D, budget.getCapacity());
+		assertTrue(budget.getRefillRate() < 1D);
+		assertTrue(rateLimiter.acquire(host, 0L));
+		assertTrue(rateLimiter.acquire(host, 0L));
+		assertFalse(rateLimiter.acquire(host, 0L));
+
+		// Without any advertised limits the configured ones apply again.
+		rateLimiter.update(host, response(200));
+		budget = rateLimiter.getBudget(host);
+		assertEquals(100D, budget.getCapacity());
+		assertEquals(100D, budget.getRefillRate());
+		assertTrue(rateLimiter.acquire(host, TimeUnit.MILLISECONDS.toNanos(100)));
+	}
+
+	@Test
+	void exhaustedWindowPausesUntilReset() throws InterruptedException {
+		String host = "exhausted.test";
+		rateLimiter.update(host, response(200, "RateLimit-Limit", "5", "RateLimit-Remaining", "0", "RateLimit-Reset", "1"));
+		assertFalse(rateLimiter.acquire(host, TimeUnit.MILLISECONDS.toNanos(100)));
+		long pausedFor = rateLimiter.getBudget(host).getPausedFor();
+		assertTrue(pausedFor > 0L && pausedFor <= 1000L, "paused for " + pausedFor + "ms");
+	}
+
+	@Test
+	void parsesRetryAfterDates() {
+		String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(3));
+		long retryAfter = rateLimiter.update("date.test", response(503, "Retry-After", date));
+		assertTrue(retryAfter > TimeUnit.SECONDS.toNanos(1) && retryAfter <= TimeUnit.SECONDS.toNanos(3), "retry after " + retryAfter + "ns");
+
+		assertEquals(0L, rateLimiter.update("invalid.test", response(503, "Retry-After", "soon")));
+	}
+
+	private static HttpResponse response(int statusCode, String... headers) {
+		Map<String, String> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (int i = 0; i < headers.length; i += 2) {
+			map.put(headers[i], headers[i + 1]);
+		}
+		return new HttpResponse(statusCode, map, new byte[0]);
+	}
+
+}
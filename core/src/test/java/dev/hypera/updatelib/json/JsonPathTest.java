@@ -0,0 +1,81 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link JsonPath} compilation and selecting values with compiled paths.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class JsonPathTest {
+
+	@Test
+	void compilesSegments() {
+		assertArrayEquals(new Object[] { "resource", "updates", "latest", "version" }, JsonPath.compile("$.resource.updates.latest.version").getSegments());
+		assertArrayEquals(new Object[] { "resource", "version" }, JsonPath.compile("resource.version").getSegments());
+		assertArrayEquals(new Object[] { 0, "version_number" }, JsonPath.compile("[0].version_number").getSegments());
+		assertArrayEquals(new Object[] { 0, "version_number" }, JsonPath.compile("$[0].version_number").getSegments());
+		assertArrayEquals(new Object[] { "versions", 12, "files", 0 }, JsonPath.compile("versions[12].files[ 0 ]").getSegments());
+		assertArrayEquals(new Object[] { "release", 0 }, JsonPath.compile("$.release[0]").getSegments());
+	}
+
+	@Test
+	void compilesQuotedNames() {
+		assertArrayEquals(new Object[] { "tag.name" }, JsonPath.compile("['tag.name']").getSegments());
+		assertArrayEquals(new Object[] { "tags", "tag.name", "id" }, JsonPath.compile("$.tags[\"tag.name\"].id").getSegments());
+		assertArrayEquals(new Object[] { "a]b", "[0]" }, JsonPath.compile("$['a]b'][ \"[0]\" ]").getSegments());
+		assertArrayEquals(new Object[] { "it's" }, JsonPath.compile("[\"it's\"]").getSegments());
+		assertArrayEquals(new Object[] { "" }, JsonPath.compile("['']").getSegments());
+	}
+
+	@Test
+	void selectsValues() {
+		String json = "{\"tags\": {\"tag.name\": \"v2\", \"a]b\": [\"x\", \"y\"]}, \"versions\": [{\"id\": 1}, {\"id\": 2}]}";
+		assertEquals("v2", JsonPath.compile("$.tags['tag.name']").select(json));
+		assertEquals("y", JsonPath.compile("tags['a]b'][1]").select(json));
+		assertEquals("2", JsonPath.compile("versions[1].id").select(json));
+		assertNull(JsonPath.compile("versions[2].id").select(json));
+		assertNull(JsonPath.compile("tags.name").select(json));
+		assertNull(JsonPath.compile("tags[0]").select(json));
+		assertEquals("$.tags['tag.name']", JsonPath.compile("$.tags['tag.name']").toString());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "$", "a..b", "a.", "$x", "a[", "a[0", "a['b]", "a['b'", "a[-1]", "a[x]", "a[]", "a['b' c]", "a[0]b", "a[99999999999]" })
+	void rejectsInvalidPaths(String expression) {
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> JsonPath.compile(expression));
+		assertTrue(ex.getMessage().endsWith("in path '" + expression + "'."), ex.getMessage());
+	}
+
+}
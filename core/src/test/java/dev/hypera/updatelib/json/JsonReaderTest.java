@@ -0,0 +1,140 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link JsonReader} escapes, skipping nested values and malformed or truncated documents.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class JsonReaderTest {
+
+	private static final String DOCUMENT = "{\n"
+			+ "  \"name\": \"Example \\\"Plugin\\\"\",\n"
+			+ "  \"history\": [{\"version\": \"1.0.0\", \"notes\": [1, [2, {\"x\": null}], true, {}]}, {\"version\": \"2.0.0\"}],\n"
+			+ "  \"nested\": {\"a\": {\"b\": {\"c\": [[], {\"d\": \"}]\"}]}}},\n"
+			+ "  \"latest\": {\"version\": \"2.1.0\", \"downloads\": -1.5e3, \"stable\": false, \"notes\": null}\n"
+			+ "}";
+
+	@Test
+	void readsEscapes() {
+		assertEquals("Example \"Plugin\"", JsonReader.select(DOCUMENT, "name"));
+		assertEquals("a\\b/c\b\f\n\r\t", JsonReader.select("{\"v\": \"a\\\\b\\/c\\b\\f\\n\\r\\t\"}", "v"));
+		assertEquals("caf\u00e9 \ud83d\ude00", JsonReader.select("{\"v\": \"caf\\u00E9 \\ud83d\\ude00\"}", "v"));
+		assertEquals("quoted", JsonReader.select("{\"k\\\"ey\": \"quoted\"}", "k\"ey"));
+	}
+
+	@Test
+	void skipsNestedValues() {
+		assertEquals("2.1.0", JsonReader.select(DOCUMENT, "latest", "version"));
+		assertEquals("2.0.0", JsonReader.select(DOCUMENT, "history", 1, "version"));
+		assertEquals("}]", JsonReader.select(DOCUMENT, "nested", "a", "b", "c", 1, "d"));
+		assertEquals("-1.5e3", JsonReader.select(DOCUMENT, "latest", "downloads"));
+		assertEquals("false", JsonReader.select(DOCUMENT, "latest", "stable"));
+
+		JsonReader reader = new JsonReader(DOCUMENT);
+		reader.beginObject();
+		int properties = 0;
+		while (reader.hasNext()) {
+			reader.nextName();
+			reader.skipValue();
+			properties++;
+		}
+		reader.endObject();
+		assertEquals(4, properties);
+		assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+	}
+
+	@Test
+	void missingPathsSelectNothing() {
+		assertNull(JsonReader.select(DOCUMENT, "missing"));
+		assertNull(JsonReader.select(DOCUMENT, "history", 2, "version"));
+		assertNull(JsonReader.select(DOCUMENT, "history", "version"));
+		assertNull(JsonReader.select(DOCUMENT, "name", "first"));
+		assertNull(JsonReader.select(DOCUMENT, 0));
+		// Only scalar values are selected.
+		assertNull(JsonReader.select(DOCUMENT, "latest"));
+		assertNull(JsonReader.select(DOCUMENT, "latest", "notes"));
+	}
+
+	@Test
+	void selectStopsAtTheValue() {
+		// Anything after the selected value is never read, which lets responses be cut short.
+		String truncated = "{\"version\": \"1.0.0\", \"changelog\": \"...";
+		JsonReader reader = new JsonReader(truncated);
+		assertEquals("1.0.0", reader.select(new Object[] { "version" }));
+		assertEquals(truncated.indexOf(','), reader.getPosition());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"{\"version\": \"1.0", "{\"version\": ", "{\"version\"", "{\"a\": [1, 2", "{\"a\": {\"b\": 1}, \"version", "{\"v\\u00",
+			"{\"a\" 1, \"version\": \"1\"}", "{\"a\": 1 \"version\": \"1\"}", "{a: 1, \"version\": \"1\"}", "{\"a\": tru, \"version\": \"1\"}",
+			"{\"a\": [1 2], \"version\": \"1\"}", "{\"a\": \"\\uZZZZ\", \"version\": \"1\"}", ""
+	})
+	void rejectsMalformedAndTruncatedDocuments(String json) {
+		assertThrows(IllegalStateException.class, () -> JsonReader.select(json, "version"));
+	}
+
+	@Test
+	void limitsNesting() {
+		String nested = repeat("[", 64) + "\"deep\"" + repeat("]", 64);
+		Object[] path = new Object[64];
+		Arrays.fill(path, 0);
+		assertEquals("deep", JsonReader.select(nested, path));
+
+		String tooDeep = "{\"a\": " + repeat("[", 64) + repeat("]", 64) + ", \"version\": \"1\"}";
+		IllegalStateException ex = assertThrows(IllegalStateException.class, () -> JsonReader.select(tooDeep, "version"));
+		assertTrue(ex.getMessage().contains("nested too deeply"), ex.getMessage());
+	}
+
+	@Test
+	void rejectsTrailingContent() {
+		JsonReader reader = new JsonReader("{} {}");
+		reader.beginObject();
+		assertFalse(reader.hasNext());
+		reader.endObject();
+		assertThrows(IllegalStateException.class, reader::peek);
+	}
+
+	private static String repeat(String value, int count) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link SemanticVersion} parsing, precedence and hashing.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class SemanticVersionTest {
+
+	@Test
+	void equalVersionsHashEqually() {
+		for (String[] pair : new String[][] {
+				{ "1.0.0-rc.01", "1.0.0-rc.1" },
+				{ "1.0.0-RC.1", "1.0.0-rc.1" },
+				{ "1.0", "1.0.0" },
+				{ "v1.0.0", "1.0.0+build.5" },
+				{ "1.0.0-beta.007.x", "1.0-Beta.7.X" }
+		}) {
+			SemanticVersion a = SemanticVersion.parse(pair[0]);
+			SemanticVersion b = SemanticVersion.parse(pair[1]);
+			assertEquals(a, b, pair[0] + " and " + pair[1]);
+			assertEquals(a.hashCode(), b.hashCode(), pair[0] + " and " + pair[1]);
+		}
+
+		Set<SemanticVersion> versions = new HashSet<>(Arrays.asList(SemanticVersion.parse("1.0.0-rc.01"), SemanticVersion.parse("1.0.0-rc.1")));
+		assertEquals(1, versions.size());
+	}
+
+	@Test
+	void ordersByPrecedence() {
+		String[] ordered = { "1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta.2", "1.0.0-beta.11", "1.0.0-rc.1", "1.0.0", "1.0.1", "1.1", "2" };
+		for (int i = 1; i < ordered.length; i++) {
+			SemanticVersion lower = SemanticVersion.parse(ordered[i - 1]);
+			SemanticVersion higher = SemanticVersion.parse(ordered[i]);
+			assertTrue(lower.compareTo(higher) < 0, ordered[i - 1] + " < " + ordered[i]);
+			assertNotEquals(lower, higher);
+		}
+	}
+
+	@Test
+	void parsesLooseVersions() {
+		SemanticVersion version = SemanticVersion.parse("v1.2b3+abc");
+		assertEquals(1L, version.getMajor());
+		assertEquals(2L, version.getMinor());
+		assertEquals(0L, version.getPatch());
+		assertEquals("b3", version.getSuffix());
+		assertEquals("abc", version.getBuild());
+		assertEquals(4L, SemanticVersion.parse("1.2.3.4").getComponent(3));
+	}
+
+	@Test
+	void rejectsOversizedComponents() {
+		assertEquals(Long.MAX_VALUE, SemanticVersion.parse("9223372036854775807.1").getMajor());
+		// These wrap to a positive value when accumulated without a bound.
+		for (String version : new String[] { "9223372036854775808", "18446744073709551626", "1.99999999999999999999", "1.0.123456789012345678901234567890" }) {
+			assertThrows(IllegalArgumentException.class, () -> SemanticVersion.parse(version), version);
+		}
+	}
+
+	@Test
+	void rejectsNonNumericVersions() {
+		for (String version : new String[] { "", "v", "beta", "١.0" }) {
+			assertThrows(IllegalArgumentException.class, () -> SemanticVersion.parse(version), version);
+		}
+	}
+
+}
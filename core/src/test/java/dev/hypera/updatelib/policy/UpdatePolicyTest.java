@@ -0,0 +1,134 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link UpdatePolicy} parsing, operator precedence and every kind of term.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class UpdatePolicyTest {
+
+	@ParameterizedTest(name = "{0} with {2}")
+	@CsvSource({
+			// Version ranges.
+			">=4.0, 4.0.0, true", ">=4.0, 3.9.9, false", ">=4.0, 4.0.0-rc.1, false", "'>= 4.0', 4.1, true",
+			">4, 4.0.1, true", ">4, 4.0.0, false",
+			"<=4.2.1, 4.2.1, true", "<=4.2.1, 4.2.2, false",
+			"<5, 4.9.9, true", "<5, 5.0.0-alpha, true", "<5, 5.0.0, false",
+			"=4.1.0, 4.1, true", "==4.1.0, 4.1.0+build.7, true", "4.1.0, v4.1.0, true", "=4.1.0, 4.1.1, false",
+			"!=4.1.0, 4.1.1, true", "!=4.1.0, 4.1.0, false", "!=4.1.0, unknown, true",
+			// Tilde and caret ranges.
+			"~4.1.2, 4.1.2, true", "~4.1.2, 4.1.9, true", "~4.1.2, 4.1.1, false", "~4.1.2, 4.2.0, false",
+			"^4.1, 4.1.0, true", "^4.1, 4.9.0, true", "^4.1, 4.0.9, false", "^4.1, 5.0.0, false",
+			// Release lines.
+			"4.x, 4.0.0, true", "4.x, 4.9.9, true", "4.x, 5.0, false", "4.X, 4.2, true",
+			"4.1.*, 4.1.3, true", "4.1.*, 4.2.0, false", "4.x, unknown, false",
+			// Release channels.
+			"release, 1.0.0, true", "stable, 1.0.0-beta, false", "prerelease, 1.0.0-beta, true", "prerelease, 1.0.0, false",
+			"channel:beta, 1.0.0-beta.2, true", "channel:beta, 1.0.0-BETA, true", "channel:beta, 1.0.0-alpha, false", "channel:beta, 1.0.0, false",
+			"channel:release, 1.0.0, true", "channel:stable, 1.0.0-rc.1, false", "release, unknown, false",
+			// Globs.
+			"*-SNAPSHOT, 1.0-SNAPSHOT, true", "*-SNAPSHOT, 1.0-snapshot, true", "*-SNAPSHOT, 1.0, false",
+			"'\"1.0 *\"', 1.0 beta, true", "'\"1.0 *\"', 1.0.1, false", "1.?.0, 1.5.0, true", "1.?.0, 1.5.1, false", "*, unknown, true"
+	})
+	void termsMatchVersions(String expression, String distributed, boolean allowed) {
+		assertEquals(allowed, UpdatePolicy.compile(expression).allows("1.0.0", distributed));
+	}
+
+	@ParameterizedTest(name = "{0} from {1} to {2}")
+	@CsvSource({
+			"update:major, 1.2.3, 2.0.0, true", "update:major, 1.2.3, 1.3.0, false",
+			"update:minor, 1.2.3, 1.3.0, true", "update:minor, 1.2.3, 1.2.4, false", "update:minor, 1.2.3, 2.0.0, false",
+			"update:patch, 1.2.3, 1.2.4, true", "update:patch, 1.2.3, 1.2.3.1, true", "update:patch, 1.2.3, 1.3.0, false",
+			// Versions only differing in their pre-release suffix are patch updates.
+			"update:patch, 1.2.3-beta, 1.2.3, true", "update:minor, 1.2.3-beta, 1.2.3, false",
+			"update:patch, unknown, 1.2.4, false", "update:major, 1.2.3, unknown, false"
+	})
+	void updateTermsCompareWithTheCurrentVersion(String expression, String current, String distributed, boolean allowed) {
+		assertEquals(allowed, UpdatePolicy.compile(expression).allows(current, distributed));
+	}
+
+	@Test
+	void andBindsTighterThanOr() {
+		UpdatePolicy policy = UpdatePolicy.compile("5.x || 4.x && prerelease");
+		assertTrue(policy.allows("1.0.0", "5.0.0"));
+		assertFalse(policy.allows("1.0.0", "4.1.0"));
+		assertTrue(policy.allows("1.0.0", "4.1.0-beta"));
+
+		UpdatePolicy grouped = UpdatePolicy.compile("(5.x || 4.x) && prerelease");
+		assertFalse(grouped.allows("1.0.0", "5.0.0"));
+		assertTrue(grouped.allows("1.0.0", "5.0.0-beta"));
+		assertTrue(grouped.allows("1.0.0", "4.1.0-beta"));
+	}
+
+	@Test
+	void whitespaceAndCommasMeanAnd() {
+		for (String expression : new String[] { "4.x && !prerelease", "4.x !prerelease", "4.x,!prerelease", "4.x , !prerelease" }) {
+			UpdatePolicy policy = UpdatePolicy.compile(expression);
+			assertTrue(policy.allows("1.0.0", "4.1.0"), expression);
+			assertFalse(policy.allows("1.0.0", "4.1.0-beta"), expression);
+			assertFalse(policy.allows("1.0.0", "5.0.0"), expression);
+		}
+	}
+
+	@Test
+	void negation() {
+		assertFalse(UpdatePolicy.compile("!prerelease").allows("1.0.0", "2.0.0-rc.1"));
+		assertTrue(UpdatePolicy.compile("!!release").allows("1.0.0", "2.0.0"));
+		assertTrue(UpdatePolicy.compile("!*-SNAPSHOT").allows("1.0.0", "2.0.0"));
+		assertFalse(UpdatePolicy.compile("!*-SNAPSHOT").allows("1.0.0", "2.0.0-SNAPSHOT"));
+
+		UpdatePolicy policy = UpdatePolicy.compile("!(4.x || 5.x) && !update:major");
+		assertTrue(policy.allows("3.0.0", "3.1.0"));
+		assertFalse(policy.allows("3.0.0", "6.0.0"));
+		assertFalse(policy.allows("4.0.0", "4.1.0"));
+
+		// != is a comparison, not a negated term.
+		assertTrue(UpdatePolicy.compile("!=4.1.0 && 4.x").allows("1.0.0", "4.2.0"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "   ", ",", "(4.x", "4.x)", "()", "4.x ||", "4.x &&", "|| 4.x", "!", ">=", ">= abc", "~x", "foo", "update:huge", "\"1.0 *", "4.x (5.x" })
+	void rejectsMalformedExpressions(String expression) {
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> UpdatePolicy.compile(expression));
+		assertTrue(ex.getMessage().endsWith("in policy '" + expression + "'."), ex.getMessage());
+	}
+
+	@Test
+	void keepsItsExpression() {
+		assertEquals("4.x && !prerelease", UpdatePolicy.compile("4.x && !prerelease").toString());
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.RequestContext;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.testing.FixtureServer;
+import dev.hypera.updatelib.testing.FixtureServer.Request;
+import dev.hypera.updatelib.testing.FixtureServer.Response;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link JsonVersionResolver} and its builder against a local {@link FixtureServer}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class JsonVersionResolverTest {
+
+	private FixtureServer server;
+	private UpdateLib updateLib;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FixtureServer.start();
+		updateLib = FixtureServer.updateLib();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void resolvesVersionAtPath() throws Exception {
+		server.fixture("/v1/resources/42", 200, "json/resource.json");
+		JsonVersionResolver resolver = builder().header("Accept", "application/json").build();
+
+		assertEquals(server.getBaseUrl() + "/v1/resources/42?id=42", resolver.getUrl(42L));
+		assertEquals("2.1.0", resolver.getVersion(updateLib, 42L));
+
+		Request request = server.getRequests().get(0);
+		assertEquals("id=42", request.getQuery());
+		assertEquals("application/json", request.getHeader("Accept"));
+
+		assertEquals("v2.1.0", builder().version("$.resource.tags['tag.name']").build().getVersion(updateLib, 42L));
+		assertEquals("1.0.0", builder().version("resource.history[1].version").build().getVersion(updateLib, 42L));
+		assertEquals("42", builder().version("$.resource.id").build().getVersion(updateLib, 42L));
+	}
+
+	@Test
+	void missingVersionFailsToParse() {
+		server.fixture("/v1/resources/42", 200, "json/resource.json");
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> builder().version("$.resource.updates.latest.name").build().getVersion(updateLib, 42L));
+		assertEquals(FailureReason.PARSE_ERROR, ex.getReason());
+		assertTrue(ex.getMessage().contains("$.resource.updates.latest.name"), ex.getMessage());
+
+		// A value that is not a scalar is not a version either.
+		ex = assertThrows(VersionResolveFailureException.class, () -> builder().version("$.resource.updates").build().getVersion(updateLib, 42L));
+		assertEquals(FailureReason.PARSE_ERROR, ex.getReason());
+	}
+
+	@Test
+	void truncatedBodyFailsToParse() {
+		server.route("/v1/resources/42", request -> new Response(200, "{\"success\": true, \"resource\": {\"updates\": {\"latest\": {\"vers"));
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> builder().build().getVersion(updateLib, 42L));
+		assertEquals(FailureReason.PARSE_ERROR, ex.getReason());
+	}
+
+	@Test
+	void errorStatusRules() {
+		server.route("/v1/resources/42", request -> new Response(500, ""));
+		JsonVersionResolver resolver = builder().name("Example").errorStatus(404, FailureReason.INVALID_RESOURCE).build();
+
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(updateLib, 7L));
+		assertEquals(FailureReason.INVALID_RESOURCE, ex.getReason());
+		assertEquals("Example's API responded with a 404 status code.", ex.getMessage());
+
+		// Status codes without a rule fail as they are.
+		ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(updateLib, 42L));
+		assertEquals(FailureReason.HTTP_STATUS, ex.getReason());
+		assertEquals(500, ex.getStatusCode());
+	}
+
+	@Test
+	void errorValueRules() throws Exception {
+		JsonVersionResolver resolver = builder().errorWhen("$.success", value -> !"true".equals(value), FailureReason.INVALID_RESOURCE).build();
+
+		server.fixture("/v1/resources/42", 200, "json/resource.json");
+		assertEquals("2.1.0", resolver.getVersion(updateLib, 42L));
+
+		server.fixture("/v1/resources/42", 200, "json/error.json");
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(updateLib, 42L));
+		assertEquals(FailureReason.INVALID_RESOURCE, ex.getReason());
+		assertEquals("127.0.0.1's API responded with an error at '$.success'.", ex.getMessage());
+
+		// The predicate is given null when the response does not contain the value.
+		server.route("/v1/resources/42", request -> new Response(200, "{\"resource\": {\"updates\": {\"latest\": {\"version\": \"2.1.0\"}}}}"));
+		ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(updateLib, 42L));
+		assertEquals(FailureReason.INVALID_RESOURCE, ex.getReason());
+	}
+
+	@Test
+	void stopsReadingOnceEveryValueArrived() {
+		String padding = padding(256 * 1024);
+		String versionFirst = "{\"resource\": {\"updates\": {\"latest\": {\"version\": \"2.1.0\"}}}, \"padding\": " + padding + ", \"success\": true}";
+		server.route("/v1/resources/42", request -> new Response(200, versionFirst));
+
+		// Only the version is needed, everything after it is left unread.
+		AtomicReference<String> version = new AtomicReference<>();
+		long bodyBytes = resolve(builder().build(), version);
+		assertEquals("2.1.0", version.get());
+		assertTrue(bodyBytes < versionFirst.length() / 4, bodyBytes + " of " + versionFirst.length() + " bytes read");
+
+		// A rule checking a value after the padding needs the whole body.
+		bodyBytes = resolve(builder().errorWhen("$.success", value -> !"true".equals(value), FailureReason.INVALID_RESOURCE).build(), version);
+		assertEquals("2.1.0", version.get());
+		assertEquals(versionFirst.length(), bodyBytes);
+	}
+
+	private long resolve(JsonVersionResolver resolver, AtomicReference<String> version) {
+		RequestContext context = new RequestContext(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+		version.set(null);
+		context.run(() -> {
+			try {
+				version.set(resolver.getVersion(updateLib, 42L));
+			} catch (VersionResolveFailureException ex) {
+				throw new AssertionError(ex);
+			}
+		});
+		return context.getBodyBytes();
+	}
+
+	private JsonVersionResolverBuilder builder() {
+		return JsonVersionResolver.builder().url(server.getBaseUrl() + "/v1/resources/{id}?id={id}").version("$.resource.updates.latest.version");
+	}
+
+	private static String padding(int length) {
+		StringBuilder builder = new StringBuilder("[");
+		while (builder.length() < length) {
+			builder.append("{\"version\": \"0.0.0\", \"notes\": [1, 2, 3]}, ");
+		}
+		return builder.append("{}]").toString();
+	}
+
+}
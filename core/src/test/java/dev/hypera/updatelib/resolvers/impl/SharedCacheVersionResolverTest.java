@@ -0,0 +1,127 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.cache.SharedVersionCache;
+import dev.hypera.updatelib.testing.FixtureServer;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link SharedCacheVersionResolver} with and without the poller lease.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class SharedCacheVersionResolverTest {
+
+	private static final long RESOLVER_KEY = SharedVersionCache.key("test");
+
+	private Path path;
+	private SharedVersionCache cache;
+	private final AtomicInteger resolved = new AtomicInteger();
+	private final List<String> threads = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		path = Files.createTempFile("updatelib-cache", ".bin");
+		Files.delete(path);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (null != cache) {
+			cache.close();
+		}
+		Files.deleteIfExists(path);
+	}
+
+	@Test
+	void resolvesExpiredEntriesOfOtherJvms() throws Exception {
+		// Another process holding the lease, and renewing it, is simulated with a second channel on the same file.
+		cache = SharedVersionCache.open(path, 64);
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			try (FileLock ignored = file.getChannel().lock(40L, 8L, false)) {
+				file.getChannel().map(MapMode.READ_WRITE, 0, 64).putLong(48, System.currentTimeMillis());
+
+				long now = System.currentTimeMillis();
+				cache.put(RESOLVER_KEY, 1L, "1.0.0", now - TimeUnit.SECONDS.toMillis(2));
+				cache.put(RESOLVER_KEY, 2L, "2.0.0", now);
+
+				SharedCacheVersionResolver resolver = resolver(1L, TimeUnit.SECONDS);
+				UpdateLib updateLib = FixtureServer.updateLib();
+				assertEquals("2.0.0", resolver.getVersion(updateLib, 2L));
+				assertEquals(0, resolved.get());
+
+				// Nobody refreshes the expired entry, so it is resolved again instead of being served stale.
+				assertEquals("1.0.1", resolver.getVersion(updateLib, 1L));
+				assertEquals(1, resolved.get());
+				assertEquals("1.0.1", cache.get(RESOLVER_KEY, 1L).getVersion());
+				assertTrue(!cache.isPoller());
+			}
+		}
+	}
+
+	@Test
+	void pollerRefreshesOnTheCheckExecutor() throws Exception {
+		cache = SharedVersionCache.open(path, 64);
+		SharedCacheVersionResolver resolver = resolver(200L, TimeUnit.MILLISECONDS);
+		UpdateLib updateLib = FixtureServer.updateLib();
+		assertEquals("1.0.1", resolver.getVersion(updateLib, 1L));
+		assertTrue(cache.isPoller());
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (resolved.get() < 3) {
+			assertTrue(System.nanoTime() < deadline, "Timed out waiting for refreshes");
+			Thread.sleep(10L);
+		}
+		for (String thread : threads.subList(1, threads.size())) {
+			assertNotEquals("UpdateLib-SharedCache-Refresher", thread);
+		}
+		updateLib.close();
+	}
+
+	private SharedCacheVersionResolver resolver(long timeToLive, TimeUnit unit) {
+		return new SharedCacheVersionResolver((updateLib, resourceId) -> {
+			resolved.incrementAndGet();
+			threads.add(Thread.currentThread().getName());
+			return resourceId + ".0.1";
+		}, cache, "test", timeToLive, unit);
+	}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.testing;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.hypera.updatelib.UpdateLib;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Local http server answering requests with recorded fixtures, used to test resolvers without reaching the real APIs.
+ * <p>
+ * Fixtures are classpath resources below {@code fixtures/}, routed by request path. Query strings are ignored for
+ * routing but kept in the {@link #getRequests() recorded requests}. Requests to unrouted paths are answered with a
+ * {@code 404}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class FixtureServer implements AutoCloseable {
+
+	private final HttpServer server;
+	private final Map<String, Handler> routes = new ConcurrentHashMap<>();
+	private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+	private FixtureServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	/**
+	 * Start a fixture server on a free port.
+	 * @return Running fixture server.
+	 * @throws IOException if the server could not be started.
+	 */
+	public static @NotNull FixtureServer start() throws IOException {
+		return new FixtureServer();
+	}
+
+	/**
+	 * Create an {@link UpdateLib} instance carrying only http settings, to be passed to resolvers under test.
+	 * @return {@link UpdateLib} instance.
+	 */
+	public static @NotNull UpdateLib updateLib() {
+		return new UpdateLib(2000, 2000, 5000L, 1024 * 1024) {};
+	}
+
+	/**
+	 * Answer requests to a path with a fixture.
+	 * @param path Request path, without a query string.
+	 * @param status Http status code.
+	 * @param fixture Fixture resource name, relative to {@code fixtures/}.
+	 * @param headers Response headers, as alternating names and values.
+	 * @return This fixture server.
+	 */
+	public @NotNull FixtureServer fixture(@NotNull String path, int status, @NotNull String fixture, @NotNull String... headers) {
+		byte[] body = load(fixture);
+		return route(path, request -> new Response(status, body, headers));
+	}
+
+	/**
+	 * Answer requests to a path with a handler.
+	 * @param path Request path, without a query string.
+	 * @param handler Handler.
+	 * @return This fixture server.
+	 */
+	public @NotNull FixtureServer route(@NotNull String path, @NotNull Handler handler) {
+		routes.put(path, handler);
+		return this;
+	}
+
+	/**
+	 * Get the base url of this server, to be passed to resolvers.
+	 * @return Base url without a trailing slash.
+	 */
+	public @NotNull String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Get the requests received so far, in order.
+	 * @return Received requests.
+	 */
+	public @NotNull List<Request> getRequests() {
+		return Collections.unmodifiableList(new ArrayList<>(requests));
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	/**
+	 * Load a fixture.
+	 * @param fixture Fixture resource name, relative to {@code fixtures/}.
+	 * @return Fixture contents.
+	 */
+	public static byte[] load(@NotNull String fixture) {
+		try (InputStream stream = FixtureServer.class.getClassLoader().getResourceAsStream("fixtures/" + fixture)) {
+			if (null == stream) {
+				throw new IllegalArgumentException("Fixture '" + fixture + "' does not exist.");
+			}
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				output.write(buffer, 0, read);
+			}
+			return output.toByteArray();
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private void handle(@NotNull HttpExchange exchange) throws IOException {
+		try {
+			Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+				headers.put(header.getKey(), header.getValue().get(0));
+			}
+
+			Request request = new Request(exchange.getRequestURI().getRawPath(), exchange.getRequestURI().getRawQuery(), headers);
+			requests.add(request);
+
+			Handler handler = routes.get(request.getPath());
+			Response response = null == handler ? new Response(404, new byte[0]) : handler.handle(request);
+
+			Headers responseHeaders = exchange.getResponseHeaders();
+			for (int i = 0; i + 1 < response.headers.length; i += 2) {
+				responseHeaders.add(response.headers[i], response.headers[i + 1]);
+			}
+
+			boolean empty = response.body.length == 0 || response.status == 304;
+			exchange.sendResponseHeaders(response.status, empty ? -1 : response.body.length);
+			if (!empty) {
+				try (OutputStream output = exchange.getResponseBody()) {
+					output.write(response.body);
+				}
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Fixture request handler
+	 */
+	@FunctionalInterface
+	public interface Handler {
+
+		/**
+		 * Answer a request.
+		 * @param request Received request.
+		 * @return Response.
+		 * @throws IOException if the response could not be created.
+		 */
+		@NotNull Response handle(@NotNull Request request) throws IOException;
+
+	}
+
+	/**
+	 * Request received by a fixture server
+	 */
+	public static class Request {
+
+		private final String path;
+		private final String query;
+		private final Map<String, String> headers;
+
+		private Request(@NotNull String path, @Nullable String query, @NotNull Map<String, String> headers) {
+			this.path = path;
+			this.query = query;
+			this.headers = headers;
+		}
+
+		public @NotNull String getPath() {
+			return path;
+		}
+
+		public @Nullable String getQuery() {
+			return query;
+		}
+
+		public @Nullable String getHeader(@NotNull String name) {
+			return headers.get(name);
+		}
+
+	}
+
+	/**
+	 * Response sent by a fixture server
+	 */
+	public static class Response {
+
+		private final int status;
+		private final byte[] body;
+		private final String[] headers;
+
+		/**
+		 * Create a new response.
+		 * @param status Http status code.
+		 * @param body Response body.
+		 * @param headers Response headers, as alternating names and values.
+		 */
+		public Response(int status, byte[] body, @NotNull String... headers) {
+			this.status = status;
+			this.body = body;
+			this.headers = headers;
+		}
+
+		/**
+		 * Create a new response with a text body.
+		 * @param status Http status code.
+		 * @param body Response body.
+		 * @param headers Response headers, as alternating names and values.
+		 */
+		public Response(int status, @NotNull String body, @NotNull String... headers) {
+			this(status, body.getBytes(StandardCharsets.UTF_8), headers);
+		}
+
+	}
+
+}
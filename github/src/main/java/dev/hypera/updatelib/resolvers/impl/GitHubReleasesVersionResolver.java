@@ -0,0 +1,132 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.BodyCompletion;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.json.JsonReader;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * GitHub Releases version resolver, uses the GitHub REST API to get the latest release of a repository.
+ * <p>
+ * The resource identifier is the numeric repository identifier. Responses are revalidated with their ETag, so
+ * unchanged releases are answered with a 304 which does not count towards GitHub's rate limit. A leading {@code v} is
+ * removed from the release tag.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class GitHubReleasesVersionResolver implements IVersionResolver {
+
+	private static final String DEFAULT_BASE_URL = "https://api.github.com";
+	private static final String URL_FORMAT = "%s/repositories/%s/releases/latest";
+	private static final BodyCompletion COMPLETION = BodyCompletion.json("tag_name");
+
+	private final String baseUrl;
+	private final String token;
+	private final Map<Long, CachedRelease> releases = new ConcurrentHashMap<>();
+
+	public GitHubReleasesVersionResolver() {
+		this(DEFAULT_BASE_URL, null);
+	}
+
+	/**
+	 * Create a new GitHub Releases version resolver.
+	 * @param baseUrl API base url without a trailing slash, for example a GitHub Enterprise instance.
+	 * @param token Access token, or {@code null} to make unauthenticated requests.
+	 */
+	public GitHubReleasesVersionResolver(@NotNull String baseUrl, String token) {
+		this.baseUrl = baseUrl;
+		this.token = token;
+	}
+
+	/**
+	 * Get the latest release of a GitHub repository.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if something went wrong while getting the version.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		try {
+			Map<String, String> headers = new HashMap<>();
+			headers.put("Accept", "application/vnd.github+json");
+			if (null != token) {
+				headers.put("Authorization", "Bearer " + token);
+			}
+
+			CachedRelease cached = releases.get(resourceId);
+			if (null != cached) {
+				headers.put("If-None-Match", cached.etag);
+			}
+
+			HttpResponse response = HttpTransport.get(updateLib, String.format(URL_FORMAT, baseUrl, resourceId), headers, COMPLETION);
+			if (response.getStatusCode() == 304 && null != cached) {
+				return cached.version;
+			}
+			if (response.getStatusCode() != 200) {
+				throw new VersionResolveFailureException(response.getStatusCode(), "GitHub's API did not respond with a 200 status code.");
+			}
+
+			String version = JsonReader.select(response.getBody(), "tag_name");
+			if (null == version) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, "GitHub's API response did not contain a release tag.");
+			}
+			if (version.length() > 1 && (version.charAt(0) == 'v' || version.charAt(0) == 'V') && Character.isDigit(version.charAt(1))) {
+				version = version.substring(1);
+			}
+
+			String etag = response.getHeader("ETag");
+			if (null != etag) {
+				releases.put(resourceId, new CachedRelease(etag, version));
+			}
+
+			return version;
+		} catch (Exception ex) {
+			throw VersionResolveFailureException.wrap(ex);
+		}
+	}
+
+	private static class CachedRelease {
+
+		private final String etag;
+		private final String version;
+
+		private CachedRelease(String etag, String version) {
+			this.etag = etag;
+			this.version = version;
+		}
+
+	}
+
+}
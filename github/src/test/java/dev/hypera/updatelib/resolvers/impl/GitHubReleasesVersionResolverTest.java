@@ -0,0 +1,115 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.testing.FixtureServer;
+import dev.hypera.updatelib.testing.FixtureServer.Response;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link GitHubReleasesVersionResolver} against recorded GitHub API responses.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class GitHubReleasesVersionResolverTest {
+
+	private static final String PATH = "/repositories/364206588/releases/latest";
+	private static final String ETAG = "W/\"5f6e4cc1d6ac9b7e0fbd1c7b4b7f7a3a\"";
+
+	private FixtureServer server;
+	private GitHubReleasesVersionResolver resolver;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FixtureServer.start();
+		resolver = new GitHubReleasesVersionResolver(server.getBaseUrl(), "test-token");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void resolvesLatestReleaseWithoutPrefix() throws Exception {
+		server.fixture(PATH, 200, "github/latest-release.json", "Content-Type", "application/json; charset=utf-8");
+		assertEquals("4.0.0", resolver.getVersion(FixtureServer.updateLib(), 364206588L));
+
+		assertEquals("application/vnd.github+json", server.getRequests().get(0).getHeader("Accept"));
+		assertEquals("Bearer test-token", server.getRequests().get(0).getHeader("Authorization"));
+	}
+
+	@Test
+	void revalidatesWithETag() throws Exception {
+		byte[] release = FixtureServer.load("github/latest-release.json");
+		AtomicInteger full = new AtomicInteger();
+		server.route(PATH, request -> {
+			if (ETAG.equals(request.getHeader("If-None-Match"))) {
+				return new Response(304, new byte[0], "ETag", ETAG);
+			}
+			full.incrementAndGet();
+			return new Response(200, release, "ETag", ETAG, "Content-Type", "application/json; charset=utf-8");
+		});
+
+		assertEquals("4.0.0", resolver.getVersion(FixtureServer.updateLib(), 364206588L));
+		assertEquals("4.0.0", resolver.getVersion(FixtureServer.updateLib(), 364206588L));
+
+		assertNull(server.getRequests().get(0).getHeader("If-None-Match"));
+		assertEquals(ETAG, server.getRequests().get(1).getHeader("If-None-Match"));
+		assertEquals(1, full.get());
+	}
+
+	@Test
+	void notModifiedWithoutCachedReleaseFails() {
+		server.route(PATH, request -> new Response(304, new byte[0]));
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(FixtureServer.updateLib(), 364206588L));
+		assertEquals(FailureReason.HTTP_STATUS, ex.getReason());
+		assertEquals(304, ex.getStatusCode());
+	}
+
+	@Test
+	void repositoryWithoutReleasesFailsWithStatus() {
+		server.fixture(PATH, 404, "github/not-found.json", "Content-Type", "application/json; charset=utf-8");
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(FixtureServer.updateLib(), 364206588L));
+		assertEquals(FailureReason.HTTP_STATUS, ex.getReason());
+		assertEquals(404, ex.getStatusCode());
+	}
+
+	@Test
+	void releaseWithoutTagIsParseError() {
+		server.route(PATH, request -> new Response(200, "{\"id\":58120331,\"name\":\"Untagged\"}"));
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(FixtureServer.updateLib(), 364206588L));
+		assertEquals(FailureReason.PARSE_ERROR, ex.getReason());
+	}
+
+}
@@ -25,25 +25,38 @@ package dev.hypera.updatelib.resolvers.impl;
 
 import dev.hypera.updatelib.UpdateLib;
 import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.objects.enums.FailureReason;
 import dev.hypera.updatelib.resolvers.IVersionResolver;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.stream.Collectors;
-import javax.net.ssl.HttpsURLConnection;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Spigot version resolver, uses the legacy SpigotMC API to get the latest version of a resource.
+ * Hangar version resolver, uses the Hangar v1 API to get the latest release of a project.
  *
  * @author Joshua Sing <joshua@hypera.dev>
  */
-public class LegacySpigotVersionResolver implements IVersionResolver {
+public class HangarVersionResolver implements IVersionResolver {
 
-	private static final String URL_FORMAT = "https://api.spigotmc.org/legacy/update.php?resource=%s";
+	private static final String DEFAULT_BASE_URL = "https://hangar.papermc.io";
+	private static final String URL_FORMAT = "%s/api/v1/projects/%s/latestrelease";
+
+	private final String baseUrl;
+
+	public HangarVersionResolver() {
+		this(DEFAULT_BASE_URL);
+	}
 
 	/**
-	 * Get the current version of a SpigotMC resource.
+	 * Create a new Hangar version resolver using a different Hangar instance.
+	 * @param baseUrl Hangar base url, without a trailing slash.
+	 */
+	public HangarVersionResolver(@NotNull String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	/**
+	 * Get the current version of a Hangar project.
 	 * @param updateLib {@link UpdateLib} instance.
 	 * @param resourceId Resource identifier.
 	 * @return Current distributed version.
@@ -52,26 +65,19 @@ public class LegacySpigotVersionResolver implements IVersionResolver {
 	@Override
 	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
 		try {
-			URL url = new URL(String.format(URL_FORMAT, resourceId));
-			HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-			connection.setConnectTimeout(updateLib.getTimeout());
-			connection.setReadTimeout(updateLib.getTimeout());
-
-			if (connection.getResponseCode() != 200) {
-				throw new VersionResolveFailureException("SpigotMC's legacy API did not respond with a 200 status code.");
+			HttpResponse response = HttpTransport.get(updateLib, String.format(URL_FORMAT, baseUrl, resourceId));
+			if (response.getStatusCode() != 200) {
+				throw new VersionResolveFailureException(response.getStatusCode(), "Hangar's API did not respond with a 200 status code.");
 			}
 
-			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			String data = bufferedReader.lines().collect(Collectors.joining());
-			bufferedReader.close();
-
-			if (data.contains("Invalid")) {
-				throw new VersionResolveFailureException("SpigotMC's legacy API responded with an invalid resource error.");
+			String data = response.getBody().trim();
+			if (data.isEmpty()) {
+				throw new VersionResolveFailureException(FailureReason.INVALID_RESOURCE, "Hangar's API responded with an empty version.");
 			}
 
 			return data;
 		} catch (Exception ex) {
-			throw new VersionResolveFailureException(ex);
+			throw VersionResolveFailureException.wrap(ex);
 		}
 	}
 
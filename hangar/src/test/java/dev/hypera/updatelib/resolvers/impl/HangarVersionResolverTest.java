@@ -0,0 +1,78 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.testing.FixtureServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link HangarVersionResolver} against recorded Hangar API responses.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class HangarVersionResolverTest {
+
+	private FixtureServer server;
+	private HangarVersionResolver resolver;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FixtureServer.start();
+		resolver = new HangarVersionResolver(server.getBaseUrl());
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void resolvesLatestRelease() throws Exception {
+		server.fixture("/api/v1/projects/137/latestrelease", 200, "hangar/latestrelease.txt", "Content-Type", "text/plain");
+		assertEquals("2.3.0", resolver.getVersion(FixtureServer.updateLib(), 137L));
+	}
+
+	@Test
+	void unknownProjectFailsWithStatus() {
+		server.fixture("/api/v1/projects/137/latestrelease", 404, "hangar/not-found.json", "Content-Type", "application/json");
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(FixtureServer.updateLib(), 137L));
+		assertEquals(FailureReason.HTTP_STATUS, ex.getReason());
+		assertEquals(404, ex.getStatusCode());
+	}
+
+	@Test
+	void emptyReleaseIsInvalid() {
+		server.route("/api/v1/projects/137/latestrelease", request -> new FixtureServer.Response(200, "\n"));
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(FixtureServer.updateLib(), 137L));
+		assertEquals(FailureReason.INVALID_RESOURCE, ex.getReason());
+	}
+
+}
@@ -0,0 +1,328 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.harness;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.ref.WeakReference;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Leak check, reloads a {@link SyntheticPlugin} in a fresh classloader thousands of times and fails unless the old
+ * classloaders are collected, memory stays flat and no UpdateLib thread is left running.
+ * <p>
+ * Every plugin checks against a local stub serving the legacy API and an event stream, and watches a file that is
+ * touched now and then. By default each plugin classloader also defines its own copy of UpdateLib, as a plugin
+ * shading it would, so anything UpdateLib leaves running keeps that classloader reachable. On Java 11 and newer the
+ * stub's cleartext requests are sent with {@code java.net.http} unless {@code updatelib.http.engine} is set.
+ * <p>
+ * Run with {@code java -cp <classpath> dev.hypera.updatelib.harness.LeakCheck [options]}, options are:
+ * <pre>
+ * --reloads &lt;n&gt;            simulated reloads (5000)
+ * --mode &lt;close|abandon&gt;   close the plugin's UpdateLib instance on disable, or just drop it (close)
+ * --shaded &lt;true|false&gt;    give every plugin its own copy of UpdateLib (true)
+ * --settle &lt;ms&gt;            time for idle threads to exit, waited again for threads of collected instances (6000)
+ * --max-live &lt;n&gt;           plugin classloaders allowed to be reachable at the end (16)
+ * --max-metaspace &lt;KB&gt;      metaspace growth allowed between the first and last sample (4096)
+ * --max-heap &lt;KB&gt;           heap growth allowed between the first and last sample (16384)
+ * </pre>
+ * Exits with status 1 if a limit is exceeded. A shorter run is part of the harness tests.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class LeakCheck {
+
+	static final int MAX_LIVE = 16;
+	static final long MAX_METASPACE = 4096L * 1024L;
+	static final long MAX_HEAP = 16384L * 1024L;
+	private static final int SAMPLES = 10;
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+		int reloads = Integer.parseInt(options.getOrDefault("reloads", "5000"));
+		boolean close = options.getOrDefault("mode", "close").equals("close");
+		boolean shaded = Boolean.parseBoolean(options.getOrDefault("shaded", "true"));
+		long settle = Long.parseLong(options.getOrDefault("settle", "6000"));
+		int maxLive = Integer.parseInt(options.getOrDefault("max-live", Integer.toString(MAX_LIVE)));
+		long maxMetaspace = Long.parseLong(options.getOrDefault("max-metaspace", Long.toString(MAX_METASPACE / 1024L))) * 1024L;
+		long maxHeap = Long.parseLong(options.getOrDefault("max-heap", Long.toString(MAX_HEAP / 1024L))) * 1024L;
+
+		Result result = run(reloads, close, shaded, settle);
+		boolean passed = result.getLive() <= maxLive && result.getMetaspaceGrowth() <= maxMetaspace && result.getHeapGrowth() <= maxHeap && result.getThreads().isEmpty();
+		System.out.printf("%s: %d live classloaders (max %d), metaspace %+d KB (max %d), heap %+d KB (max %d), threads left %s%n", passed ? "PASS" : "FAIL", result.getLive(), maxLive, result.getMetaspaceGrowth() / 1024, maxMetaspace / 1024, result.getHeapGrowth() / 1024, maxHeap / 1024, result.getThreads());
+		System.exit(passed ? 0 : 1);
+	}
+
+	/**
+	 * Run the leak check.
+	 * @param reloads Simulated reloads.
+	 * @param close Whether plugins close their UpdateLib instance on disable, instead of just dropping it.
+	 * @param shaded Whether every plugin gets its own copy of UpdateLib.
+	 * @param settle Time for idle threads to exit before the last sample, in milliseconds.
+	 * @return Result.
+	 * @throws Exception if the stub or a plugin could not be started.
+	 */
+	static @NotNull Result run(int reloads, boolean close, boolean shaded, long settle) throws Exception {
+		if (null == System.getProperty("updatelib.http.engine")) {
+			System.setProperty("updatelib.http.engine", "httpclient");
+		}
+		ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "LeakCheck-Stub");
+			thread.setDaemon(true);
+			return thread;
+		});
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+		server.createContext("/legacy/update.php", exchange -> respond(exchange, "1.0.1"));
+		server.createContext("/events", LeakCheck::stream);
+		server.setExecutor(executor);
+		server.start();
+		String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+		Path watched = Files.createTempDirectory("updatelib-leakcheck").resolve("version.txt");
+
+		List<WeakReference<ClassLoader>> loaders = new ArrayList<>();
+		long[] first = null;
+		long[] last = null;
+		System.out.printf("%-8s %8s %10s %14s %10s %10s %8s%n", "reloads", "live", "heap(KB)", "metaspace(KB)", "classes", "unloaded", "threads");
+		for (int reload = 1; reload <= reloads; reload++) {
+			ClassLoader loader = new IsolatingClassLoader(LeakCheck.class.getClassLoader(), shaded ? "dev.hypera.updatelib." : SyntheticPlugin.class.getName());
+			AutoCloseable plugin = (AutoCloseable) loader.loadClass(SyntheticPlugin.class.getName()).getConstructor(String.class, String.class, boolean.class).newInstance(baseUrl, watched.toString(), close);
+			loaders.add(new WeakReference<>(loader));
+
+			// Give the first check and the following reschedule time to happen, as they would on a real server.
+			Thread.sleep(2L);
+			if (reload % 100 == 0) {
+				Files.write(watched, Integer.toString(reload).getBytes(StandardCharsets.UTF_8));
+			}
+			plugin.close();
+
+			if (reload % Math.max(1, reloads / SAMPLES) == 0) {
+				loaders.removeIf(reference -> null == reference.get());
+				last = sample(reload, loaders);
+				if (null == first) {
+					first = last;
+				}
+			}
+		}
+
+		// Let pending registrations run out and idle threads exit before the final sample. Abandoned instances only
+		// stop once collected, so their threads get another settle period to exit after that.
+		Thread.sleep(settle);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settle);
+		List<String> threads;
+		do {
+			System.gc();
+			Thread.sleep(250L);
+			threads = threads();
+		} while (!threads.isEmpty() && System.nanoTime() < deadline);
+		last = sample(reloads, loaders);
+		server.stop(0);
+		executor.shutdownNow();
+		Files.deleteIfExists(watched);
+		Files.deleteIfExists(watched.getParent());
+		return new Result(last[0], last[2] - first[2], last[1] - first[1], threads);
+	}
+
+	private static @NotNull List<String> threads() {
+		List<String> threads = new ArrayList<>();
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.isAlive() && (thread.getName().startsWith("UpdateLib-") || thread.getName().endsWith("-SelectorManager"))) {
+				threads.add(thread.getName());
+			}
+		}
+		return threads;
+	}
+
+	private static @NotNull long[] sample(int reloads, @NotNull List<WeakReference<ClassLoader>> loaders) throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50L);
+		}
+
+		long live = loaders.stream().filter(reference -> null != reference.get()).count();
+		long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		long metaspace = 0L;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getName().equals("Metaspace")) {
+				metaspace = pool.getUsage().getUsed();
+			}
+		}
+
+		long[] sample = { live, heap, metaspace };
+		System.out.printf("%-8d %8d %10d %14d %10d %10d %8d%n", reloads, live, heap / 1024, metaspace / 1024, ManagementFactory.getClassLoadingMXBean().getLoadedClassCount(), ManagementFactory.getClassLoadingMXBean().getUnloadedClassCount(), ManagementFactory.getThreadMXBean().getThreadCount());
+		return sample;
+	}
+
+	private static void respond(@NotNull HttpExchange exchange, @NotNull String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(bytes);
+		}
+	}
+
+	private static void stream(@NotNull HttpExchange exchange) throws IOException {
+		// Only another resource is announced, so plugins keep polling through the HTTP transport. The stream runs until
+		// the subscriber disconnects, and the failing write is left to the server, which then drops the connection.
+		exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+		exchange.sendResponseHeaders(200, 0);
+		OutputStream outputStream = exchange.getResponseBody();
+		outputStream.write("id: 1\ndata: {\"resource\": 2, \"version\": \"1.0.0\"}\n\n".getBytes(StandardCharsets.UTF_8));
+		outputStream.flush();
+		try {
+			while (true) {
+				Thread.sleep(100L);
+				outputStream.write(": ping\n\n".getBytes(StandardCharsets.UTF_8));
+				outputStream.flush();
+			}
+		} catch (InterruptedException ex) {
+			exchange.close();
+		}
+	}
+
+	private static @NotNull Map<String, String> parse(@NotNull String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			if (!args[i].startsWith("--") || i + 1 >= args.length) {
+				throw new IllegalArgumentException("Expected '--<option> <value>', got '" + args[i] + "'.");
+			}
+			options.put(args[i].substring(2), args[++i]);
+		}
+		return options;
+	}
+
+	/**
+	 * Leak check result
+	 */
+	static final class Result {
+
+		private final long live;
+		private final long metaspaceGrowth;
+		private final long heapGrowth;
+		private final List<String> threads;
+
+		private Result(long live, long metaspaceGrowth, long heapGrowth, @NotNull List<String> threads) {
+			this.live = live;
+			this.metaspaceGrowth = metaspaceGrowth;
+			this.heapGrowth = heapGrowth;
+			this.threads = threads;
+		}
+
+		/**
+		 * Get the amount of plugin classloaders still reachable at the end.
+		 * @return Live classloaders.
+		 */
+		long getLive() {
+			return live;
+		}
+
+		/**
+		 * Get the metaspace growth between the first and last sample.
+		 * @return Growth in bytes.
+		 */
+		long getMetaspaceGrowth() {
+			return metaspaceGrowth;
+		}
+
+		/**
+		 * Get the heap growth between the first and last sample.
+		 * @return Growth in bytes.
+		 */
+		long getHeapGrowth() {
+			return heapGrowth;
+		}
+
+		/**
+		 * Get the UpdateLib and HttpClient threads still running at the end.
+		 * @return Thread names.
+		 */
+		@NotNull List<String> getThreads() {
+			return threads;
+		}
+
+	}
+
+	/**
+	 * Classloader defining its own copy of the classes under a name prefix, like a plugin classloader, and delegating
+	 * everything else to its parent. With the UpdateLib package as the prefix it also gets its own copy of UpdateLib.
+	 */
+	private static final class IsolatingClassLoader extends ClassLoader {
+
+		private final String isolated;
+
+		private IsolatingClassLoader(@NotNull ClassLoader parent, @NotNull String isolated) {
+			super(parent);
+			this.isolated = isolated;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.startsWith(isolated)) {
+				return super.loadClass(name, resolve);
+			}
+
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loaded = findLoadedClass(name);
+				if (null == loaded) {
+					try (InputStream inputStream = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+						if (null == inputStream) {
+							throw new ClassNotFoundException(name);
+						}
+						ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+						byte[] buffer = new byte[8192];
+						int read;
+						while ((read = inputStream.read(buffer)) != -1) {
+							bytes.write(buffer, 0, read);
+						}
+						loaded = defineClass(name, bytes.toByteArray(), 0, bytes.size());
+					} catch (IOException ex) {
+						throw new ClassNotFoundException(name, ex);
+					}
+				}
+				if (resolve) {
+					resolveClass(loaded);
+				}
+				return loaded;
+			}
+		}
+
+	}
+
+}
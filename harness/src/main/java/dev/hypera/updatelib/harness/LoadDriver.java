@@ -0,0 +1,195 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.harness;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.http.RateLimiter;
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.LegacySpigotVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.PolymartVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.SongodaVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.SpigotVersionResolver;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Load driver, creates a large number of {@link UpdateLib} instances against a {@link StubMarketplace} and reports
+ * throughput, tail latency, thread counts and heap use for every round of checks.
+ * <p>
+ * Run with {@code java -cp <classpath> dev.hypera.updatelib.harness.LoadDriver [options]}, options are:
+ * <pre>
+ * --instances &lt;n&gt;        UpdateLib instances (1000)
+ * --rounds &lt;n&gt;           rounds of checks after the initial one (3)
+ * --api &lt;name&gt;           legacy, spigot, polymart or songoda (legacy)
+ * --timeout &lt;ms&gt;         total timeout of every check (30000)
+ * --latency &lt;ms&gt;         stub latency (0)
+ * --jitter &lt;ms&gt;          random stub latency added on top (0)
+ * --error-rate &lt;0-1&gt;     fraction of 503 responses (0)
+ * --reset-rate &lt;0-1&gt;     fraction of dropped connections (0)
+ * --throttle &lt;n&gt;         requests per second before answering 429, 0 disables (0)
+ * --slow-rate &lt;0-1&gt;      fraction of bodies sent one byte at a time (0)
+ * --slow-duration &lt;ms&gt;   time taken by a slow body (2000)
+ * --stub-threads &lt;n&gt;     stub server threads (64)
+ * --client-rate &lt;n&gt;      static client side rate limit towards the stub in requests per second, 0 only follows the
+ *                          limits advertised by the stub (0)
+ * </pre>
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class LoadDriver {
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+		int instances = Integer.parseInt(options.getOrDefault("instances", "1000"));
+		int rounds = Integer.parseInt(options.getOrDefault("rounds", "3"));
+		long timeout = Long.parseLong(options.getOrDefault("timeout", "30000"));
+		int clientRate = Integer.parseInt(options.getOrDefault("client-rate", "0"));
+
+		StubMarketplace.Settings settings = new StubMarketplace.Settings()
+			.threads(Integer.parseInt(options.getOrDefault("stub-threads", "64")))
+			.latency(Long.parseLong(options.getOrDefault("latency", "0")), Long.parseLong(options.getOrDefault("jitter", "0")))
+			.errorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")))
+			.resetRate(Double.parseDouble(options.getOrDefault("reset-rate", "0")))
+			.throttle(Integer.parseInt(options.getOrDefault("throttle", "0")))
+			.slow(Double.parseDouble(options.getOrDefault("slow-rate", "0")), Long.parseLong(options.getOrDefault("slow-duration", "2000")));
+
+		try (StubMarketplace stub = StubMarketplace.start(settings)) {
+			if (clientRate > 0) {
+				RateLimiter.getInstance().configure("127.0.0.1", clientRate, clientRate);
+			}
+			IVersionResolver resolver = resolver(options.getOrDefault("api", "legacy"), stub.getBaseUrl());
+			System.out.printf("%d instances, %s, stub at %s%n", instances, options.getOrDefault("api", "legacy"), stub.getBaseUrl());
+			System.out.printf("%-8s %9s %10s %8s %8s %8s %8s %8s %8s %8s %10s  %s%n", "round", "wall(ms)", "checks/s", "p50", "p90", "p99", "p99.9", "max", "threads", "peak", "heap(MB)", "outcomes");
+
+			// The initial check runs while building, its completion is observed through the handlers.
+			AtomicReference<CountDownLatch> initial = new AtomicReference<>(new CountDownLatch(instances));
+			UpdateLib[] updateLibs = new UpdateLib[instances];
+			THREADS.resetPeakThreadCount();
+			long start = System.nanoTime();
+			for (int i = 0; i < instances; i++) {
+				updateLibs[i] = UpdateLib.builder()
+					.resource(i + 1)
+					.version("1.0.0")
+					.resolver(resolver)
+					.totalTimeout(timeout, TimeUnit.MILLISECONDS)
+					.disableRepeatingChecks()
+					.handler(status -> initial.get().countDown())
+					.failureHandler(status -> initial.get().countDown())
+					.build();
+			}
+			boolean completed = initial.get().await(timeout * 2, TimeUnit.MILLISECONDS);
+			long wall = System.nanoTime() - start;
+			System.out.printf("%-8s %9d %10.0f %s%n", "build", TimeUnit.NANOSECONDS.toMillis(wall), instances / (wall / 1e9D), completed ? "" : "(not all initial checks completed)");
+			initial.set(new CountDownLatch(0));
+
+			for (int round = 1; round <= rounds; round++) {
+				run(round, updateLibs);
+			}
+			System.out.println("stub: " + stub.report());
+		}
+		System.exit(0);
+	}
+
+	private static void run(int round, @NotNull UpdateLib[] updateLibs) {
+		long[] latencies = new long[updateLibs.length];
+		Map<String, Integer> outcomes = new TreeMap<>();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[updateLibs.length];
+
+		THREADS.resetPeakThreadCount();
+		long start = System.nanoTime();
+		for (int i = 0; i < updateLibs.length; i++) {
+			int index = i;
+			long checkStart = System.nanoTime();
+			futures[i] = updateLibs[i].check().whenComplete((status, throwable) -> {
+				latencies[index] = System.nanoTime() - checkStart;
+				String outcome = null != throwable ? throwable.getClass().getSimpleName() : outcome(status);
+				synchronized (outcomes) {
+					outcomes.merge(outcome, 1, Integer::sum);
+				}
+			});
+		}
+		CompletableFuture.allOf(futures).handle((ignored, throwable) -> null).join();
+		long wall = System.nanoTime() - start;
+		int threads = THREADS.getThreadCount();
+		int peak = THREADS.getPeakThreadCount();
+
+		System.gc();
+		long heap = MEMORY.getHeapMemoryUsage().getUsed();
+
+		Arrays.sort(latencies);
+		System.out.printf("%-8d %9d %10.0f %8d %8d %8d %8d %8d %8d %8d %10.1f  %s%n", round, TimeUnit.NANOSECONDS.toMillis(wall), updateLibs.length / (wall / 1e9D),
+			percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99), percentile(latencies, 0.999), percentile(latencies, 1),
+			threads, peak, heap / (1024D * 1024D), outcomes);
+	}
+
+	private static @NotNull String outcome(@NotNull UpdateStatus status) {
+		return status.isFailed() ? String.valueOf(status.getFailureReason()) : "OK";
+	}
+
+	private static long percentile(@NotNull long[] sorted, double percentile) {
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+	}
+
+	private static @NotNull IVersionResolver resolver(@NotNull String api, @NotNull String baseUrl) {
+		switch (api) {
+			case "legacy":
+				return new LegacySpigotVersionResolver(baseUrl);
+			case "spigot":
+				return new SpigotVersionResolver(baseUrl);
+			case "polymart":
+				return new PolymartVersionResolver(baseUrl);
+			case "songoda":
+				return new SongodaVersionResolver(baseUrl);
+			default:
+				throw new IllegalArgumentException("Unknown api '" + api + "', expected legacy, spigot, polymart or songoda.");
+		}
+	}
+
+	private static @NotNull Map<String, String> parse(@NotNull String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			if (!args[i].startsWith("--") || i + 1 >= args.length) {
+				throw new IllegalArgumentException("Expected '--<option> <value>', got '" + args[i] + "'.");
+			}
+			options.put(args[i].substring(2), args[++i]);
+		}
+		return options;
+	}
+
+}
@@ -0,0 +1,294 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.harness;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Local stub marketplace emulating the SpigotMC legacy and new APIs, Polymart and Songoda, with configurable faults.
+ * <p>
+ * Every resource's latest version is {@code 1.<id % 10>.0}. Each request is first delayed by the configured latency,
+ * then may be throttled with a {@code 429} once the request rate is exceeded, reset without a response, answered with
+ * a {@code 503}, or have its body sent one byte at a time. All of these are counted, see {@link #report()}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class StubMarketplace implements AutoCloseable {
+
+	private final Settings settings;
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final AtomicLong windowStart = new AtomicLong();
+	private final AtomicLong windowRequests = new AtomicLong();
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder throttled = new LongAdder();
+	private final LongAdder resets = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder slow = new LongAdder();
+
+	private StubMarketplace(@NotNull Settings settings) throws IOException {
+		this.settings = settings;
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", settings.port), 1024);
+		this.executor = Executors.newFixedThreadPool(settings.threads, runnable -> {
+			Thread thread = new Thread(runnable, "StubMarketplace");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		server.setExecutor(executor);
+		server.createContext("/legacy/update.php", exchange -> handle(exchange, id -> version(id)));
+		server.createContext("/simple/0.1/index.php", exchange -> handle(exchange, id -> "{\"id\":\"" + id + "\",\"title\":\"Resource " + id + "\",\"current_version\":\"" + version(id) + "\"}"));
+		server.createContext("/v1/getResourceInfo/", exchange -> handle(exchange, id -> "{\"success\":true,\"resource\":{\"id\":\"" + id + "\",\"updates\":{\"latest\":{\"id\":\"1\",\"version\":\"" + version(id) + "\"}}}}"));
+		server.createContext("/api/v2/products/id/", exchange -> handle(exchange, id -> "{\"data\":{\"id\":" + id + ",\"versions\":[{\"id\":1,\"version\":\"" + version(id) + "\"}]}}"));
+		server.start();
+	}
+
+	/**
+	 * Start a stub marketplace.
+	 * @param settings Fault settings.
+	 * @return Running stub marketplace.
+	 * @throws IOException if the server could not be started.
+	 */
+	public static @NotNull StubMarketplace start(@NotNull Settings settings) throws IOException {
+		return new StubMarketplace(settings);
+	}
+
+	/**
+	 * Get the base url of the stub, to be passed to resolvers.
+	 * @return Base url without a trailing slash.
+	 */
+	public @NotNull String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Get a summary of the requests served so far.
+	 * @return Report.
+	 */
+	public @NotNull String report() {
+		return String.format("requests=%d throttled=%d resets=%d errors=%d slow=%d", requests.sum(), throttled.sum(), resets.sum(), errors.sum(), slow.sum());
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private static @NotNull String version(long resourceId) {
+		return "1." + (resourceId % 10) + ".0";
+	}
+
+	private void handle(@NotNull HttpExchange exchange, @NotNull Body body) throws IOException {
+		requests.increment();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		try {
+			long latency = settings.latency + (settings.jitter > 0 ? random.nextLong(settings.jitter + 1) : 0L);
+			if (latency > 0L) {
+				Thread.sleep(latency);
+			}
+
+			if (isThrottled()) {
+				throttled.increment();
+				exchange.getResponseHeaders().add("Retry-After", "1");
+				exchange.getResponseHeaders().add("X-RateLimit-Limit", String.valueOf(settings.throttle));
+				exchange.getResponseHeaders().add("X-RateLimit-Remaining", "0");
+				exchange.sendResponseHeaders(429, -1);
+				return;
+			}
+			if (random.nextDouble() < settings.resetRate) {
+				// Closing the exchange before sending headers drops the connection without a response.
+				resets.increment();
+				return;
+			}
+			if (random.nextDouble() < settings.errorRate) {
+				errors.increment();
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+
+			long resourceId = resourceId(exchange.getRequestURI().toString());
+			if (resourceId < 0L) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+
+			byte[] data = body.create(resourceId).getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+			exchange.sendResponseHeaders(200, data.length);
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				if (random.nextDouble() < settings.slowRate) {
+					slow.increment();
+					long delay = Math.max(1L, settings.slowDuration / data.length);
+					for (byte b : data) {
+						outputStream.write(b);
+						outputStream.flush();
+						Thread.sleep(delay);
+					}
+				} else {
+					outputStream.write(data);
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (IOException ignored) {
+			// Client gave up, for example because its deadline passed.
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private boolean isThrottled() {
+		if (settings.throttle <= 0) {
+			return false;
+		}
+
+		long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+		long start = windowStart.get();
+		if (start != second && windowStart.compareAndSet(start, second)) {
+			windowRequests.set(0L);
+		}
+		return windowRequests.incrementAndGet() > settings.throttle;
+	}
+
+	private static long resourceId(@NotNull String uri) {
+		int end = uri.length();
+		int start = end;
+		while (start > 0 && Character.isDigit(uri.charAt(start - 1))) {
+			start--;
+		}
+		return start == end ? -1L : Long.parseLong(uri.substring(start, end));
+	}
+
+	private interface Body {
+
+		@NotNull String create(long resourceId);
+
+	}
+
+	/**
+	 * Stub marketplace fault settings.
+	 */
+	public static class Settings {
+
+		private int port = 0;
+		private int threads = 64;
+		private long latency = 0L;
+		private long jitter = 0L;
+		private double errorRate = 0D;
+		private double resetRate = 0D;
+		private int throttle = 0;
+		private double slowRate = 0D;
+		private long slowDuration = 2000L;
+
+		/**
+		 * Sets the port to listen on, {@code 0} picks a free port.
+		 * @param port Port.
+		 * @return Current {@link Settings} instance.
+		 */
+		public @NotNull Settings port(int port) {
+			this.port = port;
+			return this;
+		}
+
+		/**
+		 * Sets the amount of threads serving requests, which bounds the amount of requests delayed concurrently.
+		 * @param threads Thread count.
+		 * @return Current {@link Settings} instance.
+		 */
+		public @NotNull Settings threads(int threads) {
+			this.threads = threads;
+			return this;
+		}
+
+		/**
+		 * Sets the latency added to every request.
+		 * @param latency Fixed latency in milliseconds.
+		 * @param jitter Maximum random latency added on top, in milliseconds.
+		 * @return Current {@link Settings} instance.
+		 */
+		public @NotNull Settings latency(long latency, long jitter) {
+			this.latency = latency;
+			this.jitter = jitter;
+			return this;
+		}
+
+		/**
+		 * Sets the fraction of requests answered with a {@code 503}.
+		 * @param errorRate Error rate between 0 and 1.
+		 * @return Current {@link Settings} instance.
+		 */
+		public @NotNull Settings errorRate(double errorRate) {
+			this.errorRate = errorRate;
+			return this;
+		}
+
+		/**
+		 * Sets the fraction of connections dropped without a response.
+		 * @param resetRate Reset rate between 0 and 1.
+		 * @return Current {@link Settings} instance.
+		 */
+		public @NotNull Settings resetRate(double resetRate) {
+			this.resetRate = resetRate;
+			return this;
+		}
+
+		/**
+		 * Sets the amount of requests allowed per second before answering with a {@code 429}.
+		 * @param throttle Requests per second, {@code 0} disables throttling.
+		 * @return Current {@link Settings} instance.
+		 */
+		public @NotNull Settings throttle(int throttle) {
+			this.throttle = throttle;
+			return this;
+		}
+
+		/**
+		 * Sets the fraction of responses whose body is sent one byte at a time.
+		 * @param slowRate Slow response rate between 0 and 1.
+		 * @param duration Time taken to send a slow body, in milliseconds.
+		 * @return Current {@link Settings} instance.
+		 */
+		public @NotNull Settings slow(double slowRate, long duration) {
+			this.slowRate = slowRate;
+			this.slowDuration = duration;
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.harness;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.objects.UpdateStatus;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.LegacySpigotVersionResolver;
+import dev.hypera.updatelib.resolvers.impl.SubscriptionVersionResolver;
+import dev.hypera.updatelib.triggers.FileWatchTrigger;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Plugin loaded into a fresh classloader by {@link LeakCheck} for every simulated reload. Like a real plugin it holds
+ * some state and hands UpdateLib a resolver and handlers defined by its own classes, so anything keeping the
+ * {@link UpdateLib} instance reachable keeps its classloader reachable too.
+ * <p>
+ * Its instance is subscribed to the stub's event stream, polls the stub's legacy API over the HTTP transport while the
+ * stream has not announced the resource, and is checked whenever a watched file changes. On disable the plugin either
+ * closes the instance, which has to release everything UpdateLib holds for it, or abandons it and only closes the
+ * file watch trigger it owns.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class SyntheticPlugin implements AutoCloseable {
+
+	private final byte[] state = new byte[64 * 1024];
+	private final boolean closeUpdateLib;
+	private final UpdateLib updateLib;
+	private final FileWatchTrigger trigger;
+
+	private volatile UpdateStatus lastStatus = null;
+
+	public SyntheticPlugin(@NotNull String baseUrl, @NotNull String watchedFile, boolean closeUpdateLib) throws IOException {
+		this.closeUpdateLib = closeUpdateLib;
+		IVersionResolver polling = new LegacySpigotVersionResolver(baseUrl);
+		this.updateLib = UpdateLib.builder()
+			.resource(1)
+			.version("1.0.0")
+			.resolver(new SubscriptionVersionResolver(baseUrl + "/events", (updateLib, resourceId) -> polling.getVersion(updateLib, resourceId) + "." + state.length))
+			.interval(1, TimeUnit.SECONDS)
+			.handler(status -> lastStatus = status)
+			.build();
+		this.trigger = FileWatchTrigger.create(10, TimeUnit.MILLISECONDS);
+		trigger.watch(Paths.get(watchedFile), updateLib);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closeUpdateLib) {
+			// The trigger is left open, it has to release its thread once the instance is unwatched.
+			updateLib.close();
+		} else {
+			trigger.close();
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.harness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Runs a short {@link LeakCheck}, failing the build if reloaded plugins leave classloaders, memory or threads behind.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class LeakCheckTest {
+
+	@ParameterizedTest(name = "close={0}, shaded={1}")
+	@CsvSource({ "true, true", "false, true", "true, false", "false, false" })
+	void reloadsLeaveNothingBehind(boolean close, boolean shaded) throws Exception {
+		LeakCheck.Result result = LeakCheck.run(100, close, shaded, 6000L);
+		assertTrue(result.getLive() <= LeakCheck.MAX_LIVE, result.getLive() + " plugin classloaders are still reachable");
+		assertTrue(result.getMetaspaceGrowth() <= LeakCheck.MAX_METASPACE, "Metaspace grew by " + result.getMetaspaceGrowth() / 1024 + " KB");
+		assertTrue(result.getHeapGrowth() <= LeakCheck.MAX_HEAP, "Heap grew by " + result.getHeapGrowth() / 1024 + " KB");
+		assertEquals(Collections.emptyList(), result.getThreads());
+	}
+
+}
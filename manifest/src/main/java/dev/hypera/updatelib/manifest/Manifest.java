@@ -0,0 +1,162 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.manifest;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-only view of an update manifest.
+ * <p>
+ * A manifest maps resource identifiers to their latest version. The layout, all big-endian, is:
+ * <pre>
+ * int    magic ('ULMF')
+ * short  format version
+ * short  reserved
+ * int    entry count (n)
+ * int    string table size in bytes
+ * long   time the manifest was generated, in epoch milliseconds
+ * long[n] resource identifiers, sorted ascending
+ * int[n]  offset of each version in the string table
+ * string table, every version stored as an unsigned short length followed by UTF-8 bytes
+ * </pre>
+ * Lookups binary search the identifier index directly in the buffer. Only the index and string offsets are validated
+ * up front, so a truncated or corrupt manifest is rejected when it is wrapped instead of failing later lookups.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class Manifest {
+
+	static final int MAGIC = 0x554C4D46;
+	static final short FORMAT = 1;
+	static final int HEADER_SIZE = 24;
+
+	private final ByteBuffer buffer;
+	private final int count;
+	private final int offsetsPosition;
+	private final int stringsPosition;
+	private final long generated;
+
+	private Manifest(@NotNull ByteBuffer buffer, int count, int stringsSize, long generated) {
+		this.buffer = buffer;
+		this.count = count;
+		this.offsetsPosition = HEADER_SIZE + count * 8;
+		this.stringsPosition = offsetsPosition + count * 4;
+		this.generated = generated;
+	}
+
+	/**
+	 * Wrap a buffer containing a manifest, from its position to its limit. The buffer is not copied.
+	 * @param buffer Buffer.
+	 * @return Manifest.
+	 * @throws IllegalArgumentException if the buffer does not contain a valid manifest.
+	 */
+	public static @NotNull Manifest wrap(@NotNull ByteBuffer buffer) {
+		ByteBuffer view = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		if (view.remaining() < HEADER_SIZE || view.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not an UpdateLib manifest.");
+		}
+		if (view.getShort(4) != FORMAT) {
+			throw new IllegalArgumentException("Unsupported manifest format " + view.getShort(4) + ".");
+		}
+
+		int count = view.getInt(8);
+		int stringsSize = view.getInt(12);
+		if (count < 0 || stringsSize < 0 || (long) HEADER_SIZE + count * 12L + stringsSize > view.limit()) {
+			throw new IllegalArgumentException("Manifest is truncated.");
+		}
+
+		Manifest manifest = new Manifest(view, count, stringsSize, view.getLong(16));
+		manifest.validate(stringsSize);
+		return manifest;
+	}
+
+	private void validate(int stringsSize) {
+		long previous = 0L;
+		for (int i = 0; i < count; i++) {
+			long id = buffer.getLong(HEADER_SIZE + i * 8);
+			if (i > 0 && id <= previous) {
+				throw new IllegalArgumentException("Manifest resource identifiers are not sorted.");
+			}
+			previous = id;
+
+			int offset = buffer.getInt(offsetsPosition + i * 4);
+			if (offset < 0 || offset > stringsSize - 2) {
+				throw new IllegalArgumentException("Manifest version offset " + offset + " is out of bounds.");
+			}
+			int length = buffer.getShort(stringsPosition + offset) & 0xFFFF;
+			if (offset + 2 + length > stringsSize) {
+				throw new IllegalArgumentException("Manifest version at offset " + offset + " is truncated.");
+			}
+		}
+	}
+
+	/**
+	 * Get the latest version of a resource.
+	 * @param resourceId Resource identifier.
+	 * @return Version, or {@code null} if the manifest does not contain the resource.
+	 */
+	public @Nullable String get(long resourceId) {
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long id = buffer.getLong(HEADER_SIZE + mid * 8);
+			if (id < resourceId) {
+				low = mid + 1;
+			} else if (id > resourceId) {
+				high = mid - 1;
+			} else {
+				int position = stringsPosition + buffer.getInt(offsetsPosition + mid * 4);
+				int length = buffer.getShort(position) & 0xFFFF;
+				byte[] data = new byte[length];
+				ByteBuffer view = buffer.duplicate();
+				view.position(position + 2);
+				view.get(data);
+				return new String(data, StandardCharsets.UTF_8);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the amount of resources in this manifest.
+	 * @return Resource count.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Get the time this manifest was generated.
+	 * @return Generation time in epoch milliseconds.
+	 */
+	public long getGenerated() {
+		return generated;
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.manifest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Builds {@link Manifest update manifests}.
+ * <p>
+ * Can also be used from the command line to convert a text file with one {@code <resource id>=<version>} pair per line
+ * ({@code #} starts a comment) into a manifest:
+ * {@code java -cp UpdateLib.jar:UpdateLib-Manifest.jar dev.hypera.updatelib.manifest.ManifestWriter versions.txt versions.ulm}
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class ManifestWriter {
+
+	private final Map<Long, String> versions = new TreeMap<>();
+
+	/**
+	 * Add a resource to the manifest, replacing its version if it was already added.
+	 * @param resourceId Resource identifier.
+	 * @param version Latest version.
+	 * @return Current {@link ManifestWriter} instance.
+	 * @throws IllegalArgumentException if the version is longer than 65535 bytes.
+	 */
+	public @NotNull ManifestWriter add(long resourceId, @NotNull String version) {
+		if (version.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+			throw new IllegalArgumentException("Version of resource " + resourceId + " is too long.");
+		}
+		versions.put(resourceId, version);
+		return this;
+	}
+
+	/**
+	 * Write the manifest.
+	 * @param outputStream Output stream.
+	 * @throws IOException if the manifest could not be written.
+	 */
+	public void write(@NotNull OutputStream outputStream) throws IOException {
+		ByteArrayOutputStream strings = new ByteArrayOutputStream();
+		DataOutputStream stringsOutput = new DataOutputStream(strings);
+		int[] offsets = new int[versions.size()];
+		int index = 0;
+		for (String version : versions.values()) {
+			offsets[index++] = stringsOutput.size();
+			byte[] data = version.getBytes(StandardCharsets.UTF_8);
+			stringsOutput.writeShort(data.length);
+			stringsOutput.write(data);
+		}
+
+		DataOutputStream output = new DataOutputStream(outputStream);
+		output.writeInt(Manifest.MAGIC);
+		output.writeShort(Manifest.FORMAT);
+		output.writeShort(0);
+		output.writeInt(versions.size());
+		output.writeInt(strings.size());
+		output.writeLong(Instant.now().toEpochMilli());
+		for (long resourceId : versions.keySet()) {
+			output.writeLong(resourceId);
+		}
+		for (int offset : offsets) {
+			output.writeInt(offset);
+		}
+		strings.writeTo(output);
+		output.flush();
+	}
+
+	/**
+	 * Write the manifest to a file. The file is replaced atomically where supported, so readers mapping it never see
+	 * a partially written manifest.
+	 * @param path File.
+	 * @throws IOException if the manifest could not be written.
+	 */
+	public void write(@NotNull Path path) throws IOException {
+		Path directory = path.toAbsolutePath().getParent();
+		Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+				write(outputStream);
+			}
+			try {
+				Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException ex) {
+				Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: ManifestWriter <input> <output>");
+			System.exit(1);
+			return;
+		}
+
+		ManifestWriter writer = new ManifestWriter();
+		List<String> lines = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+		for (int i = 0; i < lines.size(); i++) {
+			String line = lines.get(i);
+			int comment = line.indexOf('#');
+			if (comment >= 0) {
+				line = line.substring(0, comment);
+			}
+			line = line.trim();
+			if (line.isEmpty()) {
+				continue;
+			}
+
+			int separator = line.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException("Line " + (i + 1) + " is not a '<resource id>=<version>' pair.");
+			}
+			writer.add(Long.parseLong(line.substring(0, separator).trim()), line.substring(separator + 1).trim());
+		}
+
+		writer.write(Paths.get(args[1]));
+		System.out.println("Wrote " + writer.versions.size() + " resources to " + args[1] + ".");
+	}
+
+}
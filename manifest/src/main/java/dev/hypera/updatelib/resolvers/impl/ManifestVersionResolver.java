@@ -0,0 +1,200 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.manifest.Manifest;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.resolvers.IBulkVersionResolver;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Manifest version resolver, answers checks from a self-hosted {@link Manifest update manifest}.
+ * <p>
+ * Manifests are either memory-mapped from a local file, which is remapped when it changes, or downloaded from a url.
+ * Downloaded manifests are shared by every resolver using the same url and fetched at most once per refresh interval,
+ * the smallest one asked for with that url, so a single download serves every plugin on the server. Use {@link dev.hypera.updatelib.manifest.ManifestWriter} to
+ * build manifests.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class ManifestVersionResolver implements IBulkVersionResolver {
+
+	private static final Map<String, ManifestVersionResolver> REMOTE = new ConcurrentHashMap<>();
+
+	private final Path path;
+	private final String url;
+	private volatile long refreshNanos;
+
+	private volatile Manifest manifest;
+	private volatile long loaded;
+	private long modified;
+	private long size = -1;
+	private String etag;
+
+	private ManifestVersionResolver(Path path, String url, long refreshNanos) {
+		this.path = path;
+		this.url = url;
+		this.refreshNanos = refreshNanos;
+	}
+
+	/**
+	 * Get a resolver backed by a local manifest file.
+	 * @param path Manifest file.
+	 * @return Manifest version resolver.
+	 */
+	public static @NotNull ManifestVersionResolver file(@NotNull Path path) {
+		return new ManifestVersionResolver(path, null, 0);
+	}
+
+	/**
+	 * Get a resolver backed by a remote manifest. Resolvers for the same url share one copy of the manifest, which is
+	 * downloaded again once the smallest refresh interval requested for the url so far has passed.
+	 * @param url Manifest url.
+	 * @param refresh Minimum time between downloads.
+	 * @param unit Refresh time unit.
+	 * @return Manifest version resolver.
+	 */
+	public static @NotNull ManifestVersionResolver url(@NotNull String url, long refresh, @NotNull TimeUnit unit) {
+		long refreshNanos = unit.toNanos(refresh);
+		return REMOTE.compute(url, (u, resolver) -> {
+			if (null == resolver) {
+				return new ManifestVersionResolver(null, u, refreshNanos);
+			}
+			// A plugin asking for fresher versions must not be held to the interval of whichever plugin asked first.
+			resolver.refreshNanos = Math.min(resolver.refreshNanos, refreshNanos);
+			return resolver;
+		});
+	}
+
+	/**
+	 * Get the latest version of a resource from the manifest.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if something went wrong while getting the version.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		String version = getManifest(updateLib).get(resourceId);
+		if (null == version) {
+			throw new VersionResolveFailureException(FailureReason.INVALID_RESOURCE, "Manifest does not contain resource " + resourceId + ".");
+		}
+		return version;
+	}
+
+	/**
+	 * Get the latest versions of multiple resources from the manifest.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceIds Resource identifiers.
+	 * @return Current distributed versions, keyed by resource identifier.
+	 * @throws VersionResolveFailureException if something went wrong while getting the versions.
+	 */
+	@Override
+	public @NotNull Map<Long, String> getVersions(@NotNull UpdateLib updateLib, @NotNull Collection<Long> resourceIds) throws VersionResolveFailureException {
+		Manifest manifest = getManifest(updateLib);
+		Map<Long, String> versions = new HashMap<>();
+		for (long resourceId : resourceIds) {
+			String version = manifest.get(resourceId);
+			if (null != version) {
+				versions.put(resourceId, version);
+			}
+		}
+		return versions;
+	}
+
+	private @NotNull Manifest getManifest(@NotNull UpdateLib updateLib) throws VersionResolveFailureException {
+		Manifest current = manifest;
+		if (null != current && null != url && System.nanoTime() - loaded < refreshNanos) {
+			return current;
+		}
+
+		synchronized (this) {
+			// Another check may have refreshed the manifest while this one was waiting.
+			if (null != manifest && null != url && System.nanoTime() - loaded < refreshNanos) {
+				return manifest;
+			}
+
+			try {
+				manifest = null == url ? map() : download(updateLib);
+				loaded = System.nanoTime();
+				return manifest;
+			} catch (IllegalArgumentException ex) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, ex.getMessage());
+			} catch (Exception ex) {
+				throw VersionResolveFailureException.wrap(ex);
+			}
+		}
+	}
+
+	private @NotNull Manifest map() throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		if (null != manifest && attributes.lastModifiedTime().toMillis() == modified && attributes.size() == size) {
+			return manifest;
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			// The mapping stays valid after the channel is closed.
+			Manifest mapped = Manifest.wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			modified = attributes.lastModifiedTime().toMillis();
+			size = attributes.size();
+			return mapped;
+		}
+	}
+
+	private @NotNull Manifest download(@NotNull UpdateLib updateLib) throws IOException, VersionResolveFailureException {
+		Map<String, String> headers = new HashMap<>();
+		if (null != etag && null != manifest) {
+			headers.put("If-None-Match", etag);
+		}
+
+		HttpResponse response = HttpTransport.get(updateLib, url, headers);
+		if (response.getStatusCode() == 304 && null != manifest) {
+			return manifest;
+		}
+		if (response.getStatusCode() != 200) {
+			throw new VersionResolveFailureException(response.getStatusCode(), "Manifest server did not respond with a 200 status code.");
+		}
+
+		Manifest downloaded = Manifest.wrap(ByteBuffer.wrap(response.getBodyBytes()));
+		etag = response.getHeader("ETag");
+		return downloaded;
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.manifest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link ManifestWriter} and {@link Manifest} round trips, and rejecting corrupt manifests.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class ManifestTest {
+
+	@Test
+	void roundTrips() throws IOException {
+		long before = System.currentTimeMillis();
+		Manifest manifest = Manifest.wrap(ByteBuffer.wrap(write(new ManifestWriter()
+				.add(42L, "1.0.0")
+				.add(-7L, "negative")
+				.add(Long.MAX_VALUE, "max")
+				.add(Long.MIN_VALUE, "min")
+				.add(1L, "")
+				.add(1000L, "2.0.0-beta+caf\u00e9 \ud83d\ude00")
+				.add(42L, "1.0.1"))));
+
+		assertEquals(6, manifest.size());
+		assertTrue(manifest.getGenerated() >= before && manifest.getGenerated() <= System.currentTimeMillis());
+		assertEquals("1.0.1", manifest.get(42L));
+		assertEquals("negative", manifest.get(-7L));
+		assertEquals("max", manifest.get(Long.MAX_VALUE));
+		assertEquals("min", manifest.get(Long.MIN_VALUE));
+		assertEquals("", manifest.get(1L));
+		assertEquals("2.0.0-beta+caf\u00e9 \ud83d\ude00", manifest.get(1000L));
+		assertNull(manifest.get(0L));
+		assertNull(manifest.get(43L));
+	}
+
+	@Test
+	void roundTripsEmptyManifest() throws IOException {
+		Manifest manifest = Manifest.wrap(ByteBuffer.wrap(write(new ManifestWriter())));
+		assertEquals(0, manifest.size());
+		assertNull(manifest.get(0L));
+	}
+
+	@Test
+	void wrapsFromTheBufferPosition() throws IOException {
+		byte[] data = write(new ManifestWriter().add(1L, "1.0.0"));
+		ByteBuffer buffer = ByteBuffer.allocate(data.length + 16);
+		buffer.position(8);
+		buffer.put(data);
+		buffer.position(8).limit(8 + data.length);
+		assertEquals("1.0.0", Manifest.wrap(buffer).get(1L));
+	}
+
+	@Test
+	void roundTripsThroughFiles(@TempDir Path directory) throws IOException {
+		Path path = directory.resolve("versions.ulm");
+		new ManifestWriter().add(1L, "1.0.0").write(path);
+		new ManifestWriter().add(1L, "1.0.1").add(2L, "2.0.0").write(path);
+
+		assertEquals("1.0.1", Manifest.wrap(ByteBuffer.wrap(Files.readAllBytes(path))).get(1L));
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(1L, files.count());
+		}
+	}
+
+	@Test
+	void rejectsTooLongVersions() {
+		char[] version = new char[0x10000];
+		Arrays.fill(version, 'a');
+		assertThrows(IllegalArgumentException.class, () -> new ManifestWriter().add(1L, new String(version)));
+		new ManifestWriter().add(1L, new String(version, 0, 0xFFFF));
+	}
+
+	@Test
+	void rejectsOtherFiles() throws IOException {
+		assertRejected("Not an UpdateLib manifest.", new byte[0]);
+		assertRejected("Not an UpdateLib manifest.", "{\"versions\": {}}".getBytes());
+		assertRejected("Not an UpdateLib manifest.", Arrays.copyOf(manifest(), Manifest.HEADER_SIZE - 1));
+		assertRejected("Unsupported manifest format 2.", corrupt(buffer -> buffer.putShort(4, (short) 2)));
+	}
+
+	@Test
+	void rejectsTruncatedManifests() throws IOException {
+		byte[] manifest = manifest();
+		for (int length = Manifest.HEADER_SIZE; length < manifest.length; length++) {
+			assertRejected("Manifest is truncated.", Arrays.copyOf(manifest, length));
+		}
+		assertRejected("Manifest is truncated.", corrupt(buffer -> buffer.putInt(8, -1)));
+		assertRejected("Manifest is truncated.", corrupt(buffer -> buffer.putInt(8, Integer.MAX_VALUE)));
+		assertRejected("Manifest is truncated.", corrupt(buffer -> buffer.putInt(12, -1)));
+	}
+
+	@Test
+	void rejectsUnsortedIdentifiers() throws IOException {
+		// Identifiers 1, 2 and 3 start right after the header.
+		assertRejected("Manifest resource identifiers are not sorted.", corrupt(buffer -> buffer.putLong(Manifest.HEADER_SIZE, 3L)));
+		assertRejected("Manifest resource identifiers are not sorted.", corrupt(buffer -> buffer.putLong(Manifest.HEADER_SIZE + 8, 1L)));
+	}
+
+	@Test
+	void rejectsOutOfRangeOffsets() throws IOException {
+		int offsets = Manifest.HEADER_SIZE + 3 * 8;
+		int stringsSize = ByteBuffer.wrap(manifest()).getInt(12);
+		assertRejected("Manifest version offset -1 is out of bounds.", corrupt(buffer -> buffer.putInt(offsets, -1)));
+		assertRejected("Manifest version offset " + stringsSize + " is out of bounds.", corrupt(buffer -> buffer.putInt(offsets + 4, stringsSize)));
+		assertRejected("Manifest version offset " + (stringsSize - 1) + " is out of bounds.", corrupt(buffer -> buffer.putInt(offsets + 8, stringsSize - 1)));
+
+		// The last version is "3.0.0" at offset 14, a longer length runs past the string table.
+		assertRejected("Manifest version at offset 14 is truncated.", corrupt(buffer -> buffer.putShort(offsets + 12 + 14, (short) 6)));
+	}
+
+	private static byte[] manifest() throws IOException {
+		return write(new ManifestWriter().add(1L, "1.0.0").add(2L, "2.0.0").add(3L, "3.0.0"));
+	}
+
+	private static byte[] corrupt(Consumer<ByteBuffer> corruption) throws IOException {
+		byte[] manifest = manifest();
+		corruption.accept(ByteBuffer.wrap(manifest));
+		return manifest;
+	}
+
+	private static byte[] write(ManifestWriter writer) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		writer.write(outputStream);
+		return outputStream.toByteArray();
+	}
+
+	private static void assertRejected(String message, byte[] manifest) {
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> Manifest.wrap(ByteBuffer.wrap(manifest)));
+		assertEquals(message, ex.getMessage());
+	}
+
+}
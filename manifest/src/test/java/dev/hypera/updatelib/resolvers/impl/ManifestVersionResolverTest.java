@@ -0,0 +1,154 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.manifest.ManifestWriter;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.testing.FixtureServer;
+import dev.hypera.updatelib.testing.FixtureServer.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link ManifestVersionResolver} with local manifest files and manifests downloaded from a local
+ * {@link FixtureServer}.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class ManifestVersionResolverTest {
+
+	private FixtureServer server;
+	private UpdateLib updateLib;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FixtureServer.start();
+		updateLib = FixtureServer.updateLib();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void resolvesFromFiles(@TempDir Path directory) throws Exception {
+		Path path = directory.resolve("versions.ulm");
+		new ManifestWriter().add(1L, "1.0.0").add(2L, "2.0.0").write(path);
+		ManifestVersionResolver resolver = ManifestVersionResolver.file(path);
+		assertEquals("1.0.0", resolver.getVersion(updateLib, 1L));
+
+		Map<Long, String> expected = new HashMap<>();
+		expected.put(1L, "1.0.0");
+		expected.put(2L, "2.0.0");
+		assertEquals(expected, resolver.getVersions(updateLib, Arrays.asList(1L, 2L, 3L)));
+
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(updateLib, 3L));
+		assertEquals(FailureReason.INVALID_RESOURCE, ex.getReason());
+
+		// The file is mapped again once it changes.
+		new ManifestWriter().add(1L, "1.0.10").write(path);
+		assertEquals("1.0.10", resolver.getVersion(updateLib, 1L));
+	}
+
+	@Test
+	void sharesDownloadsPerUrl() throws Exception {
+		server.route("/shared.ulm", request -> new Response(200, manifest("1.0.0")));
+		String url = server.getBaseUrl() + "/shared.ulm";
+		ManifestVersionResolver resolver = ManifestVersionResolver.url(url, 1L, TimeUnit.HOURS);
+		assertSame(resolver, ManifestVersionResolver.url(url, 2L, TimeUnit.HOURS));
+
+		assertEquals("1.0.0", resolver.getVersion(updateLib, 1L));
+		assertEquals("1.0.0", ManifestVersionResolver.url(url, 1L, TimeUnit.HOURS).getVersion(updateLib, 1L));
+		assertEquals(1, server.getRequests().size());
+	}
+
+	@Test
+	void keepsTheSmallestRefreshInterval() throws Exception {
+		server.route("/refresh.ulm", request -> new Response(200, manifest(server.getRequests().size() + ".0.0")));
+		String url = server.getBaseUrl() + "/refresh.ulm";
+		assertEquals("1.0.0", ManifestVersionResolver.url(url, 1L, TimeUnit.HOURS).getVersion(updateLib, 1L));
+
+		// A later resolver asking for fresher versions lowers the interval for both.
+		ManifestVersionResolver resolver = ManifestVersionResolver.url(url, 50L, TimeUnit.MILLISECONDS);
+		Thread.sleep(100L);
+		assertEquals("2.0.0", resolver.getVersion(updateLib, 1L));
+
+		// A larger interval does not raise it again.
+		ManifestVersionResolver.url(url, 1L, TimeUnit.HOURS);
+		Thread.sleep(100L);
+		assertEquals("3.0.0", resolver.getVersion(updateLib, 1L));
+	}
+
+	@Test
+	void revalidatesWithETag() throws Exception {
+		server.route("/etag.ulm", request -> "\"v1\"".equals(request.getHeader("If-None-Match")) ? new Response(304, "") : new Response(200, manifest("1.0.0"), "ETag", "\"v1\""));
+		ManifestVersionResolver resolver = ManifestVersionResolver.url(server.getBaseUrl() + "/etag.ulm", 0L, TimeUnit.MILLISECONDS);
+
+		assertEquals("1.0.0", resolver.getVersion(updateLib, 1L));
+		assertEquals("1.0.0", resolver.getVersion(updateLib, 1L));
+		assertEquals(2, server.getRequests().size());
+		assertNull(server.getRequests().get(0).getHeader("If-None-Match"));
+		assertEquals("\"v1\"", server.getRequests().get(1).getHeader("If-None-Match"));
+	}
+
+	@Test
+	void rejectsCorruptDownloads() {
+		server.route("/corrupt.ulm", request -> new Response(200, Arrays.copyOf(manifest("1.0.0"), 30)));
+		server.route("/missing.ulm", request -> new Response(404, ""));
+
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> ManifestVersionResolver.url(server.getBaseUrl() + "/corrupt.ulm", 1L, TimeUnit.HOURS).getVersion(updateLib, 1L));
+		assertEquals(FailureReason.PARSE_ERROR, ex.getReason());
+
+		ex = assertThrows(VersionResolveFailureException.class, () -> ManifestVersionResolver.url(server.getBaseUrl() + "/missing.ulm", 1L, TimeUnit.HOURS).getVersion(updateLib, 1L));
+		assertEquals(404, ex.getStatusCode());
+	}
+
+	private static byte[] manifest(String version) {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			new ManifestWriter().add(1L, version).write(outputStream);
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return outputStream.toByteArray();
+	}
+
+}
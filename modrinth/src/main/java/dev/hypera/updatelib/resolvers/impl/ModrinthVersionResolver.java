@@ -0,0 +1,256 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.json.JsonReader;
+import dev.hypera.updatelib.json.JsonToken;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.resolvers.IBulkVersionResolver;
+import java.net.URLEncoder;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Modrinth version resolver, uses the Modrinth v2 API to get the latest version of a project.
+ * <p>
+ * Modrinth project identifiers are base62 encoded numbers, use {@link #decodeId(String)} to convert the identifier
+ * shown on Modrinth into a resource identifier.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class ModrinthVersionResolver implements IBulkVersionResolver {
+
+	private static final String DEFAULT_BASE_URL = "https://api.modrinth.com";
+	private static final String PROJECT_VERSIONS_FORMAT = "%s/v2/project/%s/version";
+	private static final String PROJECTS_FORMAT = "%s/v2/projects?ids=%s";
+	private static final String VERSIONS_FORMAT = "%s/v2/versions?ids=%s";
+	private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+	private final String baseUrl;
+
+	public ModrinthVersionResolver() {
+		this(DEFAULT_BASE_URL);
+	}
+
+	/**
+	 * Create a new Modrinth version resolver using a different API location, for example a mirror.
+	 * @param baseUrl API base url, without a trailing slash.
+	 */
+	public ModrinthVersionResolver(@NotNull String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	/**
+	 * Get the current version of a Modrinth project.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if something went wrong while getting the version.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		try {
+			// The API does not document the order of a project's versions, so every version is compared by publication date.
+			String version = latestVersions(new JsonReader(request(updateLib, String.format(PROJECT_VERSIONS_FORMAT, baseUrl, encodeId(resourceId))))).get(resourceId);
+			if (null == version) {
+				throw new VersionResolveFailureException(FailureReason.INVALID_RESOURCE, "Modrinth's API did not return any versions.");
+			}
+
+			return version;
+		} catch (Exception ex) {
+			throw VersionResolveFailureException.wrap(ex);
+		}
+	}
+
+	/**
+	 * Get the current versions of multiple Modrinth projects, using two requests regardless of the amount of projects.
+	 * Projects without any versions are left out of the result.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceIds Resource identifiers.
+	 * @return Current distributed versions, keyed by resource identifier.
+	 * @throws VersionResolveFailureException if something went wrong while getting the versions.
+	 */
+	@Override
+	public @NotNull Map<Long, String> getVersions(@NotNull UpdateLib updateLib, @NotNull Collection<Long> resourceIds) throws VersionResolveFailureException {
+		if (resourceIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		try {
+			JsonReader projects = new JsonReader(request(updateLib, String.format(PROJECTS_FORMAT, baseUrl, idArray(resourceIds.stream().map(ModrinthVersionResolver::encodeId).collect(Collectors.toList())))));
+
+			// Projects list their versions in publication order, but the API does not document in which direction. Both
+			// ends are requested and compared by publication date, so either direction finds the latest version.
+			Set<String> candidates = new HashSet<>();
+			projects.beginArray();
+			while (projects.hasNext()) {
+				projects.beginObject();
+				while (projects.hasNext()) {
+					if (projects.nextName().equals("versions") && projects.peek() == JsonToken.BEGIN_ARRAY) {
+						String first = null;
+						String last = null;
+						projects.beginArray();
+						while (projects.hasNext()) {
+							last = projects.nextString();
+							if (null == first) {
+								first = last;
+							}
+						}
+						projects.endArray();
+
+						if (null != first) {
+							candidates.add(first);
+							candidates.add(last);
+						}
+					} else {
+						projects.skipValue();
+					}
+				}
+				projects.endObject();
+			}
+
+			if (candidates.isEmpty()) {
+				return Collections.emptyMap();
+			}
+
+			return latestVersions(new JsonReader(request(updateLib, String.format(VERSIONS_FORMAT, baseUrl, idArray(candidates)))));
+		} catch (Exception ex) {
+			throw VersionResolveFailureException.wrap(ex);
+		}
+	}
+
+	/**
+	 * Decode a Modrinth project identifier into a resource identifier.
+	 * @param id Modrinth project identifier.
+	 * @return Resource identifier.
+	 * @throws IllegalArgumentException if the identifier is not a valid Modrinth identifier, or does not fit into 64
+	 *                                  bits.
+	 */
+	public static long decodeId(@NotNull String id) {
+		if (id.isEmpty()) {
+			throw new IllegalArgumentException("'' is not a valid Modrinth identifier.");
+		}
+
+		// Identifiers are unsigned, matching encodeId(long).
+		long limit = Long.divideUnsigned(-1L, ALPHABET.length());
+		long value = 0L;
+		for (int i = 0; i < id.length(); i++) {
+			int digit = ALPHABET.indexOf(id.charAt(i));
+			if (digit < 0) {
+				throw new IllegalArgumentException("'" + id + "' is not a valid Modrinth identifier.");
+			}
+			if (Long.compareUnsigned(value, limit) > 0) {
+				throw new IllegalArgumentException("'" + id + "' does not fit into a resource identifier.");
+			}
+
+			long shifted = value * ALPHABET.length();
+			value = shifted + digit;
+			if (Long.compareUnsigned(value, shifted) < 0) {
+				throw new IllegalArgumentException("'" + id + "' does not fit into a resource identifier.");
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Encode a resource identifier into a Modrinth project identifier.
+	 * @param resourceId Resource identifier.
+	 * @return Modrinth project identifier.
+	 */
+	public static @NotNull String encodeId(long resourceId) {
+		if (resourceId == 0L) {
+			return "0";
+		}
+
+		StringBuilder builder = new StringBuilder();
+		long value = resourceId;
+		while (value != 0L) {
+			builder.append(ALPHABET.charAt((int) Long.remainderUnsigned(value, ALPHABET.length())));
+			value = Long.divideUnsigned(value, ALPHABET.length());
+		}
+		return builder.reverse().toString();
+	}
+
+	private static @NotNull Map<Long, String> latestVersions(@NotNull JsonReader versions) {
+		Map<Long, String> result = new HashMap<>();
+		Map<Long, Instant> published = new HashMap<>();
+		versions.beginArray();
+		while (versions.hasNext()) {
+			String projectId = null;
+			String versionNumber = null;
+			Instant datePublished = null;
+			versions.beginObject();
+			while (versions.hasNext()) {
+				String name = versions.nextName();
+				if (name.equals("project_id")) {
+					projectId = versions.nextString();
+				} else if (name.equals("version_number")) {
+					versionNumber = versions.nextString();
+				} else if (name.equals("date_published")) {
+					datePublished = Instant.parse(versions.nextString());
+				} else {
+					versions.skipValue();
+				}
+			}
+			versions.endObject();
+
+			if (null == projectId || null == versionNumber || null == datePublished) {
+				continue;
+			}
+
+			long resourceId = decodeId(projectId);
+			Instant latest = published.get(resourceId);
+			if (null == latest || datePublished.isAfter(latest)) {
+				published.put(resourceId, datePublished);
+				result.put(resourceId, versionNumber);
+			}
+		}
+		return result;
+	}
+
+	private static @NotNull String idArray(@NotNull Collection<String> ids) throws Exception {
+		return URLEncoder.encode(ids.stream().map(id -> '"' + id + '"').collect(Collectors.joining(",", "[", "]")), "UTF-8");
+	}
+
+	private static @NotNull String request(@NotNull UpdateLib updateLib, @NotNull String address) throws Exception {
+		HttpResponse response = HttpTransport.get(updateLib, address);
+		if (response.getStatusCode() != 200) {
+			throw new VersionResolveFailureException(response.getStatusCode(), "Modrinth's API did not respond with a 200 status code.");
+		}
+
+		return response.getBody();
+	}
+
+}
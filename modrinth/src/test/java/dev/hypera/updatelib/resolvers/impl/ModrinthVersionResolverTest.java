@@ -0,0 +1,134 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.objects.enums.FailureReason;
+import dev.hypera.updatelib.testing.FixtureServer;
+import dev.hypera.updatelib.testing.FixtureServer.Request;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ModrinthVersionResolver} against recorded Modrinth API responses.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class ModrinthVersionResolverTest {
+
+	private static final long FABRIC_API = ModrinthVersionResolver.decodeId("P7dR8mSH");
+	private static final long SODIUM = ModrinthVersionResolver.decodeId("AANobbMI");
+	private static final long DRAFT = ModrinthVersionResolver.decodeId("gvQqBUqZ");
+
+	private FixtureServer server;
+	private ModrinthVersionResolver resolver;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FixtureServer.start();
+		resolver = new ModrinthVersionResolver(server.getBaseUrl());
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void resolvesLatestVersion() throws Exception {
+		server.fixture("/v2/project/P7dR8mSH/version", 200, "modrinth/project-versions.json");
+		assertEquals("0.97.0+1.20.4", resolver.getVersion(FixtureServer.updateLib(), FABRIC_API));
+	}
+
+	@Test
+	void resolvesLatestPublishedVersionInAnyOrder() throws Exception {
+		server.fixture("/v2/project/P7dR8mSH/version", 200, "modrinth/project-versions-unordered.json");
+		assertEquals("0.97.0+1.20.4", resolver.getVersion(FixtureServer.updateLib(), FABRIC_API));
+	}
+
+	@Test
+	void projectWithoutVersionsIsInvalid() {
+		server.route("/v2/project/P7dR8mSH/version", request -> new FixtureServer.Response(200, "[]"));
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(FixtureServer.updateLib(), FABRIC_API));
+		assertEquals(FailureReason.INVALID_RESOURCE, ex.getReason());
+	}
+
+	@Test
+	void unknownProjectFailsWithStatus() {
+		VersionResolveFailureException ex = assertThrows(VersionResolveFailureException.class, () -> resolver.getVersion(FixtureServer.updateLib(), FABRIC_API));
+		assertEquals(FailureReason.HTTP_STATUS, ex.getReason());
+		assertEquals(404, ex.getStatusCode());
+	}
+
+	@Test
+	void resolvesBulkWithTwoRequests() throws Exception {
+		server.fixture("/v2/projects", 200, "modrinth/projects.json");
+		server.fixture("/v2/versions", 200, "modrinth/versions.json");
+
+		Map<Long, String> expected = new HashMap<>();
+		expected.put(FABRIC_API, "0.97.0+1.20.4");
+		expected.put(SODIUM, "mc1.20.4-0.5.8");
+		assertEquals(expected, resolver.getVersions(FixtureServer.updateLib(), Arrays.asList(FABRIC_API, SODIUM, DRAFT)));
+
+		List<Request> requests = server.getRequests();
+		assertEquals(2, requests.size());
+		assertEquals("ids=[\"P7dR8mSH\",\"AANobbMI\",\"gvQqBUqZ\"]", URLDecoder.decode(requests.get(0).getQuery(), "UTF-8"));
+
+		// Only the first and last version of each project are requested, never the versions in between.
+		String versions = URLDecoder.decode(requests.get(1).getQuery(), "UTF-8");
+		for (String id : Arrays.asList("Nz0Kk7Re", "tFw0iWAk", "yaoBL9D9", "4GyXKCLd")) {
+			assertTrue(versions.contains('"' + id + '"'), versions);
+		}
+		assertTrue(!versions.contains("JXXWVhrg"), versions);
+	}
+
+	@Test
+	void identifiersRoundTrip() {
+		for (long id : new long[] { 0L, 1L, 61L, 62L, FABRIC_API, Long.MAX_VALUE, -1L }) {
+			assertEquals(id, ModrinthVersionResolver.decodeId(ModrinthVersionResolver.encodeId(id)));
+		}
+	}
+
+	@Test
+	void rejectsOverflowingIdentifiers() {
+		// 2^64 - 1 is "LygHa16AHYF" in base 62.
+		assertEquals(-1L, ModrinthVersionResolver.decodeId("LygHa16AHYF"));
+		assertThrows(IllegalArgumentException.class, () -> ModrinthVersionResolver.decodeId("LygHa16AHYG"));
+		assertThrows(IllegalArgumentException.class, () -> ModrinthVersionResolver.decodeId("100000000000"));
+		assertThrows(IllegalArgumentException.class, () -> ModrinthVersionResolver.decodeId("zzzzzzzzzzzz"));
+		assertThrows(IllegalArgumentException.class, () -> ModrinthVersionResolver.decodeId(""));
+		assertThrows(IllegalArgumentException.class, () -> ModrinthVersionResolver.decodeId("P7dR8m-H"));
+	}
+
+}
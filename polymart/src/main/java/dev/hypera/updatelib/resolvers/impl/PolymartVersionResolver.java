@@ -25,15 +25,14 @@ package dev.hypera.updatelib.resolvers.impl;
 
 import dev.hypera.updatelib.UpdateLib;
 import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.BodyCompletion;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.json.JsonReader;
+import dev.hypera.updatelib.objects.enums.FailureReason;
 import dev.hypera.updatelib.resolvers.IVersionResolver;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.stream.Collectors;
-import javax.net.ssl.HttpsURLConnection;
+import java.util.Collections;
 import org.jetbrains.annotations.NotNull;
-import org.json.simple.JSONObject;
-import org.json.simple.JSONValue;
 
 /**
  * Polymart version resolver
@@ -42,7 +41,23 @@ import org.json.simple.JSONValue;
  */
 public class PolymartVersionResolver implements IVersionResolver {
 
-	private static final String URL_FORMAT = "https://api.polymart.org/v1/getResourceInfo/?resource_id=%s";
+	private static final String DEFAULT_BASE_URL = "https://api.polymart.org";
+	private static final String URL_FORMAT = "%s/v1/getResourceInfo/?resource_id=%s";
+	private static final BodyCompletion COMPLETION = BodyCompletion.json("success").and(BodyCompletion.json("resource", "updates", "latest", "version"));
+
+	private final String baseUrl;
+
+	public PolymartVersionResolver() {
+		this(DEFAULT_BASE_URL);
+	}
+
+	/**
+	 * Create a new Polymart version resolver using a different API host.
+	 * @param baseUrl Polymart API base url, without a trailing slash, for example a mirror or test server.
+	 */
+	public PolymartVersionResolver(@NotNull String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
 
 	/**
 	 * Get the current version of a Polymart resource.
@@ -54,30 +69,24 @@ public class PolymartVersionResolver implements IVersionResolver {
 	@Override
 	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
 		try {
-			URL url = new URL(String.format(URL_FORMAT, resourceId));
-			HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-			connection.setConnectTimeout(updateLib.getTimeout());
-			connection.setReadTimeout(updateLib.getTimeout());
-
-			if (connection.getResponseCode() != 200) {
-				throw new VersionResolveFailureException("Polymart's API did not respond with a 200 status code.");
+			HttpResponse response = HttpTransport.get(updateLib, String.format(URL_FORMAT, baseUrl, resourceId), Collections.emptyMap(), COMPLETION);
+			if (response.getStatusCode() != 200) {
+				throw new VersionResolveFailureException(response.getStatusCode(), "Polymart's API did not respond with a 200 status code.");
 			}
 
-			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			JSONObject json = (JSONObject) JSONValue.parse(bufferedReader.lines().collect(Collectors.joining()));
-			bufferedReader.close();
-
-			if (!((boolean) json.get("success"))) {
-				throw new VersionResolveFailureException("Polymart's API responded with a non-successful response.");
+			String body = response.getBody();
+			if (!"true".equals(JsonReader.select(body, "success"))) {
+				throw new VersionResolveFailureException(FailureReason.INVALID_RESOURCE, "Polymart's API responded with a non-successful response.");
 			}
 
-			JSONObject resource = (JSONObject) json.get("resource");
-			JSONObject updates = (JSONObject) resource.get("updates");
-			JSONObject latest = (JSONObject) updates.get("latest");
+			String version = JsonReader.select(body, "resource", "updates", "latest", "version");
+			if (null == version) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, "Polymart's API response did not contain a version.");
+			}
 
-			return latest.get("version").toString();
+			return version;
 		} catch (Exception ex) {
-			throw new VersionResolveFailureException(ex);
+			throw VersionResolveFailureException.wrap(ex);
 		}
 	}
 
@@ -25,16 +25,14 @@ package dev.hypera.updatelib.resolvers.impl;
 
 import dev.hypera.updatelib.UpdateLib;
 import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.http.BodyCompletion;
+import dev.hypera.updatelib.http.HttpResponse;
+import dev.hypera.updatelib.http.HttpTransport;
+import dev.hypera.updatelib.json.JsonReader;
+import dev.hypera.updatelib.objects.enums.FailureReason;
 import dev.hypera.updatelib.resolvers.IVersionResolver;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.stream.Collectors;
-import javax.net.ssl.HttpsURLConnection;
+import java.util.Collections;
 import org.jetbrains.annotations.NotNull;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.JSONValue;
 
 /**
  * Songoda version resolver, uses the Songoda v2 API to get the latest version of a Songoda product.
@@ -43,7 +41,23 @@ import org.json.simple.JSONValue;
  */
 public class SongodaVersionResolver implements IVersionResolver {
 
-	private static final String URL_FORMAT = "https://songoda.com/api/v2/products/id/%s";
+	private static final String DEFAULT_BASE_URL = "https://songoda.com";
+	private static final String URL_FORMAT = "%s/api/v2/products/id/%s";
+	private static final BodyCompletion COMPLETION = BodyCompletion.json("data", "versions", 0, "version");
+
+	private final String baseUrl;
+
+	public SongodaVersionResolver() {
+		this(DEFAULT_BASE_URL);
+	}
+
+	/**
+	 * Create a new Songoda version resolver using a different API host.
+	 * @param baseUrl Songoda base url, without a trailing slash, for example a mirror or test server.
+	 */
+	public SongodaVersionResolver(@NotNull String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
 
 	/**
 	 * Get the current version of a Songoda product.
@@ -55,25 +69,19 @@ public class SongodaVersionResolver implements IVersionResolver {
 	@Override
 	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
 		try {
-			URL url = new URL(String.format(URL_FORMAT, resourceId));
-			HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-			connection.setConnectTimeout(updateLib.getTimeout());
-			connection.setReadTimeout(updateLib.getTimeout());
-
-			if (connection.getResponseCode() != 200) {
-				throw new VersionResolveFailureException("Songoda's API did not respond with a 200 status code.");
+			HttpResponse response = HttpTransport.get(updateLib, String.format(URL_FORMAT, baseUrl, resourceId), Collections.emptyMap(), COMPLETION);
+			if (response.getStatusCode() != 200) {
+				throw new VersionResolveFailureException(response.getStatusCode(), "Songoda's API did not respond with a 200 status code.");
 			}
 
-			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			JSONObject json = (JSONObject) JSONValue.parse(bufferedReader.lines().collect(Collectors.joining()));
-			bufferedReader.close();
-
-			JSONObject data = (JSONObject) json.get("data");
-			JSONArray array = (JSONArray) data.get("versions");
+			String version = JsonReader.select(response.getBody(), "data", "versions", 0, "version");
+			if (null == version) {
+				throw new VersionResolveFailureException(FailureReason.PARSE_ERROR, "Songoda's API response did not contain a version.");
+			}
 
-			return ((JSONObject) array.get(0)).get("version").toString();
+			return version;
 		} catch (Exception ex) {
-			throw new VersionResolveFailureException(ex);
+			throw VersionResolveFailureException.wrap(ex);
 		}
 	}
 
@@ -0,0 +1,86 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.resolvers.impl;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.exceptions.VersionResolveFailureException;
+import dev.hypera.updatelib.resolvers.IVersionResolver;
+import dev.hypera.updatelib.subscription.EventStream;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Subscription version resolver, answers checks from a Server-Sent Events {@link EventStream} and falls back to
+ * polling another resolver while the stream is disconnected or has not announced the resource yet. Versions polled
+ * from the fallback are never cached in the stream, so a resource the stream does not announce keeps being polled.
+ * <p>
+ * New versions announced by the stream check the subscribed {@link UpdateLib} instances immediately, so the regular
+ * check interval only matters while the stream is down and can be kept long.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class SubscriptionVersionResolver implements IVersionResolver {
+
+	private final String url;
+	private final IVersionResolver fallback;
+
+	/**
+	 * Create a new subscription version resolver.
+	 * @param url Event stream url, resolvers using the same url share one connection.
+	 * @param fallback Resolver to poll while the stream cannot answer.
+	 */
+	public SubscriptionVersionResolver(@NotNull String url, @NotNull IVersionResolver fallback) {
+		this.url = url;
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Get the current version of a resource.
+	 * @param updateLib {@link UpdateLib} instance.
+	 * @param resourceId Resource identifier.
+	 * @return Current distributed version.
+	 * @throws VersionResolveFailureException if the stream could not answer and the fallback resolver failed.
+	 */
+	@Override
+	public @NotNull String getVersion(@NotNull UpdateLib updateLib, long resourceId) throws VersionResolveFailureException {
+		// Looked up on every check, as the stream is released while nothing is subscribed to it.
+		EventStream stream = EventStream.get(url);
+		stream.subscribe(resourceId, updateLib);
+
+		String version = stream.getVersion(resourceId);
+		if (null != version) {
+			return version;
+		}
+
+		return fallback.getVersion(updateLib, resourceId);
+	}
+
+	/**
+	 * Get the event stream used by this resolver, connecting to it if it was released.
+	 * @return Event stream.
+	 */
+	public @NotNull EventStream getStream() {
+		return EventStream.get(url);
+	}
+
+}
@@ -0,0 +1,435 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.subscription;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.json.JsonReader;
+import dev.hypera.updatelib.json.JsonToken;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Server-Sent Events stream of version updates, shared by every resolver subscribed to the same endpoint.
+ * <p>
+ * The stream holds one long-lived connection per endpoint, serviced by a daemon thread, and multiplexes it across
+ * every resource on the JVM. Each event's data is a JSON object such as {@code {"resource": 1234, "version": "1.2.3"}};
+ * events of a type other than {@code message} or {@code version} are ignored. When a resource's version changes,
+ * every open {@link UpdateLib} instance subscribed to it is checked straight away.
+ * <p>
+ * Dropped connections are reopened with exponential backoff, starting at the server's {@code retry} value but no
+ * less than 100 milliseconds, and resume from the last received event through the {@code Last-Event-ID} header.
+ * Servers are expected to replay events missed since that identifier. A {@code 204 No Content} response closes the stream for good.
+ * <p>
+ * Once every subscribed instance has been closed or collected, the stream disconnects and stops its thread, and the
+ * next {@link #get(String)} opens a new one.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+public class EventStream implements Closeable {
+
+	private static final Map<String, EventStream> STREAMS = new ConcurrentHashMap<>();
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+	private static final String USER_AGENT = "UpdateLib/" + UpdateLib.getVersion();
+	private static final long MIN_RETRY = 100L;
+	private static final long DEFAULT_RETRY = TimeUnit.SECONDS.toMillis(1);
+	private static final long MAX_RETRY = TimeUnit.MINUTES.toMillis(1);
+	private static final int CONNECT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+	private static final int READ_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(90);
+	private static final int MAX_EVENT_SIZE = 64 * 1024;
+
+	private final String url;
+	private final Map<Long, String> versions = new ConcurrentHashMap<>();
+	private final Map<Long, Set<UpdateLib>> subscribers = new ConcurrentHashMap<>();
+	private final Thread thread;
+
+	private volatile boolean connected = false;
+	private volatile boolean subscribed = false;
+	private volatile boolean closed = false;
+	private volatile String lastEventId = null;
+	private volatile HttpURLConnection connection = null;
+	private long retry = DEFAULT_RETRY;
+
+	private EventStream(@NotNull String url) {
+		this.url = url;
+		this.thread = new Thread(this::run, "UpdateLib-Subscription-" + COUNTER.incrementAndGet());
+		this.thread.setDaemon(true);
+		// The thread would otherwise keep the classloader of whichever plugin first requested the stream reachable.
+		this.thread.setContextClassLoader(null);
+	}
+
+	/**
+	 * Get the shared stream of an endpoint, connecting to it if it is not connected yet or was released. A stream
+	 * closed by its server is returned as is, so it is not reopened.
+	 * @param url Endpoint url.
+	 * @return Event stream.
+	 */
+	public static @NotNull EventStream get(@NotNull String url) {
+		return STREAMS.computeIfAbsent(url, u -> {
+			EventStream stream = new EventStream(u);
+			stream.thread.start();
+			return stream;
+		});
+	}
+
+	/**
+	 * Check an {@link UpdateLib} instance whenever the stream announces a new version of a resource. Instances are
+	 * held weakly, so subscribing does not keep them alive, and are unsubscribed once closed.
+	 * @param resourceId Resource identifier.
+	 * @param updateLib {@link UpdateLib} instance.
+	 */
+	public void subscribe(long resourceId, @NotNull UpdateLib updateLib) {
+		boolean added;
+		synchronized (subscribers) {
+			subscribed = true;
+			added = subscribers.computeIfAbsent(resourceId, id -> Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()))).add(updateLib);
+		}
+		if (added) {
+			updateLib.addCloseListener(() -> unsubscribe(resourceId, updateLib));
+		}
+	}
+
+	/**
+	 * Stop checking an {@link UpdateLib} instance when the stream announces a new version of a resource.
+	 * @param resourceId Resource identifier.
+	 * @param updateLib {@link UpdateLib} instance.
+	 */
+	public void unsubscribe(long resourceId, @NotNull UpdateLib updateLib) {
+		Set<UpdateLib> set = subscribers.get(resourceId);
+		if (null != set) {
+			set.remove(updateLib);
+		}
+		releaseIfIdle();
+	}
+
+	/**
+	 * Get the latest version of a resource known to the stream.
+	 * @param resourceId Resource identifier.
+	 * @return Latest version announced by the stream, or {@code null} if the stream is disconnected or has not
+	 *         announced the resource.
+	 */
+	public @Nullable String getVersion(long resourceId) {
+		return connected ? versions.get(resourceId) : null;
+	}
+
+	/**
+	 * Get whether the stream is currently connected.
+	 * @return {@code true} if connected.
+	 */
+	public boolean isConnected() {
+		return connected;
+	}
+
+	/**
+	 * Get the identifier of the last received event, sent as {@code Last-Event-ID} when reconnecting.
+	 * @return Last event identifier, or {@code null} if no identified event was received yet.
+	 */
+	public @Nullable String getLastEventId() {
+		return lastEventId;
+	}
+
+	/**
+	 * Close the stream. Resolvers using it fall back to polling.
+	 */
+	@Override
+	public void close() {
+		STREAMS.remove(url, this);
+		stop();
+	}
+
+	private void stop() {
+		closed = true;
+		connected = false;
+		HttpURLConnection current = connection;
+		if (null != current) {
+			current.disconnect();
+		}
+		thread.interrupt();
+	}
+
+	private void run() {
+		long backoff = 0L;
+		while (!closed && !releaseIfIdle()) {
+			try {
+				if (connect()) {
+					backoff = 0L;
+				}
+			} catch (IOException | RuntimeException ignored) {
+				// Reconnect below, checks fall back to polling in the meantime.
+			} finally {
+				connected = false;
+			}
+			if (closed) {
+				break;
+			}
+
+			backoff = 0L == backoff ? retry : Math.min(MAX_RETRY, backoff * 2);
+			try {
+				Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+			} catch (InterruptedException ex) {
+				break;
+			}
+		}
+	}
+
+	private boolean connect() throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+		conn.setConnectTimeout(CONNECT_TIMEOUT);
+		conn.setReadTimeout(READ_TIMEOUT);
+		conn.setRequestProperty("User-Agent", USER_AGENT);
+		conn.setRequestProperty("Accept", "text/event-stream");
+		conn.setRequestProperty("Cache-Control", "no-cache");
+		if (null != lastEventId) {
+			conn.setRequestProperty("Last-Event-ID", lastEventId);
+		}
+		connection = conn;
+
+		try {
+			int statusCode = conn.getResponseCode();
+			if (statusCode == 204) {
+				// Stays registered, so resolvers keep falling back to polling instead of reconnecting.
+				stop();
+				return false;
+			}
+			if (statusCode != 200) {
+				throw new IOException("Event stream responded with status code " + statusCode + ".");
+			}
+
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+				connected = true;
+				read(new LineReader(reader, MAX_EVENT_SIZE));
+			}
+			return true;
+		} finally {
+			connection = null;
+			conn.disconnect();
+		}
+	}
+
+	private void read(@NotNull LineReader reader) throws IOException {
+		String event = null;
+		String id = null;
+		StringBuilder data = new StringBuilder();
+		boolean oversized = false;
+
+		String line;
+		while (null != (line = reader.readLine())) {
+			if (reader.isTruncated()) {
+				// Oversized lines are dropped with their event, as they could otherwise grow without bound.
+				oversized = true;
+				data.setLength(0);
+				continue;
+			}
+			if (line.isEmpty()) {
+				if (null != id) {
+					lastEventId = id;
+				}
+				if (!oversized && data.length() > 0 && (null == event || event.equals("message") || event.equals("version"))) {
+					dispatch(data.toString());
+				}
+				event = null;
+				id = null;
+				data.setLength(0);
+				oversized = false;
+				continue;
+			}
+			if (line.charAt(0) == ':') {
+				// Comments are sent as heartbeats, a good time to notice that every subscriber has gone.
+				if (releaseIfIdle()) {
+					return;
+				}
+				continue;
+			}
+
+			int colon = line.indexOf(':');
+			String field = colon < 0 ? line : line.substring(0, colon);
+			String value = colon < 0 ? "" : line.substring(line.startsWith(": ", colon) ? colon + 2 : colon + 1);
+			switch (field) {
+				case "event":
+					event = value;
+					break;
+				case "data":
+					if (oversized || data.length() + value.length() > MAX_EVENT_SIZE) {
+						// Oversized events are dropped instead of growing the buffer without bound.
+						oversized = true;
+						data.setLength(0);
+						break;
+					}
+					if (data.length() > 0) {
+						data.append('\n');
+					}
+					data.append(value);
+					break;
+				case "id":
+					if (value.indexOf('\0') < 0) {
+						id = value;
+					}
+					break;
+				case "retry":
+					try {
+						// Floored, as a zero retry would reconnect to a failing endpoint without ever sleeping.
+						retry = Math.min(MAX_RETRY, Math.max(MIN_RETRY, Long.parseLong(value)));
+					} catch (NumberFormatException ignored) {
+						// Invalid retry fields are ignored.
+					}
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private void dispatch(@NotNull String data) {
+		long resourceId = -1L;
+		String version = null;
+		try {
+			JsonReader reader = new JsonReader(data);
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if (name.equals("resource") && reader.peek() != JsonToken.NULL) {
+					resourceId = Long.parseLong(reader.nextString());
+				} else if (name.equals("version") && reader.peek() != JsonToken.NULL) {
+					version = reader.nextString();
+				} else {
+					reader.skipValue();
+				}
+			}
+		} catch (IllegalStateException | NumberFormatException ex) {
+			return;
+		}
+		if (resourceId < 0L || null == version || version.equals(versions.put(resourceId, version))) {
+			return;
+		}
+
+		Set<UpdateLib> set = subscribers.get(resourceId);
+		if (null == set) {
+			return;
+		}
+		List<UpdateLib> affected;
+		synchronized (set) {
+			set.removeIf(UpdateLib::isClosed);
+			affected = new ArrayList<>(set);
+		}
+		for (UpdateLib updateLib : affected) {
+			updateLib.check();
+		}
+		releaseIfIdle();
+	}
+
+	private boolean releaseIfIdle() {
+		synchronized (subscribers) {
+			if (!subscribed) {
+				return false;
+			}
+			for (Long resourceId : subscribers.keySet()) {
+				subscribers.computeIfPresent(resourceId, (id, set) -> {
+					synchronized (set) {
+						set.removeIf(UpdateLib::isClosed);
+						return set.isEmpty() ? null : set;
+					}
+				});
+			}
+			if (!subscribers.isEmpty()) {
+				return false;
+			}
+			close();
+			return true;
+		}
+	}
+
+	/**
+	 * Reader of lines ending at a CR, LF or CRLF, which stops buffering a line once it reaches a maximum length.
+	 */
+	private static final class LineReader {
+
+		private final Reader reader;
+		private final int maxLength;
+		private final StringBuilder line = new StringBuilder();
+		private boolean skipLf = false;
+		private boolean truncated = false;
+
+		private LineReader(@NotNull Reader reader, int maxLength) {
+			this.reader = reader;
+			this.maxLength = maxLength;
+		}
+
+		/**
+		 * Read the next line. Characters beyond the maximum length are read but discarded.
+		 * @return Line without its terminator, or {@code null} at the end of the stream.
+		 * @throws IOException if the line could not be read.
+		 */
+		private @Nullable String readLine() throws IOException {
+			line.setLength(0);
+			truncated = false;
+			int c;
+			while ((c = reader.read()) != -1) {
+				if (skipLf) {
+					skipLf = false;
+					if (c == '\n') {
+						continue;
+					}
+				}
+				if (c == '\n' || c == '\r') {
+					skipLf = c == '\r';
+					return line.toString();
+				}
+				if (line.length() < maxLength) {
+					line.append((char) c);
+				} else {
+					truncated = true;
+				}
+			}
+			// An unterminated line at the end of the stream cannot complete an event.
+			return null;
+		}
+
+		/**
+		 * Get whether the last line read was longer than the maximum length.
+		 * @return {@code true} if truncated.
+		 */
+		private boolean isTruncated() {
+			return truncated;
+		}
+
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * UpdateLib - A simple update checking library for Minecraft Plugins.
+ * Copyright (c) 2021 Joshua Sing <joshua@hypera.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.hypera.updatelib.subscription;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.hypera.updatelib.UpdateLib;
+import dev.hypera.updatelib.testing.FixtureServer;
+import dev.hypera.updatelib.testing.FixtureServer.Request;
+import dev.hypera.updatelib.testing.FixtureServer.Response;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link EventStream} reconnecting to a stub event stream.
+ *
+ * @author Joshua Sing <joshua@hypera.dev>
+ */
+class EventStreamTest {
+
+	private FixtureServer server;
+	private EventStream stream;
+	private final List<Long> times = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FixtureServer.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (null != stream) {
+			stream.close();
+		}
+		server.close();
+	}
+
+	@Test
+	void reconnectsWithBackoffAndResumes() throws Exception {
+		respond(
+				new Response(200, "retry: 100\nid: 1\ndata: {\"resource\": 1, \"version\": \"1.0.1\"}\n\n"),
+				new Response(503, "unavailable"),
+				new Response(503, "unavailable"),
+				new Response(200, "id: 2\ndata: {\"resource\": 1, \"version\": \"1.0.2\"}\n\n"),
+				new Response(204, "")
+		);
+		stream = EventStream.get(server.getBaseUrl() + "/events");
+		awaitRequests(5);
+
+		List<Request> requests = server.getRequests();
+		assertEquals("text/event-stream", requests.get(0).getHeader("Accept"));
+		assertNull(requests.get(0).getHeader("Last-Event-ID"));
+		for (int i = 1; i <= 3; i++) {
+			assertEquals("1", requests.get(i).getHeader("Last-Event-ID"));
+		}
+		assertEquals("2", requests.get(4).getHeader("Last-Event-ID"));
+		assertEquals("2", stream.getLastEventId());
+
+		// Sleeps are jittered between half and all of the backoff, which doubles from the retry value on failures and
+		// starts over once a connection succeeds.
+		assertGap(1, 50L);
+		assertGap(2, 100L);
+		assertGap(3, 200L);
+		assertGap(4, 50L);
+	}
+
+	@Test
+	void zeroRetryIsFloored() throws Exception {
+		respond(new Response(200, "retry: 0\n\n"), new Response(503, "unavailable"));
+		stream = EventStream.get(server.getBaseUrl() + "/events");
+		Thread.sleep(600L);
+
+		// Sleeps of at least 50, 100 and 200 milliseconds fit into the wait, a zero retry would reconnect endlessly.
+		int requests = server.getRequests().size();
+		assertTrue(requests >= 2 && requests <= 5, "Reconnected " + requests + " times");
+	}
+
+	@Test
+	void dropsOversizedLines() throws Exception {
+		AtomicInteger oversizedChecks = new AtomicInteger();
+		AtomicInteger checks = new AtomicInteger();
+		UpdateLib oversized = UpdateLib.builder().resource(1).version("1.0.0").resolver((updateLib, resourceId) -> {
+			oversizedChecks.incrementAndGet();
+			return "1.0.0";
+		}).disableRepeatingChecks().build();
+		UpdateLib subscriber = UpdateLib.builder().resource(2).version("1.0.0").resolver((updateLib, resourceId) -> {
+			checks.incrementAndGet();
+			return "1.0.0";
+		}).disableRepeatingChecks().build();
+		try {
+			StringBuilder version = new StringBuilder();
+			for (int i = 0; i < 128 * 1024; i++) {
+				version.append('1');
+			}
+			String events = "id: 1\ndata: {\"resource\": 1, \"version\": \"" + version + "\"}\n\n" +
+					"id: 2\ndata: {\"resource\": 2, \"version\": \"1.0.1\"}\n\n";
+
+			// Events are only sent once both instances have subscribed and finished their initial check.
+			AtomicBoolean ready = new AtomicBoolean();
+			AtomicBoolean sent = new AtomicBoolean();
+			server.route("/events", request -> {
+				if (!ready.get()) {
+					return new Response(200, "retry: 100\n\n");
+				}
+				return sent.getAndSet(true) ? new Response(204, "") : new Response(200, events);
+			});
+			stream = EventStream.get(server.getBaseUrl() + "/events");
+			stream.subscribe(1, oversized);
+			stream.subscribe(2, subscriber);
+			await(() -> oversizedChecks.get() == 1 && checks.get() == 1);
+			ready.set(true);
+
+			await(() -> checks.get() == 2);
+			assertEquals("2", stream.getLastEventId());
+			assertEquals(1, oversizedChecks.get());
+		} finally {
+			oversized.close();
+			subscriber.close();
+		}
+	}
+
+	private void respond(Response... responses) {
+		AtomicInteger index = new AtomicInteger();
+		server.route("/events", request -> {
+			times.add(System.nanoTime());
+			return responses[Math.min(responses.length - 1, index.getAndIncrement())];
+		});
+	}
+
+	private void awaitRequests(int count) throws InterruptedException {
+		await(() -> server.getRequests().size() >= count);
+	}
+
+	private void await(@NotNull BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Timed out waiting for the stream");
+			Thread.sleep(10L);
+		}
+	}
+
+	private void assertGap(int request, long minimum) {
+		long gap = TimeUnit.NANOSECONDS.toMillis(times.get(request) - times.get(request - 1));
+		assertTrue(gap >= minimum, "Request " + request + " followed after " + gap + "ms, expected at least " + minimum + "ms");
+	}
+
+}